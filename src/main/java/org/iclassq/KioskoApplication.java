@@ -253,6 +253,12 @@ public class KioskoApplication extends Application {
             logger.warning("Error al cerrar sistema de detección: " + e.getMessage());
         }
 
+        try {
+            ServiceFactory.shutdown();
+        } catch (Exception e) {
+            logger.warning("Error al cerrar transporte HTTP: " + e.getMessage());
+        }
+
         try {
             logger.info("Cerrando aplicación...");
 
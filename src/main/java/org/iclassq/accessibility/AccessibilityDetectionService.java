@@ -1,8 +1,13 @@
 package org.iclassq.accessibility;
 
 import org.iclassq.accessibility.camera.CameraService;
+import org.iclassq.accessibility.camera.CameraSnapshot;
+import org.iclassq.accessibility.camera.CapturedFrame;
+import org.iclassq.accessibility.camera.EncodedFrame;
+import org.iclassq.accessibility.camera.FrameQualityScorer;
 import org.iclassq.accessibility.detection.DetectionResponse;
 import org.iclassq.accessibility.detection.DetectionService;
+import org.iclassq.config.AppConfig;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
@@ -10,9 +15,12 @@ import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -25,8 +33,12 @@ public class AccessibilityDetectionService {
     private final DetectionService mlService;
     private final AccessibilityManager accessibilityManager;
     private final ExecutorService executor;
+    private final MotionGate motionGate;
+    private final FrameQualityScorer frameScorer = new FrameQualityScorer();
+    private final ScheduledExecutorService backgroundSampler;
 
     private volatile boolean ready = false;
+    private volatile DetectionResponse lastResponse;
     private final List<Consumer<Boolean>> readyListeners = new ArrayList<>();
 
     public AccessibilityDetectionService(
@@ -37,6 +49,12 @@ public class AccessibilityDetectionService {
         this.mlService = mlService;
         this.accessibilityManager = accessibilityManager;
         this.executor = Executors.newCachedThreadPool();
+        this.motionGate = AppConfig.isMotionGateEnabled()
+                ? new MotionGate(AppConfig.getMotionGatePercent() / 100.0)
+                : null;
+        this.backgroundSampler = motionGate != null && cameraService.getConfig().isStreaming()
+                ? startBackgroundSampler()
+                : null;
 
         logger.info("AccessibilityDetectionService creado");
     }
@@ -90,6 +108,168 @@ public class AccessibilityDetectionService {
         }, executor);
     }
 
+    private ScheduledExecutorService startBackgroundSampler() {
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "MotionGateSamplerThread");
+            t.setDaemon(true);
+            return t;
+        });
+
+        long intervalMs = AppConfig.getMotionGateSampleMs();
+        sampler.scheduleWithFixedDelay(this::sampleBackground, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        return sampler;
+    }
+
+    private void sampleBackground() {
+        if (!ready) {
+            return;
+        }
+
+        try {
+            List<CapturedFrame> frames = cameraService.getStreamFrames();
+            try {
+                if (!frames.isEmpty()) {
+                    motionGate.observeBackground(frames);
+                }
+            } finally {
+                CapturedFrame.releaseAll(frames);
+            }
+        } catch (Exception e) {
+            logger.fine("Error actualizando fondo del gate de movimiento: " + e.getMessage());
+        }
+    }
+
+    public CompletableFuture<CameraSnapshot> captureSnapshotAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            if (!ready) {
+                throw new IllegalStateException("Servicio no está listo. Espera a que se inicialice.");
+            }
+
+            logger.info("Capturando frames de cámaras...");
+            CameraSnapshot snapshot = cameraService.captureSnapshot();
+
+            if (snapshot.getFrames().isEmpty()) {
+                logger.warning("No se capturaron frames");
+                throw new RuntimeException("No se pudieron capturar frames");
+            }
+
+            return snapshot;
+
+        }, executor);
+    }
+
+    public CompletableFuture<List<CapturedFrame>> captureBestFramesAsync() {
+        int burstSize = cameraService.getConfig().getFramesPerCapture();
+        if (burstSize <= 1) {
+            return captureSnapshotAsync().thenApply(CameraSnapshot::getFrames);
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            if (!ready) {
+                throw new IllegalStateException("Servicio no está listo. Espera a que se inicialice.");
+            }
+
+            logger.info(String.format("Capturando ráfagas de %d frame(s) por cámara...", burstSize));
+            int best = cameraService.getConfig().getBestFramesPerCamera();
+            List<CapturedFrame> selected = new ArrayList<>();
+
+            for (Map.Entry<Integer, List<CapturedFrame>> burst : cameraService.captureBursts().entrySet()) {
+                List<CapturedFrame> chosen;
+                try {
+                    chosen = frameScorer.selectBest(burst.getValue(), best,
+                            motionGate != null ? motionGate::backgroundChange : null);
+                } catch (Exception e) {
+                    logger.warning(String.format("Error puntuando frames de cámara %d: %s",
+                            burst.getKey(), e.getMessage()));
+                    chosen = List.of(burst.getValue().get(0));
+                }
+
+                selected.addAll(chosen);
+                for (CapturedFrame frame : burst.getValue()) {
+                    if (chosen.stream().noneMatch(kept -> kept == frame)) {
+                        frame.release();
+                    }
+                }
+            }
+
+            if (selected.isEmpty()) {
+                logger.warning("No se capturaron frames");
+                throw new RuntimeException("No se pudieron capturar frames");
+            }
+
+            logger.info(String.format("%d frame(s) seleccionado(s) de las ráfagas", selected.size()));
+            return selected;
+
+        }, executor);
+    }
+
+    private CompletableFuture<DetectionResponse> gateAndSend(List<CapturedFrame> frames) {
+        if (motionGate == null) {
+            return encodeAndSend(frames);
+        }
+
+        MotionGate.Result gate;
+        try {
+            gate = motionGate.evaluate(frames);
+        } catch (Exception e) {
+            logger.warning("Error en gate de movimiento, enviando a API ML: " + e.getMessage());
+            return encodeAndSend(frames);
+        }
+
+        DetectionResponse previous = lastResponse;
+
+        if (gate.getVerdict() == MotionGate.Verdict.EMPTY_SCENE) {
+            logger.info(String.format("Escena sin cambios respecto al fondo (%.1f%%), se omite API ML",
+                    gate.getBackgroundChange() * 100));
+            return CompletableFuture.completedFuture(DetectionResponse.skipped("escena vacía"));
+        }
+
+        if (gate.getVerdict() == MotionGate.Verdict.UNCHANGED && previous != null) {
+            logger.info(String.format("Escena igual a la última detección (%.1f%%), se reutiliza resultado",
+                    gate.getLastSentChange() * 100));
+            return CompletableFuture.completedFuture(previous);
+        }
+
+        return encodeAndSend(frames).thenApply(response -> {
+            motionGate.markSent(gate);
+            return response;
+        });
+    }
+
+    private CompletableFuture<DetectionResponse> encodeAndSend(List<CapturedFrame> frames) {
+        return sendEncodedToMLApiAsync(cameraService.encodeFrames(frames))
+                .thenApply(response -> {
+                    lastResponse = response;
+                    return response;
+                });
+    }
+
+    public CompletableFuture<List<EncodedFrame>> captureEncodedFramesAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            if (!ready) {
+                throw new IllegalStateException("Servicio no está listo. Espera a que se inicialice.");
+            }
+
+            logger.info("Capturando y codificando frames de cámaras...");
+            CameraSnapshot snapshot = cameraService.captureSnapshot();
+            List<EncodedFrame> frames;
+            try {
+                frames = cameraService.encodeSnapshot(snapshot);
+            } finally {
+                snapshot.release();
+            }
+
+            if (frames.isEmpty()) {
+                logger.warning("No se capturaron frames");
+                throw new RuntimeException("No se pudieron capturar frames");
+            }
+
+            logger.info(String.format("%d frame(s) capturado(s) y codificado(s)", frames.size()));
+            return frames;
+
+        }, executor);
+    }
+
     public List<String> encodeFramesToBase64(List<BufferedImage> frames) {
         logger.info("Codificando frames a Base64...");
 
@@ -118,11 +298,29 @@ public class AccessibilityDetectionService {
         }, executor);
     }
 
+    public CompletableFuture<DetectionResponse> sendEncodedToMLApiAsync(List<EncodedFrame> frames) {
+        return CompletableFuture.supplyAsync(() -> {
+            logger.info("Enviando frames a API ML...");
+
+            DetectionResponse response = mlService.detectEncoded(frames);
+
+            if (response.hasError()) {
+                logger.severe("Error en API ML: " + response.getError());
+                throw new RuntimeException("Error en detección ML: " + response.getError());
+            }
+
+            logger.info(String.format("Respuesta recibida: %s", response.getSummary()));
+            return response;
+
+        }, executor);
+    }
+
     public CompletableFuture<DetectionResponse> detectAsync() {
         logger.info("Iniciando detección completa");
 
-        return captureFramesAsync()
-                .thenCompose(this::sendToMLApiAsync)
+        return captureBestFramesAsync()
+                .thenCompose(frames -> gateAndSend(frames)
+                        .whenComplete((response, error) -> CapturedFrame.releaseAll(frames)))
                 .whenComplete((response, error) -> {
                     if (error != null) {
                         logger.severe("Error en detección: " + error.getMessage());
@@ -137,6 +335,11 @@ public class AccessibilityDetectionService {
 
         return detectAsync()
                 .thenApply(response -> {
+                    if (response.isSkipped()) {
+                        logger.info(response.getSummary() + ", se mantiene modo visual normal");
+                        return false;
+                    }
+
                     if (response.isDisabilityDetected()) {
                         logger.info("Persona con discapacidad detectada");
                         logger.info("   Tipo: " + response.getDisabilityType());
@@ -180,12 +383,24 @@ public class AccessibilityDetectionService {
         }
     }
 
+    public MotionGate getMotionGate() {
+        return motionGate;
+    }
+
     public boolean isReady() {
         return ready;
     }
 
     public void shutdown() {
         logger.info("Cerrando AccessibilityDetectionService...");
+        if (backgroundSampler != null) {
+            backgroundSampler.shutdownNow();
+        }
+        if (motionGate != null) {
+            logger.info(String.format("Gate de movimiento: %d llamada(s) enviada(s), %d omitida(s) (escena vacía %d, sin cambios %d)",
+                    motionGate.getSentCount(), motionGate.getSkippedCount(),
+                    motionGate.getEmptySceneCount(), motionGate.getUnchangedCount()));
+        }
         executor.shutdown();
         logger.info("AccessibilityDetectionService cerrado");
     }
@@ -137,8 +137,8 @@ public class AccessibilityInitializer {
             KioskoApplication.setCameraScheduler(scheduler);
 
             logger.info("  Smart Camera Scheduler inicializado");
-            logger.info("     - Verificación cada hora");
-            logger.info("     - Recarga horarios cada 6 horas");
+            logger.info("     - Activación exacta al inicio y fin del horario");
+            logger.info("     - Pre-calentamiento de cámara y API ML antes del inicio");
             logger.info("     - Activación/desactivación automática");
 
         } catch (Exception e) {
@@ -91,6 +91,11 @@ public class DisabilityDetector {
     public boolean detectAndActivate() {
         DetectionResponse response = detect();
 
+        if (response.isSkipped()) {
+            logger.info(response.getSummary() + ", se mantienen servicios normales");
+            return false;
+        }
+
         if (response.isDisabilityDetected()) {
             logger.info("Persona con discapacidad detectada");
             logger.info("Activando servicios de accesibilidad...");
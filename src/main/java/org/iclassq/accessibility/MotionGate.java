@@ -0,0 +1,184 @@
+package org.iclassq.accessibility;
+
+import lombok.Getter;
+import org.iclassq.accessibility.camera.CapturedFrame;
+import org.iclassq.accessibility.camera.GrayThumbnail;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+public class MotionGate {
+    private static final Logger logger = Logger.getLogger(MotionGate.class.getName());
+
+    private static final int THUMBNAIL_WIDTH = 64;
+    private static final int THUMBNAIL_HEIGHT = 48;
+    private static final int PIXEL_DIFF_THRESHOLD = 25;
+    private static final float BACKGROUND_ALPHA = 0.1f;
+    private static final float FOREGROUND_ALPHA = 0.01f;
+
+    public enum Verdict {
+        CHANGED,
+        EMPTY_SCENE,
+        UNCHANGED
+    }
+
+    private final double changedRatioThreshold;
+    private final Map<Integer, float[]> backgrounds = new ConcurrentHashMap<>();
+    private final Map<Integer, GrayThumbnail> lastSent = new ConcurrentHashMap<>();
+
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong emptySceneCount = new AtomicLong();
+    private final AtomicLong unchangedCount = new AtomicLong();
+
+    public MotionGate(double changedRatioThreshold) {
+        this.changedRatioThreshold = changedRatioThreshold;
+    }
+
+    public Result evaluate(List<CapturedFrame> frames) {
+        Map<Integer, GrayThumbnail> thumbnails = new HashMap<>();
+        double backgroundChange = 0;
+        double lastSentChange = 0;
+        boolean hasBackground = !frames.isEmpty();
+        boolean hasLastSent = !frames.isEmpty();
+
+        for (CapturedFrame frame : frames) {
+            GrayThumbnail thumbnail = GrayThumbnail.of(frame, THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT);
+            thumbnails.put(frame.getCameraIndex(), thumbnail);
+
+            float[] background = backgrounds.get(frame.getCameraIndex());
+            GrayThumbnail previous = lastSent.get(frame.getCameraIndex());
+
+            hasBackground &= background != null;
+            hasLastSent &= previous != null;
+
+            double ratio = background != null ? changedRatio(thumbnail, background) : 1.0;
+            backgroundChange = Math.max(backgroundChange, ratio);
+            lastSentChange = Math.max(lastSentChange, previous != null ? changedRatio(thumbnail, previous) : 1.0);
+
+            updateBackground(frame.getCameraIndex(), thumbnail,
+                    ratio < changedRatioThreshold ? BACKGROUND_ALPHA : FOREGROUND_ALPHA);
+        }
+
+        Verdict verdict = Verdict.CHANGED;
+        if (hasBackground && backgroundChange < changedRatioThreshold) {
+            verdict = Verdict.EMPTY_SCENE;
+            emptySceneCount.incrementAndGet();
+        } else if (hasLastSent && lastSentChange < changedRatioThreshold) {
+            verdict = Verdict.UNCHANGED;
+            unchangedCount.incrementAndGet();
+        }
+
+        logger.fine(String.format("Gate de movimiento: %s (cambio vs fondo %.3f, vs último envío %.3f)",
+                verdict, backgroundChange, lastSentChange));
+
+        return new Result(verdict, backgroundChange, lastSentChange, thumbnails);
+    }
+
+    public void observeBackground(List<CapturedFrame> frames) {
+        for (CapturedFrame frame : frames) {
+            GrayThumbnail thumbnail = GrayThumbnail.of(frame, THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT);
+            float[] background = backgrounds.get(frame.getCameraIndex());
+            boolean quiet = background == null || changedRatio(thumbnail, background) < changedRatioThreshold;
+            updateBackground(frame.getCameraIndex(), thumbnail, quiet ? BACKGROUND_ALPHA : FOREGROUND_ALPHA);
+        }
+    }
+
+    public double backgroundChange(CapturedFrame frame) {
+        float[] background = backgrounds.get(frame.getCameraIndex());
+        if (background == null) {
+            return 0;
+        }
+        return changedRatio(GrayThumbnail.of(frame, THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT), background);
+    }
+
+    public void markSent(Result result) {
+        lastSent.putAll(result.thumbnails);
+        sentCount.incrementAndGet();
+    }
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    public long getEmptySceneCount() {
+        return emptySceneCount.get();
+    }
+
+    public long getUnchangedCount() {
+        return unchangedCount.get();
+    }
+
+    public long getSkippedCount() {
+        return emptySceneCount.get() + unchangedCount.get();
+    }
+
+    public void reset() {
+        backgrounds.clear();
+        lastSent.clear();
+    }
+
+    private void updateBackground(int cameraIndex, GrayThumbnail thumbnail, float alpha) {
+        backgrounds.compute(cameraIndex, (index, background) -> {
+            if (background == null || background.length != thumbnail.size()) {
+                float[] initial = new float[thumbnail.size()];
+                for (int i = 0; i < initial.length; i++) {
+                    initial[i] = thumbnail.get(i);
+                }
+                return initial;
+            }
+
+            for (int i = 0; i < background.length; i++) {
+                background[i] += alpha * (thumbnail.get(i) - background[i]);
+            }
+            return background;
+        });
+    }
+
+    private static double changedRatio(GrayThumbnail thumbnail, float[] background) {
+        if (background.length != thumbnail.size()) {
+            return 1.0;
+        }
+
+        int changed = 0;
+        for (int i = 0; i < background.length; i++) {
+            if (Math.abs(thumbnail.get(i) - background[i]) > PIXEL_DIFF_THRESHOLD) {
+                changed++;
+            }
+        }
+        return (double) changed / background.length;
+    }
+
+    private static double changedRatio(GrayThumbnail thumbnail, GrayThumbnail previous) {
+        if (previous.size() != thumbnail.size()) {
+            return 1.0;
+        }
+
+        int changed = 0;
+        for (int i = 0; i < thumbnail.size(); i++) {
+            if (Math.abs(thumbnail.get(i) - previous.get(i)) > PIXEL_DIFF_THRESHOLD) {
+                changed++;
+            }
+        }
+        return (double) changed / thumbnail.size();
+    }
+
+    @Getter
+    public static class Result {
+        private final Verdict verdict;
+        private final double backgroundChange;
+        private final double lastSentChange;
+        private final Map<Integer, GrayThumbnail> thumbnails;
+
+        private Result(Verdict verdict, double backgroundChange, double lastSentChange,
+                       Map<Integer, GrayThumbnail> thumbnails) {
+            this.verdict = verdict;
+            this.backgroundChange = backgroundChange;
+            this.lastSentChange = lastSentChange;
+            this.thumbnails = thumbnails;
+        }
+    }
+}
@@ -1,43 +1,72 @@
 package org.iclassq.accessibility.camera;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.bytedeco.javacv.Frame;
 import org.bytedeco.javacv.Java2DFrameConverter;
-import org.bytedeco.javacv.OpenCVFrameGrabber;
+import org.iclassq.http.metrics.FixedBucketHistogram;
 
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Logger;
 
 @Getter
 public class CameraCapture {
     private static final Logger logger = Logger.getLogger(CameraCapture.class.getName());
+    private static final long MAX_BACKOFF_MS = 2000;
+    private static final int FAILURES_BEFORE_REOPEN = 10;
+    private static final int MAX_REOPENS = 3;
 
     private final int cameraIndex;
     private final CameraConfig config;
-    private OpenCVFrameGrabber grabber;
+    private final FrameSource source;
     private Java2DFrameConverter converter;
     private boolean initialized = false;
     private boolean capturing = false;
 
+    @Getter(AccessLevel.NONE)
+    private final FrameRing frames;
+    @Getter(AccessLevel.NONE)
+    private final FixedBucketHistogram servedFrameAge = new FixedBucketHistogram(FixedBucketHistogram.LATENCY_BOUNDS_MS);
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong framesGrabbed = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong grabErrors = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    private final ReentrantLock grabLock = new ReentrantLock();
+    @Getter(AccessLevel.NONE)
+    private volatile Thread grabThread;
+    @Getter(AccessLevel.NONE)
+    private final Object sourceLock = new Object();
+    @Getter(AccessLevel.NONE)
+    private boolean grabLoopRunning = false;
+    @Getter(AccessLevel.NONE)
+    private boolean closeOnGrabExit = false;
+    private volatile boolean streaming = false;
+    private volatile boolean mjpeg = false;
+
     public CameraCapture(int cameraIndex, CameraConfig config) {
+        this(cameraIndex, config, new OpenCVFrameSource(cameraIndex, config));
+    }
+
+    public CameraCapture(int cameraIndex, CameraConfig config, FrameSource source) {
         this.cameraIndex = cameraIndex;
         this.config = config;
+        this.source = source;
         this.converter = new Java2DFrameConverter();
+        this.frames = new FrameRing(Math.max(config.getFrameBufferSize(), config.getFramesPerCapture()));
     }
 
     public boolean initialize() {
         try {
             logger.info(String.format("Inicializando cámara %d...", cameraIndex));
 
-            grabber = new OpenCVFrameGrabber(cameraIndex);
-
-            grabber.setImageWidth(config.getCaptureWidth());
-            grabber.setImageHeight(config.getCaptureHeight());
-            grabber.start();
+            Frame testFrame = source.start();
+            mjpeg = source.isMjpeg();
 
-            Frame testFrame = grabber.grab();
             if (testFrame == null) {
                 logger.warning(String.format("Cámara %d no pudo capturar frame de prueba", cameraIndex));
                 stop();
@@ -46,10 +75,16 @@ public class CameraCapture {
 
             initialized = true;
             logger.info(String.format("Cámara %d inicializada correctamente", cameraIndex));
+
+            if (config.isStreaming()) {
+                startStreaming();
+            }
+
             return true;
 
         } catch (Exception e) {
             logger.severe(String.format("Error al inicializar cámara %d: %s", cameraIndex, e.getMessage()));
+            source.close();
             initialized = false;
             return false;
         }
@@ -67,27 +102,38 @@ public class CameraCapture {
             capturing = true;
             logger.info(String.format("Capturando %d frames de cámara %d...", frameCount, cameraIndex));
 
-            for (int i = 0; i < frameCount; i++) {
-                Frame frame = grabber.grab();
+            if (streaming) {
+                return captureFromStream(frameCount);
+            }
 
-                if (frame != null && frame.image != null) {
-                    BufferedImage bufferedImage = converter.convert(frame);
+            grabLock.lock();
+            try {
+                for (int i = 0; i < frameCount; i++) {
+                    Frame frame = source.grab();
 
-                    if (bufferedImage != null) {
-                        frames.add(bufferedImage);
-                        logger.fine(String.format("Frame %d/%d capturado de cámara %d",
-                                i + 1, frameCount, cameraIndex));
+                    if (frame != null && frame.image != null) {
+                        BufferedImage bufferedImage = mjpeg
+                                ? CapturedFrame.decodeJpeg(frame)
+                                : converter.convert(frame);
+
+                        if (bufferedImage != null) {
+                            frames.add(bufferedImage);
+                            logger.fine(String.format("Frame %d/%d capturado de cámara %d",
+                                    i + 1, frameCount, cameraIndex));
+                        } else {
+                            logger.warning(String.format("Frame %d de cámara %d es null después de conversión",
+                                    i + 1, cameraIndex));
+                        }
                     } else {
-                        logger.warning(String.format("Frame %d de cámara %d es null después de conversión",
-                                i + 1, cameraIndex));
+                        logger.warning(String.format("Frame %d de cámara %d es null", i + 1, cameraIndex));
                     }
-                } else {
-                    logger.warning(String.format("Frame %d de cámara %d es null", i + 1, cameraIndex));
-                }
 
-                if (i < frameCount - 1 && config.getFrameDelayMs() > 0) {
-                    Thread.sleep(config.getFrameDelayMs());
+                    if (i < frameCount - 1 && config.getFrameDelayMs() > 0) {
+                        Thread.sleep(config.getFrameDelayMs());
+                    }
                 }
+            } finally {
+                grabLock.unlock();
             }
 
             logger.info(String.format("%d frames capturados de cámara %d", frames.size(), cameraIndex));
@@ -105,26 +151,270 @@ public class CameraCapture {
         return frames;
     }
 
+    private List<BufferedImage> captureFromStream(int frameCount) throws InterruptedException {
+        List<BufferedImage> images = new ArrayList<>();
+        long lastSequence = -1;
+
+        for (int i = 0; i < frameCount; i++) {
+            CapturedFrame frame = getLatestFrame();
+
+            if (frame != null && frame.getSequence() != lastSequence) {
+                images.add(frame.getImage());
+                lastSequence = frame.getSequence();
+            } else {
+                logger.warning(String.format("Frame %d de cámara %d no disponible en el stream", i + 1, cameraIndex));
+            }
+
+            if (frame != null) {
+                frame.release();
+            }
+
+            if (i < frameCount - 1 && config.getFrameDelayMs() > 0) {
+                Thread.sleep(config.getFrameDelayMs());
+            }
+        }
+
+        return images;
+    }
+
     public BufferedImage captureSingleFrame() {
         List<BufferedImage> frames = captureFrames(1);
         return frames.isEmpty() ? null : frames.get(0);
     }
 
-    public void stop() {
+    public CapturedFrame grabFrame() {
+        if (!initialized || streaming || !grabLock.tryLock()) {
+            return null;
+        }
+
         try {
-            if (grabber != null) {
-                grabber.stop();
-                grabber.release();
-                logger.info(String.format("Cámara %d detenida", cameraIndex));
+            Frame frame = source.grab();
+            long capturedAtNanos = System.nanoTime();
+
+            if (frame == null || frame.image == null) {
+                grabErrors.incrementAndGet();
+                return null;
             }
+
+            CapturedFrame captured = new CapturedFrame(cameraIndex, frames.nextSequence(), frame.clone(),
+                    mjpeg, capturedAtNanos, System.currentTimeMillis());
+            captured.retain();
+            frames.publish(captured);
+            framesGrabbed.incrementAndGet();
+            return captured;
+
         } catch (Exception e) {
-            logger.warning(String.format("Error al detener cámara %d: %s", cameraIndex, e.getMessage()));
+            grabErrors.incrementAndGet();
+            logger.warning(String.format("Error capturando frame de cámara %d: %s", cameraIndex, e.getMessage()));
+            return null;
+        } finally {
+            grabLock.unlock();
+        }
+    }
+
+    public synchronized void startStreaming() {
+        if (!initialized || grabThread != null) {
+            return;
+        }
+
+        streaming = true;
+        synchronized (sourceLock) {
+            grabLoopRunning = true;
+            closeOnGrabExit = false;
+        }
+        grabThread = new Thread(this::grabLoop, "CameraGrabThread-" + cameraIndex);
+        grabThread.setDaemon(true);
+        grabThread.start();
+
+        logger.info(String.format("Streaming continuo iniciado en cámara %d", cameraIndex));
+    }
+
+    public synchronized void stopStreaming() {
+        Thread thread = grabThread;
+        if (thread == null) {
+            return;
+        }
+
+        streaming = false;
+        grabThread = null;
+        thread.interrupt();
+
+        try {
+            thread.join(config.getInitTimeoutMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (thread.isAlive()) {
+            logger.warning(String.format("El hilo de captura de cámara %d sigue dentro de grab(), se liberará al terminar",
+                    cameraIndex));
+        }
+
+        frames.clear();
+        logger.info(String.format("Streaming continuo detenido en cámara %d", cameraIndex));
+    }
+
+    private void grabLoop() {
+        int failures = 0;
+        int reopens = 0;
+
+        try {
+            while (streaming) {
+                try {
+                    Frame frame = source.grab();
+                    long capturedAtNanos = System.nanoTime();
+
+                    if (frame != null && frame.image != null) {
+                        frames.publish(new CapturedFrame(cameraIndex, frames.nextSequence(), frame.clone(),
+                                mjpeg, capturedAtNanos, System.currentTimeMillis()));
+                        framesGrabbed.incrementAndGet();
+                        failures = 0;
+                        reopens = 0;
+                        continue;
+                    }
+
+                    grabErrors.incrementAndGet();
+
+                } catch (Exception e) {
+                    if (!streaming) {
+                        break;
+                    }
+
+                    if (grabErrors.incrementAndGet() % 100 == 1) {
+                        logger.warning(String.format("Error en streaming de cámara %d: %s", cameraIndex, e.getMessage()));
+                    }
+                }
+
+                failures++;
+
+                if (failures >= FAILURES_BEFORE_REOPEN) {
+                    if (reopens >= MAX_REOPENS) {
+                        logger.severe(String.format("Cámara %d sin frames tras %d reaperturas, streaming detenido",
+                                cameraIndex, reopens));
+                        streaming = false;
+                        break;
+                    }
+
+                    reopens++;
+                    failures = 0;
+                    reopenSource(reopens);
+                }
+
+                Thread.sleep(backoffMs(failures));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (grabThread == Thread.currentThread()) {
+                grabThread = null;
+            }
+
+            synchronized (sourceLock) {
+                grabLoopRunning = false;
+                if (closeOnGrabExit) {
+                    closeSource();
+                }
+            }
+        }
+    }
+
+    private long backoffMs(int failures) {
+        long base = Math.max(config.getFrameDelayMs(), 50);
+        return Math.min(base << Math.min(Math.max(failures - 1, 0), 6), MAX_BACKOFF_MS);
+    }
+
+    private void reopenSource(int attempt) {
+        logger.warning(String.format("Cámara %d sin frames, reabriendo fuente (intento %d/%d)",
+                cameraIndex, attempt, MAX_REOPENS));
+
+        try {
+            source.close();
+            if (streaming && source.start() != null) {
+                mjpeg = source.isMjpeg();
+                logger.info(String.format("Cámara %d reabierta", cameraIndex));
+            }
+        } catch (Exception e) {
+            logger.warning(String.format("No se pudo reabrir cámara %d: %s", cameraIndex, e.getMessage()));
+        }
+    }
+
+    public CapturedFrame getLatestFrame() {
+        CapturedFrame frame = frames.latest();
+        if (frame != null) {
+            servedFrameAge.record(frame.getAgeMs());
+        }
+        return frame;
+    }
+
+    public List<CapturedFrame> getRecentFrames(long maxAgeMs) {
+        List<CapturedFrame> recent = new ArrayList<>();
+        for (CapturedFrame frame : frames.recent(Math.max(config.getFrameBufferSize(), config.getFramesPerCapture()))) {
+            if (frame.getAgeMs() <= maxAgeMs) {
+                recent.add(frame);
+            } else {
+                frame.release();
+            }
+        }
+        return recent;
+    }
+
+    void recordServed(CapturedFrame frame) {
+        servedFrameAge.record(frame.getAgeMs());
+    }
+
+    public long getFrameAgeMs() {
+        CapturedFrame frame = frames.latest();
+        if (frame == null) {
+            return -1;
+        }
+
+        long ageMs = frame.getAgeMs();
+        frame.release();
+        return ageMs;
+    }
+
+    public CameraStreamSnapshot getStreamSnapshot() {
+        return CameraStreamSnapshot.builder()
+                .cameraIndex(cameraIndex)
+                .streaming(streaming)
+                .mjpeg(mjpeg)
+                .framesGrabbed(framesGrabbed.get())
+                .grabErrors(grabErrors.get())
+                .frameAgeMs(getFrameAgeMs())
+                .servedFrames(servedFrameAge.getCount())
+                .servedAgeP50Ms(servedFrameAge.percentile(0.50))
+                .servedAgeP95Ms(servedFrameAge.percentile(0.95))
+                .servedAgeMaxMs(servedFrameAge.getMax())
+                .build();
+    }
+
+    public void stop() {
+        stopStreaming();
+        frames.clear();
+
+        try {
+            synchronized (sourceLock) {
+                if (grabLoopRunning) {
+                    closeOnGrabExit = true;
+                    return;
+                }
+                closeSource();
+            }
         } finally {
             initialized = false;
             capturing = false;
         }
     }
 
+    private void closeSource() {
+        try {
+            source.close();
+            logger.info(String.format("Cámara %d detenida", cameraIndex));
+        } catch (Exception e) {
+            logger.warning(String.format("Error al detener cámara %d: %s", cameraIndex, e.getMessage()));
+        }
+    }
+
     public void release() {
         stop();
         if (converter != null) {
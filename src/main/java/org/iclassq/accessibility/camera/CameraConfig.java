@@ -3,6 +3,10 @@ package org.iclassq.accessibility.camera;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.iclassq.config.AppConfig;
+
+import java.util.HashMap;
+import java.util.Map;
 
 @Getter
 @Setter
@@ -15,6 +19,19 @@ public class CameraConfig {
     private int delayBetweenFrames = 100;
     private int[] specificCameraIndices = null;
     private int cameraInitTimeout = 5;
+    private boolean streaming = false;
+    private int frameBufferSize = 4;
+    private int maxFrameAgeMs = 500;
+    private int snapshotDeadlineMs = 1000;
+    private int jpegQuality = 80;
+    private boolean mjpegPassthrough = false;
+    private boolean useInventory = true;
+    private int inventoryMaxAgeHours = 24;
+    private int detectorInputSize = 0;
+    private Map<Integer, CameraRoi> rois = new HashMap<>();
+    private int bestFramesPerCamera = 1;
+    private String frameSource = FrameSources.LIVE;
+    private int replayFps = 15;
 
     public int getInitTimeoutMs() {
         return cameraInitTimeout * 1000;
@@ -32,6 +49,14 @@ public class CameraConfig {
         config.setFramesPerCapture(1);
         config.setDelayBetweenFrames(100);
         config.setCameraInitTimeout(5);
+        config.setStreaming(AppConfig.isCameraStreamingEnabled());
+        config.setMjpegPassthrough(AppConfig.isCameraMjpegEnabled());
+        config.setDetectorInputSize(AppConfig.getDetectorInputSize());
+        config.setFramesPerCapture(AppConfig.getCameraBurstFrames());
+        config.setBestFramesPerCamera(AppConfig.getCameraBestFrames());
+        config.setRois(CameraRoiStore.inUserHome().load());
+        config.setFrameSource(AppConfig.getCameraSource());
+        config.setReplayFps(AppConfig.getCameraReplayFps());
         return config;
     }
 
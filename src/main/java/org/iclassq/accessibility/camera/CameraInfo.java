@@ -9,6 +9,9 @@ public class CameraInfo {
     String name;
     boolean available;
     CameraType type;
+    int width;
+    int height;
+    boolean mjpeg;
 
     @Getter
     @AllArgsConstructor
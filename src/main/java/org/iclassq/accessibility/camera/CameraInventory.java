@@ -0,0 +1,16 @@
+package org.iclassq.accessibility.camera;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class CameraInventory {
+    int deviceCount;
+    long verifiedAt;
+    List<CameraInfo> cameras;
+
+    public long getAgeMs() {
+        return System.currentTimeMillis() - verifiedAt;
+    }
+}
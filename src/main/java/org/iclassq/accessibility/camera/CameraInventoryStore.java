@@ -0,0 +1,174 @@
+package org.iclassq.accessibility.camera;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+public class CameraInventoryStore {
+    private static final Logger logger = Logger.getLogger(CameraInventoryStore.class.getName());
+
+    private static final int INVENTORY_VERSION = 1;
+    private static final String INVENTORY_FILE = "camaras-v" + INVENTORY_VERSION + ".json";
+
+    private final Path file;
+
+    public CameraInventoryStore(Path file) {
+        this.file = file;
+    }
+
+    public static CameraInventoryStore inUserHome() {
+        String userHome = System.getProperty("user.home");
+        return new CameraInventoryStore(Paths.get(userHome, ".iclassq", "cache", INVENTORY_FILE));
+    }
+
+    public CameraInventory load() {
+        if (!Files.exists(file)) {
+            logger.info("No existe inventario de cámaras en: " + file.toAbsolutePath());
+            return null;
+        }
+
+        try (JsonReader in = new JsonReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            int deviceCount = -1;
+            long verifiedAt = 0;
+            List<CameraInfo> cameras = new ArrayList<>();
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "version":
+                        int version = in.nextInt();
+                        if (version != INVENTORY_VERSION) {
+                            logger.warning(String.format("Versión de inventario de cámaras no soportada: %d (esperada %d)",
+                                    version, INVENTORY_VERSION));
+                            return null;
+                        }
+                        break;
+                    case "deviceCount":
+                        deviceCount = in.nextInt();
+                        break;
+                    case "verifiedAt":
+                        verifiedAt = in.nextLong();
+                        break;
+                    case "cameras":
+                        readCameras(in, cameras);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+
+            return new CameraInventory(deviceCount, verifiedAt, cameras);
+
+        } catch (Exception e) {
+            logger.warning("No se pudo leer inventario de cámaras: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void readCameras(JsonReader in, List<CameraInfo> cameras) throws IOException {
+        in.beginArray();
+        while (in.hasNext()) {
+            CameraInfo.CameraInfoBuilder camera = CameraInfo.builder()
+                    .available(true)
+                    .type(CameraInfo.CameraType.UNKNOWN);
+            boolean hasIndex = false;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "index":
+                        camera.index(in.nextInt());
+                        hasIndex = true;
+                        break;
+                    case "name":
+                        camera.name(in.nextString());
+                        break;
+                    case "type":
+                        camera.type(parseType(in.nextString()));
+                        break;
+                    case "width":
+                        camera.width(in.nextInt());
+                        break;
+                    case "height":
+                        camera.height(in.nextInt());
+                        break;
+                    case "mjpeg":
+                        camera.mjpeg(in.nextBoolean());
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+
+            if (hasIndex) {
+                cameras.add(camera.build());
+            }
+        }
+        in.endArray();
+    }
+
+    private CameraInfo.CameraType parseType(String name) {
+        try {
+            return CameraInfo.CameraType.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return CameraInfo.CameraType.UNKNOWN;
+        }
+    }
+
+    public void save(CameraInventory inventory) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tempFile = Files.createTempFile(file.getParent(), INVENTORY_FILE, ".tmp");
+
+        try {
+            try (JsonWriter out = new JsonWriter(Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8))) {
+                out.setIndent("  ");
+                out.beginObject();
+                out.name("version").value(INVENTORY_VERSION);
+                out.name("deviceCount").value(inventory.getDeviceCount());
+                out.name("verifiedAt").value(inventory.getVerifiedAt());
+                out.name("cameras").beginArray();
+
+                for (CameraInfo camera : inventory.getCameras()) {
+                    out.beginObject();
+                    out.name("index").value(camera.getIndex());
+                    out.name("name").value(camera.getName());
+                    out.name("type").value(camera.getType().name());
+                    out.name("width").value(camera.getWidth());
+                    out.name("height").value(camera.getHeight());
+                    out.name("mjpeg").value(camera.isMjpeg());
+                    out.endObject();
+                }
+
+                out.endArray();
+                out.endObject();
+            }
+
+            try {
+                Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            logger.fine(String.format("Inventario de cámaras guardado: %d cámara(s)", inventory.getCameras().size()));
+
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    public void clear() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warning("No se pudo borrar inventario de cámaras: " + e.getMessage());
+        }
+    }
+}
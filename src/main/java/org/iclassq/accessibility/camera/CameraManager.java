@@ -126,6 +126,15 @@ public class CameraManager {
         return CameraInfo.CameraType.UNKNOWN;
     }
 
+    public static int countSystemDevices() {
+        try {
+            String[] devices = OpenCVFrameGrabber.getDeviceDescriptions();
+            return devices != null ? devices.length : -1;
+        } catch (Exception | LinkageError e) {
+            return -1;
+        }
+    }
+
     public static boolean isCameraAvailable(int index) {
         return testCamera(index) != null;
     }
@@ -0,0 +1,65 @@
+package org.iclassq.accessibility.camera;
+
+import lombok.Value;
+import org.bytedeco.opencv.opencv_core.Rect;
+
+import java.util.Locale;
+
+@Value
+public class CameraRoi {
+    public static final CameraRoi FULL_FRAME = new CameraRoi(0, 0, 1, 1);
+
+    double x;
+    double y;
+    double width;
+    double height;
+
+    public static CameraRoi parse(String value) {
+        String[] parts = value.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("ROI debe tener 4 valores x,y,ancho,alto: " + value);
+        }
+
+        return checkBounds(new CameraRoi(
+                Double.parseDouble(parts[0].trim()),
+                Double.parseDouble(parts[1].trim()),
+                Double.parseDouble(parts[2].trim()),
+                Double.parseDouble(parts[3].trim())));
+    }
+
+    public static CameraRoi fromPixels(int x, int y, int width, int height, int frameWidth, int frameHeight) {
+        return checkBounds(new CameraRoi(
+                (double) x / frameWidth,
+                (double) y / frameHeight,
+                (double) width / frameWidth,
+                (double) height / frameHeight));
+    }
+
+    private static CameraRoi checkBounds(CameraRoi roi) {
+        if (roi.x < 0 || roi.y < 0 || roi.width <= 0 || roi.height <= 0
+                || roi.x + roi.width > 1.0001 || roi.y + roi.height > 1.0001) {
+            throw new IllegalArgumentException("ROI fuera del frame: " + roi.format());
+        }
+        return roi;
+    }
+
+    public boolean isFullFrame() {
+        return x <= 0 && y <= 0 && width >= 1 && height >= 1;
+    }
+
+    public Rect toRect(int frameWidth, int frameHeight) {
+        int left = clamp((int) Math.round(x * frameWidth), 0, frameWidth - 1);
+        int top = clamp((int) Math.round(y * frameHeight), 0, frameHeight - 1);
+        int right = clamp((int) Math.round((x + width) * frameWidth), left + 1, frameWidth);
+        int bottom = clamp((int) Math.round((y + height) * frameHeight), top + 1, frameHeight);
+        return new Rect(left, top, right - left, bottom - top);
+    }
+
+    public String format() {
+        return String.format(Locale.ROOT, "%.4f,%.4f,%.4f,%.4f", x, y, width, height);
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
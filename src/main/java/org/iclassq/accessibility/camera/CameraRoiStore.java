@@ -0,0 +1,80 @@
+package org.iclassq.accessibility.camera;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+public class CameraRoiStore {
+    private static final Logger logger = Logger.getLogger(CameraRoiStore.class.getName());
+
+    private static final String ROI_FILE = "camaras-roi.properties";
+    private static final String KEY_PREFIX = "camara.";
+    private static final String KEY_SUFFIX = ".roi";
+
+    private final Path file;
+
+    public CameraRoiStore(Path file) {
+        this.file = file;
+    }
+
+    public static CameraRoiStore inUserHome() {
+        String userHome = System.getProperty("user.home");
+        return new CameraRoiStore(Paths.get(userHome, ".iclassq", "config", ROI_FILE));
+    }
+
+    public Map<Integer, CameraRoi> load() {
+        Map<Integer, CameraRoi> rois = new TreeMap<>();
+
+        if (!Files.exists(file)) {
+            return rois;
+        }
+
+        Properties properties = new Properties();
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(in);
+        } catch (IOException e) {
+            logger.warning("No se pudo leer ROIs de cámaras: " + e.getMessage());
+            return rois;
+        }
+
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.startsWith(KEY_PREFIX) || !key.endsWith(KEY_SUFFIX)) {
+                continue;
+            }
+
+            try {
+                int index = Integer.parseInt(key.substring(KEY_PREFIX.length(), key.length() - KEY_SUFFIX.length()));
+                rois.put(index, CameraRoi.parse(properties.getProperty(key)));
+            } catch (IllegalArgumentException e) {
+                logger.warning(String.format("ROI inválido en %s: %s", key, e.getMessage()));
+            }
+        }
+
+        logger.info(String.format("ROIs de cámaras cargados: %s", rois.keySet()));
+        return rois;
+    }
+
+    public void save(Map<Integer, CameraRoi> rois) throws IOException {
+        Properties properties = new Properties();
+        for (Map.Entry<Integer, CameraRoi> entry : rois.entrySet()) {
+            properties.setProperty(KEY_PREFIX + entry.getKey() + KEY_SUFFIX, entry.getValue().format());
+        }
+
+        Files.createDirectories(file.getParent());
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            properties.store(out, "ROI por cámara: x,y,ancho,alto como fracción del frame (0-1)");
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+}
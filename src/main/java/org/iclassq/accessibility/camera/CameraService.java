@@ -15,13 +15,33 @@ public class CameraService {
     private final CameraConfig config;
     private final Map<Integer, CameraCapture> cameras;
     private final ExecutorService executorService;
+    private final FrameEncoder frameEncoder;
+    private final CameraInventoryStore inventoryStore;
+    private final FrameSourceFactory sourceFactory;
     private boolean initialized = false;
     private List<CameraInfo> availableCameras;
 
     public CameraService(CameraConfig config) {
+        this(config, FrameSources.parse(config.getFrameSource()));
+    }
+
+    public CameraService(CameraConfig config, FrameSourceFactory sourceFactory) {
+        this(config, config.isUseInventory() && sourceFactory.isLive() ? CameraInventoryStore.inUserHome() : null,
+                sourceFactory);
+    }
+
+    public CameraService(CameraConfig config, CameraInventoryStore inventoryStore) {
+        this(config, inventoryStore, FrameSources.live());
+    }
+
+    public CameraService(CameraConfig config, CameraInventoryStore inventoryStore, FrameSourceFactory sourceFactory) {
         this.config = config;
+        this.inventoryStore = inventoryStore;
+        this.sourceFactory = sourceFactory;
         this.cameras = new ConcurrentHashMap<>();
         this.executorService = Executors.newCachedThreadPool();
+        this.frameEncoder = new FrameEncoder(config.getJpegQuality(), config.getDetectorInputSize(), config.getRois(),
+                new JpegBufferPool(config.getMaxCameras() * config.getFrameBufferSize()));
         this.availableCameras = new ArrayList<>();
     }
 
@@ -32,7 +52,12 @@ public class CameraService {
     public boolean initialize() {
         logger.info("Inicializando CameraService...");
 
-        availableCameras = CameraManager.detectAvailableCameras(config.getMaxCameras());
+        if (revalidateInventory()) {
+            initialized = true;
+            return true;
+        }
+
+        availableCameras = sourceFactory.detectCameras(config);
 
         if (availableCameras.isEmpty()) {
             logger.severe("No se detectaron cámaras disponibles");
@@ -42,19 +67,14 @@ public class CameraService {
         logger.info(String.format("%d cámara(s) detectada(s)", availableCameras.size()));
 
         List<Integer> indicesToInitialize = getIndicesToInitialize();
-
-        int successCount = 0;
-        for (int index : indicesToInitialize) {
-            if (initializeCamera(index)) {
-                successCount++;
-            }
-        }
+        int successCount = initializeCameras(indicesToInitialize);
 
         initialized = successCount > 0;
 
         if (initialized) {
             logger.info(String.format("CameraService inicializado con %d/%d cámara(s)",
                     successCount, indicesToInitialize.size()));
+            saveInventory();
         } else {
             logger.severe("No se pudo inicializar ninguna cámara");
         }
@@ -62,6 +82,89 @@ public class CameraService {
         return initialized;
     }
 
+    private boolean revalidateInventory() {
+        if (inventoryStore == null) {
+            return false;
+        }
+
+        CameraInventory inventory = inventoryStore.load();
+        if (inventory == null || inventory.getCameras().isEmpty()) {
+            return false;
+        }
+
+        if (isHotPlugSuspected(inventory)) {
+            return false;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        availableCameras = new ArrayList<>(inventory.getCameras());
+
+        List<Integer> indices = getIndicesToInitialize();
+        int[] requested = config.getSpecificCameraIndices();
+        if (indices.isEmpty() || (requested != null && requested.length > indices.size())) {
+            logger.info("El inventario de cámaras no cubre las cámaras solicitadas, se hará detección completa");
+            return false;
+        }
+
+        if (initializeCameras(indices) < indices.size()) {
+            logger.warning("Alguna cámara del inventario no respondió, se hará detección completa");
+            stopAllCameras();
+            return false;
+        }
+
+        logger.info(String.format("CameraService inicializado desde inventario con %d cámara(s) en %d ms",
+                indices.size(), System.currentTimeMillis() - startedAt));
+        return true;
+    }
+
+    private boolean isHotPlugSuspected(CameraInventory inventory) {
+        long maxAgeMs = TimeUnit.HOURS.toMillis(config.getInventoryMaxAgeHours());
+        if (inventory.getAgeMs() > maxAgeMs) {
+            logger.info("Inventario de cámaras vencido, se hará detección completa");
+            return true;
+        }
+
+        int deviceCount = CameraManager.countSystemDevices();
+        if (deviceCount >= 0 && inventory.getDeviceCount() >= 0 && deviceCount != inventory.getDeviceCount()) {
+            logger.info(String.format("Cambió la cantidad de dispositivos de video (%d -> %d), se hará detección completa",
+                    inventory.getDeviceCount(), deviceCount));
+            return true;
+        }
+
+        return false;
+    }
+
+    private void saveInventory() {
+        if (inventoryStore == null) {
+            return;
+        }
+
+        List<CameraInfo> inventory = new ArrayList<>();
+        for (CameraInfo camera : availableCameras) {
+            CameraCapture capture = cameras.get(camera.getIndex());
+            if (capture == null) {
+                continue;
+            }
+
+            inventory.add(CameraInfo.builder()
+                    .index(camera.getIndex())
+                    .name(camera.getName())
+                    .available(true)
+                    .type(camera.getType())
+                    .width(capture.getSource().getWidth())
+                    .height(capture.getSource().getHeight())
+                    .mjpeg(capture.isMjpeg())
+                    .build());
+        }
+
+        try {
+            inventoryStore.save(new CameraInventory(CameraManager.countSystemDevices(),
+                    System.currentTimeMillis(), inventory));
+        } catch (Exception e) {
+            logger.warning("No se pudo guardar inventario de cámaras: " + e.getMessage());
+        }
+    }
+
     private List<Integer> getIndicesToInitialize() {
         List<Integer> indices = new ArrayList<>();
 
@@ -80,9 +183,31 @@ public class CameraService {
         return indices;
     }
 
+    private int initializeCameras(List<Integer> indices) {
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int index : indices) {
+            futures.add(executorService.submit(() -> initializeCamera(index)));
+        }
+
+        int successCount = 0;
+        for (Future<Boolean> future : futures) {
+            try {
+                if (future.get()) {
+                    successCount++;
+                }
+            } catch (ExecutionException e) {
+                logger.warning("Error inicializando cámara: " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return successCount;
+    }
+
     private boolean initializeCamera(int index) {
         try {
-            CameraCapture capture = new CameraCapture(index, config);
+            CameraCapture capture = new CameraCapture(index, config, sourceFactory.create(index, config));
             if (capture.initialize()) {
                 cameras.put(index, capture);
                 return true;
@@ -117,9 +242,10 @@ public class CameraService {
             futures.add(future);
         }
 
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getInitTimeoutMs());
         for (Future<Void> future : futures) {
             try {
-                future.get(config.getInitTimeoutMs(), TimeUnit.MILLISECONDS);
+                future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
             } catch (Exception e) {
                 logger.warning("Error esperando captura de cámara: " + e.getMessage());
             }
@@ -165,6 +291,7 @@ public class CameraService {
 
     public void stopAllCameras() {
         logger.info("Deteniendo todas las cámaras...");
+        logStreamSnapshots();
 
         for (CameraCapture capture : cameras.values()) {
             capture.stop();
@@ -214,36 +341,253 @@ public class CameraService {
             return new ArrayList<>();
         }
 
-        logger.info("Capturando 1 frame de cada cámara (optimizado)...");
+        CameraSnapshot snapshot = captureSnapshot();
+        try {
+            return snapshot.getImages();
+        } finally {
+            snapshot.release();
+        }
+    }
+
+    public CameraSnapshot captureSnapshot() {
+        return captureSnapshot(config.getSnapshotDeadlineMs());
+    }
+
+    public CameraSnapshot captureSnapshot(long deadlineMs) {
+        long startedAt = System.nanoTime();
+
+        if (!initialized) {
+            logger.warning("CameraService no está inicializado");
+            return CameraSnapshot.of(new ArrayList<>(), 0, 0);
+        }
+
+        List<CameraCapture> targets = new ArrayList<>(cameras.values());
+        List<CameraCapture> streamed = new ArrayList<>();
+        List<CameraCapture> onDemand = new ArrayList<>();
 
-        List<BufferedImage> frames = new ArrayList<>();
+        for (CameraCapture capture : targets) {
+            (capture.isStreaming() ? streamed : onDemand).add(capture);
+        }
 
-        for (Map.Entry<Integer, CameraCapture> entry : cameras.entrySet()) {
-            int cameraIndex = entry.getKey();
-            CameraCapture capture = entry.getValue();
+        List<CapturedFrame> frames = new ArrayList<>();
+        if (!streamed.isEmpty()) {
+            frames.addAll(alignStreamFrames(streamed));
+        }
+        if (!onDemand.isEmpty()) {
+            frames.addAll(triggerAll(onDemand, startedAt + TimeUnit.MILLISECONDS.toNanos(deadlineMs)));
+        }
+
+        CameraSnapshot snapshot = CameraSnapshot.of(frames, targets.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+
+        if (snapshot.isComplete()) {
+            logger.fine("Snapshot de cámaras: " + snapshot);
+        } else {
+            logger.warning("Snapshot de cámaras incompleto: " + snapshot);
+        }
+
+        return snapshot;
+    }
+
+    public List<CapturedFrame> getStreamFrames() {
+        List<CapturedFrame> frames = new ArrayList<>();
 
+        for (CameraCapture capture : cameras.values()) {
+            if (!capture.isStreaming()) {
+                continue;
+            }
+
+            List<CapturedFrame> recent = capture.getRecentFrames(config.getMaxFrameAgeMs());
+            if (!recent.isEmpty()) {
+                frames.add(recent.get(0));
+                CapturedFrame.releaseAll(recent.subList(1, recent.size()));
+            }
+        }
+
+        return frames;
+    }
+
+    public List<EncodedFrame> encodeSnapshot(CameraSnapshot snapshot) {
+        return frameEncoder.encodeAll(snapshot.getFrames());
+    }
+
+    public List<EncodedFrame> encodeFrames(List<CapturedFrame> frames) {
+        return frameEncoder.encodeAll(frames);
+    }
+
+    public Map<Integer, List<CapturedFrame>> captureBursts() {
+        return captureBursts(config.getFramesPerCapture(), config.getSnapshotDeadlineMs());
+    }
+
+    public Map<Integer, List<CapturedFrame>> captureBursts(int framesPerCamera, long deadlineMs) {
+        Map<Integer, List<CapturedFrame>> bursts = new TreeMap<>();
+
+        if (!initialized) {
+            logger.warning("CameraService no está inicializado");
+            return bursts;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        Map<Integer, Future<List<CapturedFrame>>> futures = new TreeMap<>();
+
+        for (CameraCapture capture : cameras.values()) {
+            if (capture.isStreaming()) {
+                List<CapturedFrame> recent = capture.getRecentFrames(config.getMaxFrameAgeMs());
+                if (!recent.isEmpty()) {
+                    int kept = Math.min(framesPerCamera, recent.size());
+                    bursts.put(capture.getCameraIndex(), new ArrayList<>(recent.subList(0, kept)));
+                    CapturedFrame.releaseAll(recent.subList(kept, recent.size()));
+                }
+            } else {
+                futures.put(capture.getCameraIndex(), executorService.submit(() -> grabBurst(capture, framesPerCamera, deadline)));
+            }
+        }
+
+        for (Map.Entry<Integer, Future<List<CapturedFrame>>> entry : futures.entrySet()) {
             try {
-                if (capture.isInitialized()) {
-                    BufferedImage frame = capture.captureSingleFrame();
+                List<CapturedFrame> burst = entry.getValue().get(remainingNanos(deadline), TimeUnit.NANOSECONDS);
+                if (!burst.isEmpty()) {
+                    bursts.put(entry.getKey(), burst);
+                }
+            } catch (TimeoutException e) {
+                logger.warning(String.format("Plazo agotado capturando ráfaga de cámara %d", entry.getKey()));
+            } catch (ExecutionException e) {
+                logger.warning(String.format("Error capturando ráfaga de cámara %d: %s",
+                        entry.getKey(), e.getCause().getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        return bursts;
+    }
+
+    private List<CapturedFrame> grabBurst(CameraCapture capture, int count, long deadline) throws InterruptedException {
+        List<CapturedFrame> burst = new ArrayList<>();
+
+        for (int i = 0; i < count && remainingNanos(deadline) > 0; i++) {
+            CapturedFrame frame = capture.grabFrame();
+            if (frame != null) {
+                burst.add(frame);
+            }
+
+            if (i < count - 1 && config.getFrameDelayMs() > 0) {
+                Thread.sleep(config.getFrameDelayMs());
+            }
+        }
+
+        return burst;
+    }
 
+    private List<CapturedFrame> triggerAll(List<CameraCapture> targets, long deadline) {
+        List<CapturedFrame> frames = new ArrayList<>();
+        CountDownLatch ready = new CountDownLatch(targets.size());
+        CountDownLatch trigger = new CountDownLatch(1);
+        CompletionService<CapturedFrame> completion = new ExecutorCompletionService<>(executorService);
+
+        for (CameraCapture capture : targets) {
+            completion.submit(() -> {
+                ready.countDown();
+                trigger.await();
+                return capture.grabFrame();
+            });
+        }
+
+        try {
+            if (!ready.await(remainingNanos(deadline), TimeUnit.NANOSECONDS)) {
+                logger.warning("No todas las cámaras quedaron listas antes del disparo");
+            }
+            trigger.countDown();
+
+            for (int i = 0; i < targets.size(); i++) {
+                Future<CapturedFrame> done = completion.poll(remainingNanos(deadline), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    logger.warning("Plazo de snapshot agotado, devolviendo frames parciales");
+                    break;
+                }
+
+                try {
+                    CapturedFrame frame = done.get();
                     if (frame != null) {
                         frames.add(frame);
-                        logger.info(String.format("Frame capturado de cámara %d", cameraIndex));
-                    } else {
-                        logger.warning(String.format("Frame nulo de cámara %d", cameraIndex));
                     }
-                } else {
-                    logger.warning(String.format("Cámara %d no está inicializada", cameraIndex));
+                } catch (ExecutionException e) {
+                    logger.warning("Error capturando snapshot: " + e.getCause().getMessage());
                 }
-            } catch (Exception e) {
-                logger.warning(String.format("Error capturando de cámara %d: %s",
-                        cameraIndex, e.getMessage()));
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            trigger.countDown();
+        }
+
+        return frames;
+    }
+
+    private List<CapturedFrame> alignStreamFrames(List<CameraCapture> targets) {
+        Map<CameraCapture, List<CapturedFrame>> candidates = new HashMap<>();
+        long reference = Long.MAX_VALUE;
+
+        for (CameraCapture capture : targets) {
+            List<CapturedFrame> recent = capture.getRecentFrames(config.getMaxFrameAgeMs());
+
+            if (recent.isEmpty()) {
+                logger.warning(String.format("Cámara %d no tiene frames recientes en el stream", capture.getCameraIndex()));
+                continue;
+            }
+
+            candidates.put(capture, recent);
+            reference = Math.min(reference, recent.get(0).getCapturedAtNanos());
         }
 
-        logger.info(String.format("Captura completa: %d frame(s) de %d cámara(s)",
-                frames.size(), cameras.size()));
+        List<CapturedFrame> frames = new ArrayList<>();
+        for (Map.Entry<CameraCapture, List<CapturedFrame>> entry : candidates.entrySet()) {
+            CapturedFrame closest = null;
+            for (CapturedFrame frame : entry.getValue()) {
+                if (closest == null || Math.abs(frame.getCapturedAtNanos() - reference)
+                        < Math.abs(closest.getCapturedAtNanos() - reference)) {
+                    closest = frame;
+                }
+            }
+
+            entry.getKey().recordServed(closest);
+            frames.add(closest);
+
+            for (CapturedFrame frame : entry.getValue()) {
+                if (frame != closest) {
+                    frame.release();
+                }
+            }
+        }
 
         return frames;
     }
+
+    private static long remainingNanos(long deadline) {
+        return Math.max(deadline - System.nanoTime(), 0);
+    }
+
+    public Map<Integer, Long> getFrameAgesMs() {
+        Map<Integer, Long> ages = new TreeMap<>();
+        for (CameraCapture capture : cameras.values()) {
+            ages.put(capture.getCameraIndex(), capture.getFrameAgeMs());
+        }
+        return ages;
+    }
+
+    public List<CameraStreamSnapshot> getStreamSnapshots() {
+        List<CameraStreamSnapshot> snapshots = new ArrayList<>();
+        for (CameraCapture capture : cameras.values()) {
+            snapshots.add(capture.getStreamSnapshot());
+        }
+        snapshots.sort(Comparator.comparingInt(CameraStreamSnapshot::getCameraIndex));
+        return snapshots;
+    }
+
+    public void logStreamSnapshots() {
+        for (CameraStreamSnapshot snapshot : getStreamSnapshots()) {
+            logger.info("  " + snapshot);
+        }
+    }
 }
\ No newline at end of file
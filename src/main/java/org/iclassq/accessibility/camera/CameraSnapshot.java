@@ -0,0 +1,55 @@
+package org.iclassq.accessibility.camera;
+
+import lombok.Value;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Value
+public class CameraSnapshot {
+    List<CapturedFrame> frames;
+    int requestedCameras;
+    long skewMs;
+    long elapsedMs;
+
+    public static CameraSnapshot of(List<CapturedFrame> frames, int requestedCameras, long elapsedMs) {
+        List<CapturedFrame> sorted = new ArrayList<>(frames);
+        sorted.sort(Comparator.comparingInt(CapturedFrame::getCameraIndex));
+
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (CapturedFrame frame : sorted) {
+            first = Math.min(first, frame.getCapturedAtNanos());
+            last = Math.max(last, frame.getCapturedAtNanos());
+        }
+
+        long skewMs = sorted.size() < 2 ? 0 : TimeUnit.NANOSECONDS.toMillis(last - first);
+        return new CameraSnapshot(List.copyOf(sorted), requestedCameras, skewMs, elapsedMs);
+    }
+
+    public boolean isComplete() {
+        return frames.size() == requestedCameras;
+    }
+
+    public List<BufferedImage> getImages() {
+        List<BufferedImage> images = new ArrayList<>();
+        for (CapturedFrame frame : frames) {
+            images.add(frame.getImage());
+        }
+        return images;
+    }
+
+    public void release() {
+        CapturedFrame.releaseAll(frames);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d/%d frame(s), desfase %d ms, %d ms%s",
+                frames.size(), requestedCameras, skewMs, elapsedMs,
+                isComplete() ? "" : " (parcial)");
+    }
+}
@@ -0,0 +1,32 @@
+package org.iclassq.accessibility.camera;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Builder
+@Value
+public class CameraStreamSnapshot {
+    int cameraIndex;
+    boolean streaming;
+    boolean mjpeg;
+    long framesGrabbed;
+    long grabErrors;
+    long frameAgeMs;
+    long servedFrames;
+    long servedAgeP50Ms;
+    long servedAgeP95Ms;
+    long servedAgeMaxMs;
+
+    @Override
+    public String toString() {
+        return String.format("Cámara %d: %s%s - %d frames capturados (%d errores), antigüedad actual %s, servidos %d (antigüedad p50/p95 %d/%d ms, máx %d)",
+                cameraIndex,
+                streaming ? "streaming" : "bajo demanda",
+                mjpeg ? " MJPEG" : "",
+                framesGrabbed, grabErrors,
+                frameAgeMs < 0 ? "sin frame" : frameAgeMs + " ms",
+                servedFrames,
+                servedAgeP50Ms, servedAgeP95Ms, servedAgeMaxMs
+        );
+    }
+}
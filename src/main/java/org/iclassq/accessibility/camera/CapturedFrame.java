@@ -0,0 +1,148 @@
+package org.iclassq.accessibility.camera;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.Java2DFrameConverter;
+
+import javax.imageio.ImageIO;
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Getter
+public class CapturedFrame {
+    private final int cameraIndex;
+    private final long sequence;
+    private final Frame frame;
+    private final boolean compressed;
+    private final long capturedAtNanos;
+    private final long capturedAtMillis;
+    private final int width;
+    private final int height;
+    private volatile BufferedImage image;
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    public CapturedFrame(int cameraIndex, long sequence, Frame frame, boolean compressed,
+                         long capturedAtNanos, long capturedAtMillis) {
+        this.cameraIndex = cameraIndex;
+        this.sequence = sequence;
+        this.frame = frame;
+        this.compressed = compressed;
+        this.capturedAtNanos = capturedAtNanos;
+        this.capturedAtMillis = capturedAtMillis;
+
+        Dimension size = compressed ? jpegSize(frame) : new Dimension(frame.imageWidth, frame.imageHeight);
+        this.width = size != null ? size.width : 0;
+        this.height = size != null ? size.height : 0;
+    }
+
+    public BufferedImage getImage() {
+        BufferedImage converted = image;
+        if (converted == null) {
+            synchronized (this) {
+                if (image == null) {
+                    image = compressed ? decodeJpeg(frame) : toBufferedImage(frame);
+                }
+                converted = image;
+            }
+        }
+        return converted;
+    }
+
+    public boolean retain() {
+        int count;
+        do {
+            count = references.get();
+            if (count <= 0) {
+                return false;
+            }
+        } while (!references.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    public void release() {
+        if (references.decrementAndGet() == 0) {
+            frame.close();
+        }
+    }
+
+    public static void releaseAll(Collection<CapturedFrame> frames) {
+        frames.forEach(CapturedFrame::release);
+    }
+
+    public long getAgeMs() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - capturedAtNanos);
+    }
+
+    public int getCompressedLength() {
+        return compressed ? frame.imageWidth : 0;
+    }
+
+    public void copyCompressed(byte[] target) {
+        ByteBuffer data = ((ByteBuffer) frame.image[0]).duplicate();
+        data.position(0);
+        data.get(target, 0, getCompressedLength());
+    }
+
+    static Dimension jpegSize(Frame frame) {
+        ByteBuffer data = (ByteBuffer) frame.image[0];
+        int length = frame.imageWidth;
+        int offset = 2;
+
+        while (offset + 8 < length) {
+            if ((data.get(offset) & 0xFF) != 0xFF) {
+                return null;
+            }
+
+            int marker = data.get(offset + 1) & 0xFF;
+            if (marker == 0xFF) {
+                offset++;
+                continue;
+            }
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD8)) {
+                offset += 2;
+                continue;
+            }
+
+            if (marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC) {
+                return new Dimension(readShort(data, offset + 7), readShort(data, offset + 5));
+            }
+
+            offset += 2 + readShort(data, offset + 2);
+        }
+
+        return null;
+    }
+
+    private static int readShort(ByteBuffer data, int offset) {
+        return ((data.get(offset) & 0xFF) << 8) | (data.get(offset + 1) & 0xFF);
+    }
+
+    static BufferedImage decodeJpeg(Frame frame) {
+        byte[] jpeg = new byte[frame.imageWidth];
+        ByteBuffer data = ((ByteBuffer) frame.image[0]).duplicate();
+        data.position(0);
+        data.get(jpeg);
+
+        try {
+            return ImageIO.read(new ByteArrayInputStream(jpeg));
+        } catch (IOException e) {
+            throw new UncheckedIOException("JPEG de cámara inválido", e);
+        }
+    }
+
+    private static BufferedImage toBufferedImage(Frame frame) {
+        BufferedImage converted = new BufferedImage(frame.imageWidth, frame.imageHeight,
+                Java2DFrameConverter.getBufferedImageType(frame));
+        Java2DFrameConverter.copy(frame, converted);
+        return converted;
+    }
+}
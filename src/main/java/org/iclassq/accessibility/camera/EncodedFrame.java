@@ -0,0 +1,41 @@
+package org.iclassq.accessibility.camera;
+
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Getter
+public class EncodedFrame implements AutoCloseable {
+    private final int cameraIndex;
+    private final long capturedAtMillis;
+    private final byte[] data;
+    private final int length;
+    private final String mediaType;
+    private final JpegBufferPool pool;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    public EncodedFrame(int cameraIndex, long capturedAtMillis, byte[] data, int length,
+                        String mediaType, JpegBufferPool pool) {
+        this.cameraIndex = cameraIndex;
+        this.capturedAtMillis = capturedAtMillis;
+        this.data = data;
+        this.length = length;
+        this.mediaType = mediaType;
+        this.pool = pool;
+    }
+
+    public String toBase64() {
+        ByteBuffer encoded = Base64.getEncoder().encode(ByteBuffer.wrap(data, 0, length));
+        return new String(encoded.array(), 0, encoded.limit(), StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    public void close() {
+        if (released.compareAndSet(false, true) && pool != null) {
+            pool.release(data);
+        }
+    }
+}
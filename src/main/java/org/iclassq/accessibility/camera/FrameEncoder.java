@@ -0,0 +1,119 @@
+package org.iclassq.accessibility.camera;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.IntPointer;
+import org.bytedeco.javacv.OpenCVFrameConverter;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Size;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static org.bytedeco.opencv.global.opencv_imgcodecs.*;
+import static org.bytedeco.opencv.global.opencv_imgproc.INTER_AREA;
+import static org.bytedeco.opencv.global.opencv_imgproc.resize;
+
+public class FrameEncoder {
+    private static final Logger logger = Logger.getLogger(FrameEncoder.class.getName());
+
+    public static final String JPEG = "image/jpeg";
+
+    private final IntPointer params;
+    private final JpegBufferPool pool;
+    private final int maxInputSize;
+    private final Map<Integer, CameraRoi> rois;
+    private final ThreadLocal<OpenCVFrameConverter.ToMat> converters =
+            ThreadLocal.withInitial(OpenCVFrameConverter.ToMat::new);
+
+    public FrameEncoder(int jpegQuality, JpegBufferPool pool) {
+        this(jpegQuality, 0, new HashMap<>(), pool);
+    }
+
+    public FrameEncoder(int jpegQuality, int maxInputSize, Map<Integer, CameraRoi> rois, JpegBufferPool pool) {
+        this.params = new IntPointer(IMWRITE_JPEG_QUALITY, jpegQuality);
+        this.maxInputSize = maxInputSize;
+        this.rois = rois;
+        this.pool = pool;
+    }
+
+    public EncodedFrame encode(CapturedFrame frame) {
+        CameraRoi roi = rois.getOrDefault(frame.getCameraIndex(), CameraRoi.FULL_FRAME);
+        boolean fits = maxInputSize <= 0
+                || (frame.getWidth() > 0 && Math.max(frame.getWidth(), frame.getHeight()) <= maxInputSize);
+
+        if (frame.isCompressed() && roi.isFullFrame() && fits) {
+            int length = frame.getCompressedLength();
+            byte[] buffer = pool.acquire(length);
+            frame.copyCompressed(buffer);
+            return new EncodedFrame(frame.getCameraIndex(), frame.getCapturedAtMillis(), buffer, length, JPEG, pool);
+        }
+
+        Mat source = converters.get().convert(frame.getFrame());
+        if (source == null || source.empty()) {
+            logger.warning(String.format("Frame de cámara %d sin imagen para codificar", frame.getCameraIndex()));
+            return null;
+        }
+
+        Mat decoded = frame.isCompressed() ? imdecode(source, IMREAD_COLOR) : null;
+        Mat image = decoded != null ? decoded : source;
+        Rect rect = roi.toRect(image.cols(), image.rows());
+        Mat cropped = new Mat(image, rect);
+        Mat scaled = scaleToInput(cropped);
+
+        try (BytePointer output = new BytePointer()) {
+            if (!imencode(".jpg", scaled, output, params)) {
+                logger.warning(String.format("No se pudo codificar JPEG de cámara %d", frame.getCameraIndex()));
+                return null;
+            }
+
+            int length = (int) (output.limit() - output.position());
+            byte[] buffer = pool.acquire(length);
+            output.get(buffer, 0, length);
+
+            return new EncodedFrame(frame.getCameraIndex(), frame.getCapturedAtMillis(), buffer, length, JPEG, pool);
+        } finally {
+            if (scaled != cropped) {
+                scaled.close();
+            }
+            cropped.close();
+            rect.close();
+            if (decoded != null) {
+                decoded.close();
+            }
+        }
+    }
+
+    private Mat scaleToInput(Mat image) {
+        int longSide = Math.max(image.cols(), image.rows());
+        if (maxInputSize <= 0 || longSide <= maxInputSize) {
+            return image;
+        }
+
+        double scale = (double) maxInputSize / longSide;
+        Mat scaled = new Mat();
+        try (Size size = new Size((int) Math.round(image.cols() * scale), (int) Math.round(image.rows() * scale))) {
+            resize(image, scaled, size, 0, 0, INTER_AREA);
+        }
+        return scaled;
+    }
+
+    public List<EncodedFrame> encodeAll(List<CapturedFrame> frames) {
+        List<EncodedFrame> encoded = new ArrayList<>();
+        for (CapturedFrame frame : frames) {
+            try {
+                EncodedFrame jpeg = encode(frame);
+                if (jpeg != null) {
+                    encoded.add(jpeg);
+                }
+            } catch (Exception e) {
+                logger.warning(String.format("Error codificando frame de cámara %d: %s",
+                        frame.getCameraIndex(), e.getMessage()));
+            }
+        }
+        return encoded;
+    }
+}
@@ -0,0 +1,33 @@
+package org.iclassq.accessibility.camera;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+class FramePacer {
+    private final long intervalNanos;
+    private long nextFrameAt;
+
+    FramePacer(int fps) {
+        this.intervalNanos = fps > 0 ? TimeUnit.SECONDS.toNanos(1) / fps : 0;
+    }
+
+    void await() throws InterruptedIOException {
+        if (intervalNanos == 0) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        if (nextFrameAt == 0) {
+            nextFrameAt = now;
+        }
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(nextFrameAt - now);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Reproducción interrumpida");
+        }
+
+        nextFrameAt = Math.max(nextFrameAt, now) + intervalNanos;
+    }
+}
@@ -0,0 +1,109 @@
+package org.iclassq.accessibility.camera;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import java.util.logging.Logger;
+
+public class FrameQualityScorer {
+    private static final Logger logger = Logger.getLogger(FrameQualityScorer.class.getName());
+
+    private static final int THUMBNAIL_WIDTH = 320;
+    private static final int THUMBNAIL_HEIGHT = 240;
+    private static final int SHADOW_LEVEL = 10;
+    private static final int HIGHLIGHT_LEVEL = 245;
+
+    private static final double SHARPNESS_WEIGHT = 0.5;
+    private static final double EXPOSURE_WEIGHT = 0.3;
+    private static final double CHANGE_WEIGHT = 0.2;
+
+    public List<FrameScore> score(List<CapturedFrame> burst, ToDoubleFunction<CapturedFrame> change) {
+        List<double[]> raw = new ArrayList<>();
+        double maxSharpness = 0;
+        double maxChange = 0;
+
+        for (CapturedFrame frame : burst) {
+            GrayThumbnail thumbnail = GrayThumbnail.of(frame, THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT);
+            double sharpness = laplacianVariance(thumbnail);
+            double exposure = exposureScore(thumbnail);
+            double changed = change != null ? change.applyAsDouble(frame) : 0;
+
+            raw.add(new double[]{sharpness, exposure, changed});
+            maxSharpness = Math.max(maxSharpness, sharpness);
+            maxChange = Math.max(maxChange, changed);
+        }
+
+        List<FrameScore> scores = new ArrayList<>();
+        for (int i = 0; i < burst.size(); i++) {
+            double[] values = raw.get(i);
+            double total = SHARPNESS_WEIGHT * (maxSharpness > 0 ? values[0] / maxSharpness : 0)
+                    + EXPOSURE_WEIGHT * values[1]
+                    + CHANGE_WEIGHT * (maxChange > 0 ? values[2] / maxChange : 0);
+
+            scores.add(new FrameScore(burst.get(i), values[0], values[1], values[2], total));
+        }
+
+        return scores;
+    }
+
+    public List<CapturedFrame> selectBest(List<CapturedFrame> burst, int count, ToDoubleFunction<CapturedFrame> change) {
+        if (burst.size() <= count) {
+            return new ArrayList<>(burst);
+        }
+
+        List<FrameScore> scores = score(burst, change);
+        scores.sort(Comparator.comparingDouble(FrameScore::getTotal).reversed());
+
+        List<CapturedFrame> best = new ArrayList<>();
+        for (FrameScore score : scores.subList(0, count)) {
+            logger.fine("Frame seleccionado: " + score);
+            best.add(score.getFrame());
+        }
+        return best;
+    }
+
+    static double laplacianVariance(GrayThumbnail thumbnail) {
+        int width = thumbnail.getWidth();
+        int height = thumbnail.getHeight();
+        if (width < 3 || height < 3) {
+            return 0;
+        }
+
+        double sum = 0;
+        double sumSquares = 0;
+        int count = 0;
+
+        for (int y = 1; y < height - 1; y++) {
+            for (int x = 1; x < width - 1; x++) {
+                int i = y * width + x;
+                int laplacian = thumbnail.get(i - width) + thumbnail.get(i + width)
+                        + thumbnail.get(i - 1) + thumbnail.get(i + 1)
+                        - 4 * thumbnail.get(i);
+                sum += laplacian;
+                sumSquares += (double) laplacian * laplacian;
+                count++;
+            }
+        }
+
+        double mean = sum / count;
+        return sumSquares / count - mean * mean;
+    }
+
+    static double exposureScore(GrayThumbnail thumbnail) {
+        long total = 0;
+        int clipped = 0;
+
+        for (int i = 0; i < thumbnail.size(); i++) {
+            int value = thumbnail.get(i);
+            total += value;
+            if (value <= SHADOW_LEVEL || value >= HIGHLIGHT_LEVEL) {
+                clipped++;
+            }
+        }
+
+        double mean = (double) total / thumbnail.size();
+        double clippedRatio = (double) clipped / thumbnail.size();
+        return Math.max(0, 1.0 - clippedRatio - Math.abs(mean - 128) / 256);
+    }
+}
@@ -0,0 +1,62 @@
+package org.iclassq.accessibility.camera;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class FrameRing {
+    private final AtomicReferenceArray<CapturedFrame> slots;
+    private final AtomicLong published = new AtomicLong(-1);
+
+    public FrameRing(int capacity) {
+        this.slots = new AtomicReferenceArray<>(Math.max(capacity, 1));
+    }
+
+    public void publish(CapturedFrame frame) {
+        CapturedFrame evicted = slots.getAndSet(slotOf(frame.getSequence()), frame);
+        published.set(frame.getSequence());
+
+        if (evicted != null) {
+            evicted.release();
+        }
+    }
+
+    public long nextSequence() {
+        return published.get() + 1;
+    }
+
+    public CapturedFrame latest() {
+        List<CapturedFrame> latest = recent(1);
+        return latest.isEmpty() ? null : latest.get(0);
+    }
+
+    public List<CapturedFrame> recent(int count) {
+        List<CapturedFrame> frames = new ArrayList<>();
+        long sequence = published.get();
+
+        for (long s = sequence; s >= 0 && s > sequence - Math.min(count, slots.length()); s--) {
+            CapturedFrame frame = slots.get(slotOf(s));
+            if (frame == null || frame.getSequence() != s || !frame.retain()) {
+                break;
+            }
+            frames.add(frame);
+        }
+
+        return frames;
+    }
+
+    public void clear() {
+        published.set(-1);
+        for (int i = 0; i < slots.length(); i++) {
+            CapturedFrame evicted = slots.getAndSet(i, null);
+            if (evicted != null) {
+                evicted.release();
+            }
+        }
+    }
+
+    private int slotOf(long sequence) {
+        return (int) (sequence % slots.length());
+    }
+}
@@ -0,0 +1,18 @@
+package org.iclassq.accessibility.camera;
+
+import lombok.Value;
+
+@Value
+public class FrameScore {
+    CapturedFrame frame;
+    double sharpness;
+    double exposure;
+    double change;
+    double total;
+
+    @Override
+    public String toString() {
+        return String.format("cámara %d #%d: nitidez %.1f, exposición %.2f, cambio %.3f, puntaje %.3f",
+                frame.getCameraIndex(), frame.getSequence(), sharpness, exposure, change, total);
+    }
+}
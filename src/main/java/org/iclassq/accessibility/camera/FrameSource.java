@@ -0,0 +1,22 @@
+package org.iclassq.accessibility.camera;
+
+import org.bytedeco.javacv.Frame;
+
+import java.io.IOException;
+
+public interface FrameSource extends AutoCloseable {
+    String getName();
+
+    Frame start() throws IOException;
+
+    Frame grab() throws IOException;
+
+    int getWidth();
+
+    int getHeight();
+
+    boolean isMjpeg();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,11 @@
+package org.iclassq.accessibility.camera;
+
+import java.util.List;
+
+public interface FrameSourceFactory {
+    List<CameraInfo> detectCameras(CameraConfig config);
+
+    FrameSource create(int cameraIndex, CameraConfig config);
+
+    boolean isLive();
+}
@@ -0,0 +1,138 @@
+package org.iclassq.accessibility.camera;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+public final class FrameSources {
+    public static final String LIVE = "camara";
+    public static final String IMAGE_DIRECTORY = "directorio";
+    public static final String VIDEO_FILE = "video";
+    public static final String SYNTHETIC = "sintetico";
+
+    private FrameSources() {
+    }
+
+    public static FrameSourceFactory live() {
+        return new FrameSourceFactory() {
+            @Override
+            public List<CameraInfo> detectCameras(CameraConfig config) {
+                return CameraManager.detectAvailableCameras(config.getMaxCameras());
+            }
+
+            @Override
+            public FrameSource create(int cameraIndex, CameraConfig config) {
+                return new OpenCVFrameSource(cameraIndex, config);
+            }
+
+            @Override
+            public boolean isLive() {
+                return true;
+            }
+        };
+    }
+
+    public static FrameSourceFactory imageDirectories(List<Path> directories) {
+        return new ReplayFactory(names("Directorio", directories), (index, config) ->
+                new ImageDirectoryFrameSource(directories.get(index), config.isMjpegPassthrough(), config.getReplayFps()));
+    }
+
+    public static FrameSourceFactory videoFiles(List<Path> files) {
+        return new ReplayFactory(names("Video", files), (index, config) ->
+                new VideoFileFrameSource(files.get(index), config.getReplayFps()));
+    }
+
+    public static FrameSourceFactory synthetic(int cameraCount) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < cameraCount; i++) {
+            names.add("Sintético " + i);
+        }
+
+        return new ReplayFactory(names, (index, config) ->
+                new SyntheticFrameSource(index, config.getCaptureWidth(), config.getCaptureHeight(), config.getReplayFps()));
+    }
+
+    public static FrameSourceFactory parse(String spec) {
+        if (spec == null || spec.isBlank() || spec.trim().equalsIgnoreCase(LIVE)) {
+            return live();
+        }
+
+        String value = spec.trim();
+        int separator = value.indexOf(':');
+        String type = (separator < 0 ? value : value.substring(0, separator)).toLowerCase();
+        String argument = separator < 0 ? "" : value.substring(separator + 1).trim();
+
+        switch (type) {
+            case IMAGE_DIRECTORY:
+                return imageDirectories(paths(spec, argument));
+            case VIDEO_FILE:
+                return videoFiles(paths(spec, argument));
+            case SYNTHETIC:
+                return synthetic(argument.isEmpty() ? 1 : Integer.parseInt(argument));
+            default:
+                throw new IllegalArgumentException("Fuente de frames desconocida: " + spec);
+        }
+    }
+
+    private static List<Path> paths(String spec, String argument) {
+        List<Path> paths = new ArrayList<>();
+        for (String path : argument.split(File.pathSeparator)) {
+            if (!path.isBlank()) {
+                paths.add(Paths.get(path.trim()));
+            }
+        }
+
+        if (paths.isEmpty()) {
+            throw new IllegalArgumentException("La fuente de frames no indica rutas: " + spec);
+        }
+        return paths;
+    }
+
+    private static List<String> names(String prefix, List<Path> paths) {
+        List<String> names = new ArrayList<>();
+        for (Path path : paths) {
+            names.add(prefix + " " + path.getFileName());
+        }
+        return names;
+    }
+
+    private static class ReplayFactory implements FrameSourceFactory {
+        private final List<String> names;
+        private final BiFunction<Integer, CameraConfig, FrameSource> creator;
+
+        private ReplayFactory(List<String> names, BiFunction<Integer, CameraConfig, FrameSource> creator) {
+            this.names = names;
+            this.creator = creator;
+        }
+
+        @Override
+        public List<CameraInfo> detectCameras(CameraConfig config) {
+            List<CameraInfo> cameras = new ArrayList<>();
+            for (int i = 0; i < Math.min(names.size(), config.getMaxCameras()); i++) {
+                cameras.add(CameraInfo.builder()
+                        .index(i)
+                        .name(names.get(i))
+                        .available(true)
+                        .type(CameraInfo.CameraType.UNKNOWN)
+                        .build());
+            }
+            return cameras;
+        }
+
+        @Override
+        public FrameSource create(int cameraIndex, CameraConfig config) {
+            if (cameraIndex < 0 || cameraIndex >= names.size()) {
+                throw new IllegalArgumentException("No hay fuente de frames para la cámara " + cameraIndex);
+            }
+            return creator.apply(cameraIndex, config);
+        }
+
+        @Override
+        public boolean isLive() {
+            return false;
+        }
+    }
+}
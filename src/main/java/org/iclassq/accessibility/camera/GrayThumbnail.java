@@ -0,0 +1,85 @@
+package org.iclassq.accessibility.camera;
+
+import lombok.Getter;
+import org.bytedeco.javacv.OpenCVFrameConverter;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Size;
+
+import static org.bytedeco.opencv.global.opencv_imgcodecs.*;
+import static org.bytedeco.opencv.global.opencv_imgproc.*;
+
+@Getter
+public class GrayThumbnail {
+    private static final ThreadLocal<OpenCVFrameConverter.ToMat> converters =
+            ThreadLocal.withInitial(OpenCVFrameConverter.ToMat::new);
+
+    private final int cameraIndex;
+    private final int width;
+    private final int height;
+    private final byte[] pixels;
+
+    private GrayThumbnail(int cameraIndex, int width, int height, byte[] pixels) {
+        this.cameraIndex = cameraIndex;
+        this.width = width;
+        this.height = height;
+        this.pixels = pixels;
+    }
+
+    public static GrayThumbnail of(CapturedFrame frame, int width, int height) {
+        Mat source = converters.get().convert(frame.getFrame());
+
+        try (Mat gray = toGray(source, frame, width, height);
+             Mat small = new Mat();
+             Size size = new Size(width, height)) {
+
+            resize(gray, small, size, 0, 0, INTER_AREA);
+
+            byte[] pixels = new byte[width * height];
+            small.data().get(pixels);
+            return new GrayThumbnail(frame.getCameraIndex(), width, height, pixels);
+        }
+    }
+
+    private static int reducedDecodeFlag(CapturedFrame frame, int width, int height) {
+        int frameWidth = frame.getWidth();
+        int frameHeight = frame.getHeight();
+
+        if (frameWidth >= width * 8 && frameHeight >= height * 8) {
+            return IMREAD_REDUCED_GRAYSCALE_8;
+        }
+        if (frameWidth >= width * 4 && frameHeight >= height * 4) {
+            return IMREAD_REDUCED_GRAYSCALE_4;
+        }
+        if (frameWidth >= width * 2 && frameHeight >= height * 2) {
+            return IMREAD_REDUCED_GRAYSCALE_2;
+        }
+        return IMREAD_GRAYSCALE;
+    }
+
+    private static Mat toGray(Mat source, CapturedFrame frame, int width, int height) {
+        if (frame.isCompressed()) {
+            return imdecode(source, reducedDecodeFlag(frame, width, height));
+        }
+
+        Mat gray = new Mat();
+        switch (source.channels()) {
+            case 1:
+                source.copyTo(gray);
+                break;
+            case 4:
+                cvtColor(source, gray, COLOR_BGRA2GRAY);
+                break;
+            default:
+                cvtColor(source, gray, COLOR_BGR2GRAY);
+        }
+        return gray;
+    }
+
+    public int get(int index) {
+        return pixels[index] & 0xFF;
+    }
+
+    public int size() {
+        return pixels.length;
+    }
+}
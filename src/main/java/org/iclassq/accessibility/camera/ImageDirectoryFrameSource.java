@@ -0,0 +1,128 @@
+package org.iclassq.accessibility.camera;
+
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.OpenCVFrameConverter;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.bytedeco.opencv.global.opencv_imgcodecs.imread;
+
+public class ImageDirectoryFrameSource implements FrameSource {
+    private static final List<String> IMAGE_EXTENSIONS = List.of(".jpg", ".jpeg", ".png", ".bmp");
+
+    private final Path directory;
+    private final boolean passthrough;
+    private final FramePacer pacer;
+    private final OpenCVFrameConverter.ToMat converter = new OpenCVFrameConverter.ToMat();
+    private List<Path> files;
+    private int nextFile;
+    private Mat current;
+    private int width;
+    private int height;
+    private boolean mjpeg;
+
+    public ImageDirectoryFrameSource(Path directory, boolean passthrough, int fps) {
+        this.directory = directory;
+        this.passthrough = passthrough;
+        this.pacer = new FramePacer(fps);
+    }
+
+    @Override
+    public String getName() {
+        return "Directorio " + directory.getFileName();
+    }
+
+    @Override
+    public Frame start() throws IOException {
+        try (Stream<Path> entries = Files.list(directory)) {
+            files = entries.filter(ImageDirectoryFrameSource::isImage).sorted().collect(Collectors.toList());
+        }
+
+        if (files.isEmpty()) {
+            throw new IOException("No hay imágenes en " + directory);
+        }
+
+        mjpeg = passthrough && files.stream().allMatch(ImageDirectoryFrameSource::isJpeg);
+
+        Frame first = decode(files.get(0));
+        width = first.imageWidth;
+        height = first.imageHeight;
+
+        return grab();
+    }
+
+    @Override
+    public Frame grab() throws IOException {
+        pacer.await();
+
+        Path file = files.get(nextFile);
+        nextFile = (nextFile + 1) % files.size();
+
+        return mjpeg ? readCompressed(file) : decode(file);
+    }
+
+    private Frame readCompressed(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+
+        Frame frame = new Frame(bytes.length, 1, Frame.DEPTH_UBYTE, 1);
+        ((ByteBuffer) frame.image[0]).put(bytes).rewind();
+        return frame;
+    }
+
+    private Frame decode(Path file) throws IOException {
+        Mat image = imread(file.toString());
+        if (image.empty()) {
+            image.close();
+            throw new IOException("No se pudo leer " + file);
+        }
+
+        if (current != null) {
+            current.close();
+        }
+        current = image;
+
+        return converter.convert(image);
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public boolean isMjpeg() {
+        return mjpeg;
+    }
+
+    @Override
+    public void close() {
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+        converter.close();
+    }
+
+    private static boolean isImage(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return Files.isRegularFile(file) && IMAGE_EXTENSIONS.stream().anyMatch(name::endsWith);
+    }
+
+    private static boolean isJpeg(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".jpg") || name.endsWith(".jpeg");
+    }
+}
@@ -0,0 +1,38 @@
+package org.iclassq.accessibility.camera;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+public class JpegBufferPool {
+    private static final int BUFFER_GRANULARITY = 64 * 1024;
+
+    private final BlockingQueue<byte[]> free;
+
+    public JpegBufferPool(int maxPooled) {
+        this.free = new ArrayBlockingQueue<>(Math.max(maxPooled, 1));
+    }
+
+    public byte[] acquire(int minLength) {
+        byte[] buffer = free.poll();
+        while (buffer != null && buffer.length < minLength) {
+            buffer = free.poll();
+        }
+
+        if (buffer == null) {
+            int length = ((minLength + BUFFER_GRANULARITY - 1) / BUFFER_GRANULARITY) * BUFFER_GRANULARITY;
+            buffer = new byte[Math.max(length, BUFFER_GRANULARITY)];
+        }
+
+        return buffer;
+    }
+
+    public void release(byte[] buffer) {
+        if (buffer != null) {
+            free.offer(buffer);
+        }
+    }
+
+    public int getPooledCount() {
+        return free.size();
+    }
+}
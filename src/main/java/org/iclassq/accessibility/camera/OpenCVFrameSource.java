@@ -0,0 +1,121 @@
+package org.iclassq.accessibility.camera;
+
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.FrameGrabber;
+import org.bytedeco.javacv.OpenCVFrameGrabber;
+
+import java.awt.Dimension;
+import java.nio.ByteBuffer;
+import java.util.logging.Logger;
+
+public class OpenCVFrameSource implements FrameSource {
+    private static final Logger logger = Logger.getLogger(OpenCVFrameSource.class.getName());
+    private static final String MJPEG_FOURCC = "MJPG";
+
+    private final int cameraIndex;
+    private final CameraConfig config;
+    private OpenCVFrameGrabber grabber;
+    private boolean mjpeg = false;
+    private Dimension jpegSize;
+
+    public OpenCVFrameSource(int cameraIndex, CameraConfig config) {
+        this.cameraIndex = cameraIndex;
+        this.config = config;
+    }
+
+    @Override
+    public String getName() {
+        return "Camera " + cameraIndex;
+    }
+
+    @Override
+    public Frame start() throws FrameGrabber.Exception {
+        return config.isMjpegPassthrough() ? openMjpeg() : openGrabber(false);
+    }
+
+    private Frame openMjpeg() throws FrameGrabber.Exception {
+        try {
+            Frame testFrame = openGrabber(true);
+            mjpeg = isJpeg(testFrame);
+
+            if (mjpeg) {
+                jpegSize = CapturedFrame.jpegSize(testFrame);
+                logger.info(String.format("Cámara %d entrega MJPEG, frames comprimidos sin recodificar", cameraIndex));
+                return testFrame;
+            }
+        } catch (FrameGrabber.Exception e) {
+            logger.fine(String.format("Cámara %d rechazó MJPEG: %s", cameraIndex, e.getMessage()));
+        }
+
+        logger.info(String.format("Cámara %d no acepta MJPEG, usando frames decodificados", cameraIndex));
+        close();
+        return openGrabber(false);
+    }
+
+    private Frame openGrabber(boolean requestMjpeg) throws FrameGrabber.Exception {
+        grabber = new OpenCVFrameGrabber(cameraIndex);
+
+        grabber.setImageWidth(config.getCaptureWidth());
+        grabber.setImageHeight(config.getCaptureHeight());
+
+        if (requestMjpeg) {
+            grabber.setFormat(MJPEG_FOURCC);
+            grabber.setImageMode(FrameGrabber.ImageMode.RAW);
+        }
+
+        grabber.start();
+        return grabber.grab();
+    }
+
+    @Override
+    public Frame grab() throws FrameGrabber.Exception {
+        return grabber.grab();
+    }
+
+    @Override
+    public int getWidth() {
+        if (mjpeg) {
+            return jpegSize != null ? jpegSize.width : config.getCaptureWidth();
+        }
+        return grabber != null ? grabber.getImageWidth() : 0;
+    }
+
+    @Override
+    public int getHeight() {
+        if (mjpeg) {
+            return jpegSize != null ? jpegSize.height : config.getCaptureHeight();
+        }
+        return grabber != null ? grabber.getImageHeight() : 0;
+    }
+
+    @Override
+    public boolean isMjpeg() {
+        return mjpeg;
+    }
+
+    @Override
+    public void close() {
+        if (grabber == null) {
+            return;
+        }
+
+        try {
+            grabber.stop();
+            grabber.release();
+        } catch (Exception e) {
+            logger.fine(String.format("Error al liberar cámara %d: %s", cameraIndex, e.getMessage()));
+        } finally {
+            grabber = null;
+        }
+    }
+
+    static boolean isJpeg(Frame frame) {
+        if (frame == null || frame.image == null || frame.imageHeight != 1 || frame.imageChannels != 1
+                || frame.imageDepth != Frame.DEPTH_UBYTE || frame.imageWidth < 2) {
+            return false;
+        }
+
+        ByteBuffer data = (ByteBuffer) frame.image[0];
+        return (data.get(0) & 0xFF) == 0xFF && (data.get(1) & 0xFF) == 0xD8;
+    }
+}
@@ -0,0 +1,131 @@
+package org.iclassq.accessibility.camera;
+
+import javax.imageio.ImageIO;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.logging.Logger;
+
+public class RoiCalibration {
+    private static final Logger logger = Logger.getLogger(RoiCalibration.class.getName());
+
+    private final CameraRoiStore roiStore;
+    private final Path directory;
+
+    public RoiCalibration(CameraRoiStore roiStore, Path directory) {
+        this.roiStore = roiStore;
+        this.directory = directory;
+    }
+
+    public static RoiCalibration inUserHome() {
+        String userHome = System.getProperty("user.home");
+        return new RoiCalibration(CameraRoiStore.inUserHome(), Paths.get(userHome, ".iclassq", "calibracion"));
+    }
+
+    public void saveFrames(CameraService cameraService) throws IOException {
+        Files.createDirectories(directory);
+        Map<Integer, CameraRoi> rois = roiStore.load();
+
+        CameraSnapshot snapshot = cameraService.captureSnapshot();
+        try {
+            for (CapturedFrame frame : snapshot.getFrames()) {
+                BufferedImage image = frame.getImage();
+                ImageIO.write(image, "jpg", frameFile(frame.getCameraIndex()).toFile());
+                writeOverlay(frame.getCameraIndex(), image, rois.getOrDefault(frame.getCameraIndex(), CameraRoi.FULL_FRAME));
+
+                logger.info(String.format("Frame de calibración de cámara %d guardado (%dx%d): %s",
+                        frame.getCameraIndex(), image.getWidth(), image.getHeight(), frameFile(frame.getCameraIndex())));
+            }
+        } finally {
+            snapshot.release();
+        }
+    }
+
+    public CameraRoi setRoi(int cameraIndex, int x, int y, int width, int height) throws IOException {
+        BufferedImage image = readFrame(cameraIndex);
+        CameraRoi roi = CameraRoi.fromPixels(x, y, width, height, image.getWidth(), image.getHeight());
+
+        Map<Integer, CameraRoi> rois = roiStore.load();
+        rois.put(cameraIndex, roi);
+        roiStore.save(rois);
+        writeOverlay(cameraIndex, image, roi);
+
+        logger.info(String.format("ROI de cámara %d guardado: %s", cameraIndex, roi.format()));
+        return roi;
+    }
+
+    public void clearRoi(int cameraIndex) throws IOException {
+        Map<Integer, CameraRoi> rois = roiStore.load();
+        rois.remove(cameraIndex);
+        roiStore.save(rois);
+
+        logger.info(String.format("ROI de cámara %d eliminado, se usará el frame completo", cameraIndex));
+    }
+
+    private BufferedImage readFrame(int cameraIndex) throws IOException {
+        Path file = frameFile(cameraIndex);
+        if (!Files.exists(file)) {
+            throw new IOException("No existe frame de calibración para la cámara " + cameraIndex + ": " + file);
+        }
+        return ImageIO.read(file.toFile());
+    }
+
+    private void writeOverlay(int cameraIndex, BufferedImage image, CameraRoi roi) throws IOException {
+        BufferedImage overlay = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = overlay.createGraphics();
+        try {
+            g.drawImage(image, 0, 0, null);
+            g.setColor(Color.GREEN);
+            g.setStroke(new BasicStroke(3));
+            g.drawRect(
+                    (int) Math.round(roi.getX() * image.getWidth()),
+                    (int) Math.round(roi.getY() * image.getHeight()),
+                    (int) Math.round(roi.getWidth() * image.getWidth()) - 1,
+                    (int) Math.round(roi.getHeight() * image.getHeight()) - 1);
+        } finally {
+            g.dispose();
+        }
+
+        ImageIO.write(overlay, "jpg", directory.resolve("camara-" + cameraIndex + "-roi.jpg").toFile());
+    }
+
+    private Path frameFile(int cameraIndex) {
+        return directory.resolve("camara-" + cameraIndex + ".jpg");
+    }
+
+    public static void main(String[] args) throws IOException {
+        RoiCalibration calibration = RoiCalibration.inUserHome();
+
+        if (args.length == 2 && "borrar".equalsIgnoreCase(args[1])) {
+            calibration.clearRoi(Integer.parseInt(args[0]));
+            return;
+        }
+
+        if (args.length == 5) {
+            calibration.setRoi(Integer.parseInt(args[0]), Integer.parseInt(args[1]), Integer.parseInt(args[2]),
+                    Integer.parseInt(args[3]), Integer.parseInt(args[4]));
+            return;
+        }
+
+        CameraConfig config = CameraConfig.getDefaultMLConfig();
+        config.setStreaming(false);
+        CameraService cameraService = new CameraService(config);
+
+        try {
+            if (!cameraService.initialize()) {
+                logger.severe("No se pudieron inicializar las cámaras para calibración");
+                return;
+            }
+            calibration.saveFrames(cameraService);
+            logger.info("Para fijar un ROI: RoiCalibration <cámara> <x> <y> <ancho> <alto> (píxeles del frame guardado)");
+        } finally {
+            cameraService.shutdown();
+        }
+    }
+}
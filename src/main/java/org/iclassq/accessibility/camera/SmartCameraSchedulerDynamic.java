@@ -2,33 +2,55 @@ package org.iclassq.accessibility.camera;
 
 import org.iclassq.KioskoApplication;
 import org.iclassq.accessibility.DisabilityDetector;
+import org.iclassq.config.AppConfig;
 import org.iclassq.config.ServiceFactory;
+import org.iclassq.http.RequestPriority;
 import org.iclassq.model.domain.SessionData;
 import org.iclassq.model.dto.response.HorarioDTO;
 import org.iclassq.service.HorarioService;
 
 import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 public class SmartCameraSchedulerDynamic {
     private static final Logger logger = Logger.getLogger(SmartCameraSchedulerDynamic.class.getName());
 
-    private LocalTime activeStartTime = LocalTime.of(6, 0);
-    private LocalTime activeEndTime = LocalTime.of(22, 0);
+    private static final long WATCHDOG_SECONDS = 60;
+
+    private volatile LocalTime activeStartTime = LocalTime.of(6, 0);
+    private volatile LocalTime activeEndTime = LocalTime.of(22, 0);
 
     private final ScheduledExecutorService scheduler;
     private final HorarioService horarioService;
-    private boolean cameraActive = false;
-    private boolean schedulerRunning = false;
+    private final Set<DayOfWeek> activeDays;
+    private final Duration prewarm;
+    private final long pollSeconds;
+
+    private volatile boolean cameraActive = false;
+    private volatile boolean schedulerRunning = false;
+    private DisabilityDetector prewarmedDetector;
+    private ScheduledFuture<?> boundaryTask;
 
     public SmartCameraSchedulerDynamic() {
-        this.scheduler = Executors.newScheduledThreadPool(1);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "CameraSchedulerThread");
+            t.setDaemon(true);
+            return t;
+        });
         this.horarioService = ServiceFactory.getHorarioService();
+        this.activeDays = AppConfig.getCameraActiveDays();
+        this.prewarm = Duration.ofMinutes(Math.max(AppConfig.getCameraPrewarmMinutes(), 0));
+        this.pollSeconds = Math.max(AppConfig.getCameraHorarioPollSeconds(), 5);
     }
 
     public void start() {
@@ -39,27 +61,24 @@ public class SmartCameraSchedulerDynamic {
 
         schedulerRunning = true;
 
-        loadHorarios();
-        checkAndAdjustCameraState();
+        horarioService.setOnHorarioChanged((idRol, horarios) ->
+                scheduler.execute(() -> applyHorarios(horarios)));
+
+        scheduler.execute(() -> {
+            loadHorarios();
+            reconcile();
+        });
 
-        scheduler.scheduleAtFixedRate(
-                this::checkAndAdjustCameraState,
-                1,
-                1,
-                TimeUnit.HOURS
-        );
+        scheduler.scheduleWithFixedDelay(this::reconcile, WATCHDOG_SECONDS, WATCHDOG_SECONDS, TimeUnit.SECONDS);
+        scheduler.scheduleWithFixedDelay(this::loadHorarios, pollSeconds, pollSeconds, TimeUnit.SECONDS);
 
-        scheduler.scheduleAtFixedRate(
-                this::loadHorarios,
-                6,
-                6,
-                TimeUnit.HOURS
-        );
+        logger.info(String.format("Scheduler de cámara iniciado (días: %s, pre-calentamiento: %d min, consulta horarios: %ds)",
+                activeDays, prewarm.toMinutes(), pollSeconds));
     }
 
     private void loadHorarios() {
         try {
-            logger.info("Cargando horarios desde base de datos...");
+            logger.fine("Consultando horarios desde base de datos...");
 
             SessionData session = SessionData.getInstance();
             Integer idRol = session.getRolEquipoId();
@@ -69,101 +88,212 @@ public class SmartCameraSchedulerDynamic {
                 return;
             }
 
-            HorarioDTO horarios = horarioService.getHorarios(idRol);
+            HorarioDTO horarios = RequestPriority.callInBackground(() -> horarioService.getHorarios(idRol));
 
             if (horarios == null) {
                 logger.warning("No se obtuvieron horarios, usando valores actuales");
                 return;
             }
 
-            LocalTime newStartTime = horarios.getHoraInicioAsLocalTime();
-            LocalTime newEndTime = horarios.getHoraFinAsLocalTime();
+            applyHorarios(horarios);
 
-            if (!newStartTime.equals(activeStartTime) || !newEndTime.equals(activeEndTime)) {
-                logger.info("Horarios actualizados desde base de datos");
-                logger.info(String.format("   Anterior: %s - %s",
-                        activeStartTime, activeEndTime));
-                logger.info(String.format("   Nuevo:    %s - %s",
-                        newStartTime, newEndTime));
-
-                activeStartTime = newStartTime;
-                activeEndTime = newEndTime;
+        } catch (Exception e) {
+            logger.warning(String.format("Error al cargar horarios desde BD: %s (usando %s - %s)",
+                    e.getMessage(), activeStartTime, activeEndTime));
+        }
+    }
 
-                checkAndAdjustCameraState();
-            } else {
-                logger.info(String.format("Horarios confirmados: %s - %s (sin cambios)",
-                        activeStartTime, activeEndTime));
-            }
+    private void applyHorarios(HorarioDTO horarios) {
+        LocalTime newStartTime = horarios.getHoraInicioAsLocalTime();
+        LocalTime newEndTime = horarios.getHoraFinAsLocalTime();
 
-        } catch (Exception e) {
-            logger.severe("Error al cargar horarios desde BD: " + e.getMessage());
-            logger.warning(String.format("   Usando horarios actuales: %s - %s",
+        if (newStartTime.equals(activeStartTime) && newEndTime.equals(activeEndTime)) {
+            logger.fine(String.format("Horarios confirmados: %s - %s (sin cambios)",
                     activeStartTime, activeEndTime));
-            e.printStackTrace();
+            return;
         }
+
+        logger.info("Horarios actualizados desde base de datos");
+        logger.info(String.format("   Anterior: %s - %s", activeStartTime, activeEndTime));
+        logger.info(String.format("   Nuevo:    %s - %s", newStartTime, newEndTime));
+
+        activeStartTime = newStartTime;
+        activeEndTime = newEndTime;
+
+        reconcile();
     }
 
-    private void checkAndAdjustCameraState() {
+    private void reconcile() {
+        if (!schedulerRunning) {
+            return;
+        }
+
         try {
             LocalDateTime now = LocalDateTime.now();
-            LocalTime currentTime = now.toLocalTime();
-            DayOfWeek currentDay = now.getDayOfWeek();
-
-            boolean shouldBeActive = isActiveTime(currentTime, currentDay);
+            LocalDateTime activeUntil = activeWindowEnd(now);
+            LocalDateTime nextBoundary;
 
-            logger.fine(String.format("Verificación horario: %s %s - Estado deseado: %s",
-                    currentDay, currentTime, shouldBeActive ? "ACTIVA" : "INACTIVA"));
-
-            if (shouldBeActive && !cameraActive) {
-                activateCamera(currentTime);
-            } else if (!shouldBeActive && cameraActive) {
-                deactivateCamera(currentTime);
+            if (activeUntil != null) {
+                activateCamera(now);
+                nextBoundary = activeUntil;
             } else {
-                logger.fine(String.format("Cámara ya está en estado correcto: %s",
-                        cameraActive ? "ACTIVA" : "INACTIVA"));
+                LocalDateTime nextStart = nextWindowStart(now);
+
+                if (nextStart == null) {
+                    deactivateCamera(now);
+                    nextBoundary = null;
+                } else if (!now.isBefore(nextStart.minus(prewarm))) {
+                    prewarmCamera(nextStart);
+                    nextBoundary = nextStart;
+                } else {
+                    deactivateCamera(now);
+                    nextBoundary = nextStart.minus(prewarm);
+                }
             }
 
+            armBoundary(now, nextBoundary);
+
         } catch (Exception e) {
             logger.severe("Error en verificación de horario: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
-    private boolean isActiveTime(LocalTime currentTime, DayOfWeek day) {
-        return !currentTime.isBefore(activeStartTime) && currentTime.isBefore(activeEndTime);
+    private LocalDateTime activeWindowEnd(LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+
+        for (LocalDate day : new LocalDate[]{today.minusDays(1), today}) {
+            if (!activeDays.contains(day.getDayOfWeek())) {
+                continue;
+            }
+
+            LocalDateTime start = day.atTime(activeStartTime);
+            LocalDateTime end = windowEnd(day);
+
+            if (!now.isBefore(start) && now.isBefore(end)) {
+                return end;
+            }
+        }
+
+        return null;
+    }
+
+    private LocalDateTime nextWindowStart(LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+
+        for (int i = 0; i <= 7; i++) {
+            LocalDate day = today.plusDays(i);
+            LocalDateTime start = day.atTime(activeStartTime);
+
+            if (activeDays.contains(day.getDayOfWeek()) && start.isAfter(now)) {
+                return start;
+            }
+        }
+
+        return null;
+    }
+
+    private LocalDateTime windowEnd(LocalDate day) {
+        return activeEndTime.isAfter(activeStartTime)
+                ? day.atTime(activeEndTime)
+                : day.plusDays(1).atTime(activeEndTime);
+    }
+
+    private void armBoundary(LocalDateTime now, LocalDateTime nextBoundary) {
+        if (boundaryTask != null) {
+            boundaryTask.cancel(false);
+            boundaryTask = null;
+        }
+
+        if (nextBoundary == null) {
+            logger.warning("No hay ventanas de horario activas en los próximos 7 días");
+            return;
+        }
+
+        ZoneId zone = ZoneId.systemDefault();
+        long delayMs = Math.max(Duration.between(now.atZone(zone), nextBoundary.atZone(zone)).toMillis(), 0);
+
+        boundaryTask = scheduler.schedule(this::reconcile, delayMs, TimeUnit.MILLISECONDS);
+
+        logger.fine(String.format("Próximo cambio de estado de cámara: %s (en %ds)", nextBoundary, delayMs / 1000));
+    }
+
+    private void prewarmCamera(LocalDateTime startsAt) {
+        if (cameraActive || prewarmedDetector != null) {
+            return;
+        }
+
+        logger.info(String.format("Pre-calentando cámara y API ML para el inicio de las %s", startsAt.toLocalTime()));
+
+        DisabilityDetector detector = createDetector();
+        if (detector != null) {
+            prewarmedDetector = detector;
+            logger.info("Cámara pre-calentada, se activará al inicio del horario");
+        }
     }
 
-    private void activateCamera(LocalTime currentTime) {
+    private void activateCamera(LocalDateTime now) {
+        if (cameraActive) {
+            return;
+        }
+
         logger.info("Activando camara - Horario Activo");
-        logger.info(String.format("   Hora actual: %s", currentTime));
-        logger.info(String.format("   Horario desde BD: %s - %s",
-                activeStartTime, activeEndTime));
+        logger.info(String.format("   Hora actual: %s", now.toLocalTime()));
+        logger.info(String.format("   Horario desde BD: %s - %s", activeStartTime, activeEndTime));
+
+        DisabilityDetector detector = prewarmedDetector;
+        prewarmedDetector = null;
 
+        if (detector != null) {
+            detector.getMlService().isApiAvailable();
+        } else {
+            detector = createDetector();
+        }
+
+        if (detector == null) {
+            logger.severe("Error al activar cámara");
+            return;
+        }
+
+        KioskoApplication.setDisabilityDetector(detector);
+        cameraActive = true;
+
+        logger.info("Cámara activada exitosamente");
+        logger.info("   Sistema listo para detectar pacientes");
+    }
+
+    private DisabilityDetector createDetector() {
         try {
             DisabilityDetector detector = new DisabilityDetector();
-            boolean initialized = detector.initialize();
 
-            if (initialized) {
-                KioskoApplication.setDisabilityDetector(detector);
-                cameraActive = true;
-
-                logger.info("Cámara activada exitosamente");
-                logger.info("   Sistema listo para detectar pacientes");
-            } else {
-                logger.severe("Error al activar cámara");
-                cameraActive = false;
+            if (detector.initialize()) {
+                return detector;
             }
 
+            detector.shutdown();
         } catch (Exception e) {
-            logger.severe("Error al activar cámara: " + e.getMessage());
+            logger.severe("Error al inicializar cámara: " + e.getMessage());
             e.printStackTrace();
-            cameraActive = false;
         }
+
+        return null;
     }
 
-    private void deactivateCamera(LocalTime currentTime) {
+    private void deactivateCamera(LocalDateTime now) {
+        DisabilityDetector prewarmed = prewarmedDetector;
+        prewarmedDetector = null;
+
+        if (prewarmed != null) {
+            logger.info("Liberando cámara pre-calentada fuera de horario");
+            prewarmed.shutdown();
+        }
+
+        if (!cameraActive) {
+            return;
+        }
+
         logger.info("Desactivando camara - Horario Inactivo");
-        logger.info(String.format("   Hora actual: %s", currentTime));
+        logger.info(String.format("   Hora actual: %s", now.toLocalTime()));
         logger.info("   Razón: Fuera del horario de atención");
 
         try {
@@ -179,23 +309,24 @@ public class SmartCameraSchedulerDynamic {
                 logger.warning("No hay detector activo para desactivar");
             }
 
-            cameraActive = false;
-
         } catch (Exception e) {
             logger.severe("Error al desactivar cámara: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            cameraActive = false;
         }
     }
 
     public void reloadHorarios() {
         logger.info("Recarga manual de horarios solicitada");
-        loadHorarios();
+        scheduler.execute(this::loadHorarios);
     }
 
     public void shutdown() {
         logger.info("Deteniendo Smart Camera Scheduler...");
 
         schedulerRunning = false;
+        horarioService.setOnHorarioChanged(null);
 
         if (scheduler != null && !scheduler.isShutdown()) {
             scheduler.shutdown();
@@ -210,9 +341,7 @@ public class SmartCameraSchedulerDynamic {
             }
         }
 
-        if (cameraActive) {
-            deactivateCamera(LocalTime.now());
-        }
+        deactivateCamera(LocalDateTime.now());
 
         logger.info("Smart Camera Scheduler detenido");
     }
@@ -224,4 +353,4 @@ public class SmartCameraSchedulerDynamic {
     public boolean isSchedulerRunning() {
         return schedulerRunning;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,113 @@
+package org.iclassq.accessibility.camera;
+
+import org.bytedeco.javacv.Frame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+public class SyntheticFrameSource implements FrameSource {
+    private static final int NOISE = 8;
+
+    private final int seed;
+    private final int width;
+    private final int height;
+    private final FramePacer pacer;
+    private final byte[] background;
+    private final byte[] row;
+    private Random random;
+    private Frame frame;
+    private long frameNumber;
+
+    public SyntheticFrameSource(int seed, int width, int height, int fps) {
+        this.seed = seed;
+        this.width = width;
+        this.height = height;
+        this.pacer = new FramePacer(fps);
+        this.background = new byte[width * height * 3];
+        this.row = new byte[width * 3];
+    }
+
+    @Override
+    public String getName() {
+        return "Sintético " + seed;
+    }
+
+    @Override
+    public Frame start() throws IOException {
+        random = new Random(seed);
+        frame = new Frame(width, height, Frame.DEPTH_UBYTE, 3);
+        frameNumber = 0;
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int offset = (y * width + x) * 3;
+                background[offset] = (byte) (64 + 64 * x / width);
+                background[offset + 1] = (byte) (64 + 64 * y / height);
+                background[offset + 2] = (byte) (96 + 32 * seed % 4);
+            }
+        }
+
+        return grab();
+    }
+
+    @Override
+    public Frame grab() throws IOException {
+        pacer.await();
+
+        ByteBuffer pixels = (ByteBuffer) frame.image[0];
+        int stride = frame.imageStride;
+
+        int size = Math.max(Math.min(width, height) / 4, 1);
+        int span = Math.max(width - size, 1);
+        int left = (int) ((frameNumber * 8) % (2L * span));
+        left = left < span ? left : 2 * span - left;
+        int top = (height - size) / 2;
+
+        for (int y = 0; y < height; y++) {
+            System.arraycopy(background, y * width * 3, row, 0, row.length);
+
+            if (y >= top && y < top + size) {
+                for (int x = left; x < left + size && x < width; x++) {
+                    row[x * 3] = (byte) 230;
+                    row[x * 3 + 1] = (byte) 230;
+                    row[x * 3 + 2] = (byte) 230;
+                }
+            }
+
+            for (int i = random.nextInt(NOISE); i < row.length; i += NOISE) {
+                row[i] = (byte) ((row[i] & 0xFF) ^ random.nextInt(NOISE));
+            }
+
+            pixels.position(y * stride);
+            pixels.put(row);
+        }
+
+        pixels.rewind();
+        frameNumber++;
+        return frame;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public boolean isMjpeg() {
+        return false;
+    }
+
+    @Override
+    public void close() {
+        if (frame != null) {
+            frame.close();
+            frame = null;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.iclassq.accessibility.camera;
+
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.FrameGrabber;
+import org.bytedeco.javacv.OpenCVFrameGrabber;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.Logger;
+
+public class VideoFileFrameSource implements FrameSource {
+    private static final Logger logger = Logger.getLogger(VideoFileFrameSource.class.getName());
+
+    private final Path file;
+    private final FramePacer pacer;
+    private OpenCVFrameGrabber grabber;
+
+    public VideoFileFrameSource(Path file, int fps) {
+        this.file = file;
+        this.pacer = new FramePacer(fps);
+    }
+
+    @Override
+    public String getName() {
+        return "Video " + file.getFileName();
+    }
+
+    @Override
+    public Frame start() throws IOException {
+        if (!Files.isRegularFile(file)) {
+            throw new IOException("No existe el video " + file);
+        }
+
+        grabber = new OpenCVFrameGrabber(file.toFile());
+        grabber.start();
+        return grabber.grab();
+    }
+
+    @Override
+    public Frame grab() throws IOException {
+        pacer.await();
+
+        try {
+            Frame frame = grabber.grab();
+            if (frame != null) {
+                return frame;
+            }
+        } catch (FrameGrabber.Exception e) {
+            logger.fine(String.format("Fin de %s (%s)", file.getFileName(), e.getMessage()));
+        }
+
+        logger.fine("Reiniciando reproducción de " + file.getFileName());
+        grabber.restart();
+        return grabber.grab();
+    }
+
+    @Override
+    public int getWidth() {
+        return grabber != null ? grabber.getImageWidth() : 0;
+    }
+
+    @Override
+    public int getHeight() {
+        return grabber != null ? grabber.getImageHeight() : 0;
+    }
+
+    @Override
+    public boolean isMjpeg() {
+        return false;
+    }
+
+    @Override
+    public void close() {
+        if (grabber == null) {
+            return;
+        }
+
+        try {
+            grabber.stop();
+            grabber.release();
+        } catch (Exception e) {
+            logger.fine(String.format("Error al cerrar video %s: %s", file.getFileName(), e.getMessage()));
+        } finally {
+            grabber = null;
+        }
+    }
+}
@@ -18,6 +18,15 @@ public class DetectionResponse {
     private long processingTimeMs;
     private String error;
     private boolean success;
+    private boolean skipped;
+
+    public static DetectionResponse skipped(String reason) {
+        return DetectionResponse.builder()
+                .success(false)
+                .skipped(true)
+                .status(reason)
+                .build();
+    }
 
     public boolean isDisabilityDetected() {
         return success && "persona discapacitada".equalsIgnoreCase(status);
@@ -64,6 +73,10 @@ public class DetectionResponse {
             return "Error: " + error;
         }
 
+        if (skipped) {
+            return "Detección omitida: " + status;
+        }
+
         if (!success) {
             return "Detección fallida";
         }
@@ -1,14 +1,16 @@
 package org.iclassq.accessibility.detection;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 import lombok.Getter;
 import okhttp3.*;
+import org.iclassq.accessibility.camera.EncodedFrame;
 import org.iclassq.config.AppConfig;
+import org.iclassq.http.metrics.HttpMetrics;
 
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,32 +22,44 @@ public class DetectionService {
 
     private static final Logger logger = Logger.getLogger(DetectionService.class.getName());
     private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    private static final String MULTIPART_MEDIA_TYPE = "multipart/form-data";
+    private static final long RENEGOTIATE_AFTER_MS = TimeUnit.MINUTES.toMillis(30);
 
     private final String apiUrl;
     private final OkHttpClient client;
     private final Gson gson;
     private final double defaultConfidenceThreshold;
+    private final DetectionTransport transport;
+    private volatile DetectionTransport negotiatedTransport;
+    private volatile long negotiatedAtMillis;
 
-    public DetectionService(String apiUrl, int timeoutSeconds, double confidenceThreshold) {
+    public DetectionService(String apiUrl, int timeoutSeconds, double confidenceThreshold,
+                            DetectionTransport transport) {
         this.apiUrl = apiUrl;
         this.defaultConfidenceThreshold = confidenceThreshold;
+        this.transport = transport;
+        this.negotiatedTransport = transport == DetectionTransport.AUTO ? null : transport;
 
         this.client = new OkHttpClient.Builder()
                 .connectTimeout(timeoutSeconds, TimeUnit.SECONDS)
                 .readTimeout(timeoutSeconds, TimeUnit.SECONDS)
                 .writeTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                .addInterceptor(HttpMetrics.getInstance().applicationInterceptor())
+                .addNetworkInterceptor(HttpMetrics.getInstance().networkInterceptor())
                 .build();
 
-        this.gson = new GsonBuilder()
-                .setPrettyPrinting()
-                .create();
+        this.gson = new Gson();
 
-        logger.info(String.format("MLDetectionService configurado: %s (timeout: %ds, threshold: %.2f)",
-                apiUrl, timeoutSeconds, confidenceThreshold));
+        logger.info(String.format("MLDetectionService configurado: %s (timeout: %ds, threshold: %.2f, transporte: %s)",
+                apiUrl, timeoutSeconds, confidenceThreshold, transport));
+    }
+
+    public DetectionService(String apiUrl, int timeoutSeconds, double confidenceThreshold) {
+        this(apiUrl, timeoutSeconds, confidenceThreshold, DetectionTransport.AUTO);
     }
 
     public DetectionService() {
-        this(AppConfig.getDetectionUrl(), 15, 0.5);
+        this(AppConfig.getDetectionUrl(), 15, 0.5, DetectionTransport.parse(AppConfig.getDetectionTransport()));
     }
 
     public DetectionResponse detect(List<BufferedImage> images) {
@@ -70,6 +84,108 @@ public class DetectionService {
         return detectFromBase64(base64Images, defaultConfidenceThreshold);
     }
 
+    public DetectionResponse detectEncoded(List<EncodedFrame> frames) {
+        if (frames == null || frames.isEmpty()) {
+            logger.warning("No hay imágenes para procesar");
+            return DetectionResponse.builder()
+                    .success(false)
+                    .error("No hay imágenes para procesar")
+                    .build();
+        }
+
+        try {
+            return uploadEncoded(frames, defaultConfidenceThreshold);
+        } finally {
+            frames.forEach(EncodedFrame::close);
+        }
+    }
+
+    private DetectionResponse uploadEncoded(List<EncodedFrame> frames, double confidenceThreshold) {
+        long startTime = System.currentTimeMillis();
+        DetectionTransport selected = selectTransport();
+
+        int totalSize = 0;
+        for (EncodedFrame frame : frames) {
+            totalSize += frame.getLength();
+        }
+
+        try {
+            if (selected != DetectionTransport.JSON) {
+                logger.info(String.format("Enviando %d imagen(es) a API ML como multipart (%s)...",
+                        frames.size(), Base64Utils.formatBytes(totalSize)));
+
+                Request multipart = buildRequest(multipartBody(frames, confidenceThreshold));
+                try (Response response = client.newCall(multipart).execute()) {
+                    if (transport == DetectionTransport.AUTO && isUploadRejected(response)) {
+                        logger.info(String.format("API ML no acepta multipart (HTTP %d), usando JSON Base64",
+                                response.code()));
+                        negotiated(DetectionTransport.JSON);
+                    } else {
+                        if (selected == null && response.isSuccessful()) {
+                            negotiated(DetectionTransport.MULTIPART);
+                        }
+                        return readResponse(response, frames.size(), startTime);
+                    }
+                }
+            }
+
+            logger.info(String.format("Enviando %d imagen(es) a API ML como JSON Base64 (%s)...",
+                    frames.size(), Base64Utils.formatBytes(totalSize * 4 / 3)));
+
+            Request json = buildRequest(new EncodedFramesJsonBody(frames, confidenceThreshold));
+            try (Response response = client.newCall(json).execute()) {
+                return readResponse(response, frames.size(), startTime);
+            }
+
+        } catch (IOException e) {
+            return connectionError(e, frames.size(), startTime);
+        }
+    }
+
+    private RequestBody multipartBody(List<EncodedFrame> frames, double confidenceThreshold) {
+        MultipartBody.Builder builder = new MultipartBody.Builder()
+                .setType(MultipartBody.FORM)
+                .addFormDataPart("confidence_threshold", String.valueOf(confidenceThreshold));
+
+        for (int i = 0; i < frames.size(); i++) {
+            EncodedFrame frame = frames.get(i);
+            builder.addFormDataPart("images", String.format("camara-%d-%d.jpg", frame.getCameraIndex(), i),
+                    RequestBody.create(frame.getData(), MediaType.get(frame.getMediaType()), 0, frame.getLength()));
+        }
+
+        return builder.build();
+    }
+
+    private Request buildRequest(RequestBody body) {
+        return new Request.Builder()
+                .url(apiUrl)
+                .header("Accept", "application/json")
+                .post(body)
+                .build();
+    }
+
+    private DetectionTransport selectTransport() {
+        DetectionTransport selected = negotiatedTransport;
+
+        if (transport == DetectionTransport.AUTO && selected == DetectionTransport.JSON
+                && System.currentTimeMillis() - negotiatedAtMillis > RENEGOTIATE_AFTER_MS) {
+            logger.info("Renegociando transporte con API ML, se reintentará multipart");
+            negotiatedTransport = null;
+            return null;
+        }
+
+        return selected;
+    }
+
+    private void negotiated(DetectionTransport selected) {
+        negotiatedTransport = selected;
+        negotiatedAtMillis = System.currentTimeMillis();
+    }
+
+    private static boolean isUploadRejected(Response response) {
+        return response.code() == 415;
+    }
+
     public DetectionResponse detectFromBase64(List<String> base64Images, double confidenceThreshold) {
         long startTime = System.currentTimeMillis();
 
@@ -86,53 +202,57 @@ public class DetectionService {
                     base64Images.size(), Base64Utils.formatBytes(totalSize)));
 
             RequestBody body = RequestBody.create(jsonRequest, JSON);
-            Request httpRequest = new Request.Builder()
-                    .url(apiUrl)
-                    .post(body)
-                    .build();
-
-            try (Response response = client.newCall(httpRequest).execute()) {
-                long processingTime = System.currentTimeMillis() - startTime;
-
-                if (!response.isSuccessful()) {
-                    String errorBody = response.body() != null ? response.body().string() : "Unknown error";
-                    logger.severe(String.format("Error de API: HTTP %d - %s",
-                            response.code(), errorBody));
-
-                    return DetectionResponse.builder()
-                            .success(false)
-                            .error(String.format("HTTP %d: %s", response.code(), errorBody))
-                            .processingTimeMs(processingTime)
-                            .framesAnalyzed(base64Images.size())
-                            .build();
-                }
-
-                String responseBody = response.body().string();
-                logger.info("Respuesta recibida de API ML");
-                logger.fine("Response body: " + responseBody);
-
-                DetectionResponse detectionResponse = parseResponse(responseBody);
-                detectionResponse.setProcessingTimeMs(processingTime);
-                detectionResponse.setFramesAnalyzed(base64Images.size());
-                detectionResponse.setSuccess(true);
-
-                logger.info(String.format("Detección completada: %s (tiempo: %dms)",
-                        detectionResponse.getStatus(), processingTime));
 
-                return detectionResponse;
+            try (Response response = client.newCall(buildRequest(body)).execute()) {
+                return readResponse(response, base64Images.size(), startTime);
             }
 
         } catch (IOException e) {
-            long processingTime = System.currentTimeMillis() - startTime;
-            logger.severe("Error de conexión con API ML: " + e.getMessage());
+            return connectionError(e, base64Images != null ? base64Images.size() : 0, startTime);
+        }
+    }
+
+    private DetectionResponse readResponse(Response response, int framesAnalyzed, long startTime) throws IOException {
+        long processingTime = System.currentTimeMillis() - startTime;
+
+        if (!response.isSuccessful()) {
+            String errorBody = response.body() != null ? response.body().string() : "Unknown error";
+            logger.severe(String.format("Error de API: HTTP %d - %s",
+                    response.code(), errorBody));
 
             return DetectionResponse.builder()
                     .success(false)
-                    .error("Error de conexión: " + e.getMessage())
+                    .error(String.format("HTTP %d: %s", response.code(), errorBody))
                     .processingTimeMs(processingTime)
-                    .framesAnalyzed(base64Images != null ? base64Images.size() : 0)
+                    .framesAnalyzed(framesAnalyzed)
                     .build();
         }
+
+        String responseBody = response.body().string();
+        logger.info("Respuesta recibida de API ML");
+        logger.fine("Response body: " + responseBody);
+
+        DetectionResponse detectionResponse = parseResponse(responseBody);
+        detectionResponse.setProcessingTimeMs(processingTime);
+        detectionResponse.setFramesAnalyzed(framesAnalyzed);
+        detectionResponse.setSuccess(true);
+
+        logger.info(String.format("Detección completada: %s (tiempo: %dms)",
+                detectionResponse.getStatus(), processingTime));
+
+        return detectionResponse;
+    }
+
+    private DetectionResponse connectionError(IOException e, int framesAnalyzed, long startTime) {
+        long processingTime = System.currentTimeMillis() - startTime;
+        logger.severe("Error de conexión con API ML: " + e.getMessage());
+
+        return DetectionResponse.builder()
+                .success(false)
+                .error("Error de conexión: " + e.getMessage())
+                .processingTimeMs(processingTime)
+                .framesAnalyzed(framesAnalyzed)
+                .build();
     }
 
     private DetectionResponse parseResponse(String jsonResponse) {
@@ -192,6 +312,7 @@ public class DetectionService {
 
             try (Response response = client.newCall(request).execute()) {
                 boolean available = response.isSuccessful();
+                negotiateTransport(response);
                 logger.info(String.format("API ML %s: %s",
                         available ? "DISPONIBLE" : "NO DISPONIBLE",
                         apiUrl));
@@ -203,4 +324,22 @@ public class DetectionService {
             return false;
         }
     }
+
+    private void negotiateTransport(Response response) {
+        String acceptPost = response.header("Accept-Post");
+        if (transport != DetectionTransport.AUTO || acceptPost == null) {
+            return;
+        }
+
+        DetectionTransport advertised = acceptPost.toLowerCase().contains(MULTIPART_MEDIA_TYPE)
+                ? DetectionTransport.MULTIPART
+                : DetectionTransport.JSON;
+
+        if (advertised != negotiatedTransport) {
+            logger.info(advertised == DetectionTransport.MULTIPART
+                    ? "API ML anuncia soporte multipart, se enviarán JPEG binarios"
+                    : "API ML no anuncia soporte multipart, se enviará JSON Base64");
+        }
+        negotiated(advertised);
+    }
 }
\ No newline at end of file
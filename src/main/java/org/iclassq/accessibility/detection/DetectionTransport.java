@@ -0,0 +1,21 @@
+package org.iclassq.accessibility.detection;
+
+import java.util.Locale;
+
+public enum DetectionTransport {
+    AUTO,
+    MULTIPART,
+    JSON;
+
+    public static DetectionTransport parse(String value) {
+        if (value == null || value.isBlank()) {
+            return AUTO;
+        }
+
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return AUTO;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.iclassq.accessibility.detection;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import org.iclassq.accessibility.camera.EncodedFrame;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+class EncodedFramesJsonBody extends RequestBody {
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    private static final byte[] HEAD = "{\"images\":[".getBytes(StandardCharsets.UTF_8);
+
+    private final List<EncodedFrame> frames;
+    private final double confidenceThreshold;
+
+    EncodedFramesJsonBody(List<EncodedFrame> frames, double confidenceThreshold) {
+        this.frames = frames;
+        this.confidenceThreshold = confidenceThreshold;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return JSON;
+    }
+
+    @Override
+    public long contentLength() {
+        long length = HEAD.length + tail().length + Math.max(frames.size() - 1, 0);
+        for (EncodedFrame frame : frames) {
+            length += 4L * ((frame.getLength() + 2) / 3) + 2;
+        }
+        return length;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        sink.write(HEAD);
+        for (int i = 0; i < frames.size(); i++) {
+            EncodedFrame frame = frames.get(i);
+            sink.writeUtf8(i == 0 ? "\"" : ",\"");
+
+            OutputStream encoder = Base64.getEncoder().wrap(nonClosing(sink));
+            encoder.write(frame.getData(), 0, frame.getLength());
+            encoder.close();
+
+            sink.writeUtf8("\"");
+        }
+        sink.write(tail());
+    }
+
+    private byte[] tail() {
+        return ("],\"confidence_threshold\":" + confidenceThreshold + "}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static OutputStream nonClosing(BufferedSink sink) {
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                sink.writeByte(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                sink.write(b, off, len);
+            }
+        };
+    }
+}
@@ -2,7 +2,12 @@ package org.iclassq.config;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 import java.util.logging.Logger;
 
 public class AppConfig {
@@ -26,4 +31,116 @@ public class AppConfig {
     public static String getDetectionUrl() {
         return properties.getProperty("app.detection.url", "http://localhost:5000/verify-images");
     }
+
+    public static int getCacheTtlSeconds(String catalog, int defaultSeconds) {
+        return getInt("app.cache.ttl." + catalog, defaultSeconds);
+    }
+
+    public static int getSessionKeepAliveMinutes() {
+        return getInt("app.session.keepalive.minutes", 10);
+    }
+
+    public static int getMetricsReportMinutes() {
+        return getInt("app.metrics.report.minutes", 5);
+    }
+
+    public static boolean isTicketIdempotentRetriesEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("app.ticket.idempotent-retries", "false"));
+    }
+
+    public static List<String> getTicketProvisionalPrefijos() {
+        List<String> prefijos = new ArrayList<>();
+        for (String prefijo : properties.getProperty("app.ticket.provisional.prefijos", "").split(",")) {
+            if (!prefijo.isBlank()) {
+                prefijos.add(prefijo.trim());
+            }
+        }
+        return prefijos;
+    }
+
+    public static int getTicketProvisionalBlockSize() {
+        return getInt("app.ticket.provisional.bloque", 20);
+    }
+
+    public static boolean isCameraStreamingEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("app.camera.streaming", "false"));
+    }
+
+    public static boolean isCameraMjpegEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("app.camera.mjpeg", "true"));
+    }
+
+    public static int getCameraBurstFrames() {
+        return getInt("app.camera.burst.frames", 3);
+    }
+
+    public static int getCameraBestFrames() {
+        return getInt("app.camera.burst.best", 1);
+    }
+
+    public static String getCameraSource() {
+        return properties.getProperty("app.camera.source", "camara").trim();
+    }
+
+    public static int getCameraReplayFps() {
+        return getInt("app.camera.source.fps", 15);
+    }
+
+    public static int getCameraPrewarmMinutes() {
+        return getInt("app.camera.horario.prewarm-minutes", 5);
+    }
+
+    public static int getCameraHorarioPollSeconds() {
+        return getInt("app.camera.horario.poll-seconds", 30);
+    }
+
+    public static Set<DayOfWeek> getCameraActiveDays() {
+        Set<DayOfWeek> dias = EnumSet.noneOf(DayOfWeek.class);
+        for (String dia : properties.getProperty("app.camera.horario.dias", "").split(",")) {
+            if (dia.isBlank()) {
+                continue;
+            }
+
+            try {
+                dias.add(DayOfWeek.valueOf(dia.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                logger.warning("Día inválido en app.camera.horario.dias: " + dia);
+            }
+        }
+        return dias.isEmpty() ? EnumSet.allOf(DayOfWeek.class) : dias;
+    }
+
+    public static String getDetectionTransport() {
+        return properties.getProperty("app.detection.transport", "auto");
+    }
+
+    public static int getDetectorInputSize() {
+        return getInt("app.detection.input-size", 640);
+    }
+
+    public static boolean isMotionGateEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("app.detection.motion-gate", "true"));
+    }
+
+    public static int getMotionGatePercent() {
+        return getInt("app.detection.motion-gate.percent", 3);
+    }
+
+    public static int getMotionGateSampleMs() {
+        return getInt("app.detection.motion-gate.sample-ms", 2000);
+    }
+
+    private static int getInt(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warning("Valor inválido para " + key + ": " + value);
+            return defaultValue;
+        }
+    }
 }
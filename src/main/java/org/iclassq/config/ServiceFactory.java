@@ -1,13 +1,18 @@
 package org.iclassq.config;
 
-import okhttp3.Cookie;
-import okhttp3.CookieJar;
-import okhttp3.HttpUrl;
+import org.iclassq.http.HttpTransport;
+import org.iclassq.http.SessionCookieStore;
+import org.iclassq.http.SessionManager;
+import org.iclassq.http.metrics.HttpMetrics;
 import org.iclassq.service.*;
+import org.iclassq.service.cache.CatalogCache;
+import org.iclassq.service.cache.CatalogSnapshotStore;
 import org.iclassq.service.impl.*;
+import org.iclassq.service.ticket.ProvisionalTicketIssuer;
+import org.iclassq.service.ticket.TicketLog;
+import org.iclassq.service.ticket.TicketRequestJournal;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class ServiceFactory {
     private static AuthService authService;
@@ -16,29 +21,53 @@ public class ServiceFactory {
     private static TipoDocumentoService tipoDocumentoService;
     private static TicketService ticketService;
     private static HorarioService horarioService;
-    private static CookieJar cookieJar;
+    private static SessionCookieStore cookieStore;
+    private static HttpTransport transport;
+    private static SessionManager sessionManager;
+    private static CatalogCache catalogCache;
+    private static ProvisionalTicketIssuer provisionalTicketIssuer;
 
     public static void init(String backendUrl) {
-        cookieJar = new CookieJar() {
-            private List<Cookie> cookies = new ArrayList<>();
-
-            @Override
-            public void saveFromResponse(HttpUrl httpUrl, List<Cookie> cookies) {
-                this.cookies = cookies;
-            }
-
-            @Override
-            public List<Cookie> loadForRequest(HttpUrl httpUrl) {
-                return cookies;
-            }
-        };
-
-        authService = new AuthServiceImpl(backendUrl, cookieJar);
-        grupoService = new GrupoServiceImpl(backendUrl, cookieJar);
-        subGrupoService = new SubGrupoServiceImpl(backendUrl, cookieJar);
-        tipoDocumentoService = new TipoDocumentoServiceImpl(backendUrl, cookieJar);
-        ticketService = new TicketServiceImpl(backendUrl, cookieJar);
-        horarioService = new HorarioServiceImpl(backendUrl, cookieJar);
+        cookieStore = new SessionCookieStore();
+        transport = new HttpTransport(cookieStore);
+        sessionManager = new SessionManager(backendUrl, transport, cookieStore,
+                TimeUnit.MINUTES.toMillis(AppConfig.getSessionKeepAliveMinutes()));
+        transport.setSessionInterceptor(sessionManager);
+        HttpMetrics.getInstance().startReporting(AppConfig.getMetricsReportMinutes());
+
+        catalogCache = new CatalogCache(CatalogSnapshotStore.inUserHome());
+        catalogCache.loadSnapshot();
+
+        UsuarioService usuarioService = new UsuarioServiceImpl(backendUrl, transport);
+
+        authService = new AuthServiceImpl(backendUrl, transport, sessionManager, usuarioService, catalogCache);
+        grupoService = new GrupoServiceImpl(backendUrl, transport, catalogCache);
+        subGrupoService = new SubGrupoServiceImpl(backendUrl, transport, catalogCache);
+        tipoDocumentoService = new TipoDocumentoServiceImpl(backendUrl, transport, catalogCache);
+        provisionalTicketIssuer = new ProvisionalTicketIssuer(TicketLog.inUserHome(),
+                AppConfig.getTicketProvisionalPrefijos(), AppConfig.getTicketProvisionalBlockSize());
+        provisionalTicketIssuer.restore();
+
+        ticketService = new TicketServiceImpl(backendUrl, transport, new TicketRequestJournal(),
+                AppConfig.isTicketIdempotentRetriesEnabled(), provisionalTicketIssuer);
+        horarioService = new HorarioServiceImpl(backendUrl, transport);
+    }
+
+    public static void shutdown() {
+        HttpMetrics.getInstance().logSnapshot();
+        HttpMetrics.getInstance().stopReporting();
+        if (sessionManager != null) {
+            sessionManager.shutdown();
+        }
+        if (catalogCache != null) {
+            catalogCache.shutdown();
+        }
+        if (provisionalTicketIssuer != null) {
+            provisionalTicketIssuer.close();
+        }
+        if (transport != null) {
+            transport.shutdown();
+        }
     }
 
     public static AuthService getAuthService() {
@@ -71,6 +100,16 @@ public class ServiceFactory {
         return horarioService;
     }
 
+    public static HttpTransport getTransport() {
+        checkInitialization();
+        return transport;
+    }
+
+    public static CatalogCache getCatalogCache() {
+        checkInitialization();
+        return catalogCache;
+    }
+
     private static void checkInitialization() {
         if (authService == null) {
             throw new IllegalStateException("ServiceFactory no ha sido inicializado");
@@ -6,6 +6,7 @@ import org.iclassq.accessibility.AccessibilityManager;
 import org.iclassq.accessibility.adapter.GruposBrailleAdapter;
 import org.iclassq.accessibility.adapter.GruposVoiceAdapter;
 import org.iclassq.config.ServiceFactory;
+import org.iclassq.http.Futures;
 import org.iclassq.model.domain.SessionData;
 import org.iclassq.model.dto.request.TicketRequestDTO;
 import org.iclassq.model.dto.response.GrupoDTO;
@@ -19,9 +20,10 @@ import org.iclassq.view.GruposView;
 import org.iclassq.view.components.Message;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
@@ -30,7 +32,6 @@ public class GruposController {
     private final GrupoService grupoService;
     private final SubGrupoService subGrupoService;
     private final TicketService ticketService;
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
     private Future<?> currentTask;
     private final Logger logger = Logger.getLogger(GruposController.class.getName());
 
@@ -52,6 +53,7 @@ public class GruposController {
         this.brailleAdapter = new GruposBrailleAdapter();
 
         view.setOnGroupSelected(this::handleGrupoSelected);
+        view.setOnGroupsShown(this::prefetchSubGroups);
         view.setOnNextPage(this::handleNextPage);
         view.setOnPreviousPage(this::handlePreviousPage);
         view.setOnBack(this::handleBack);
@@ -74,59 +76,82 @@ public class GruposController {
 
         view.showLoading();
 
-        currentTask = executor.submit(() -> {
-            try {
-                SessionData session = SessionData.getInstance();
-                Integer rolEquipoId = session.getRolEquipoId();
+        SessionData session = SessionData.getInstance();
+        Integer rolEquipoId = session.getRolEquipoId();
 
-                List<GrupoDTO> groups = grupoService.getAllByTime(rolEquipoId);
+        CompletableFuture<List<GrupoDTO>> task = grupoService.getAllByTimeAsync(rolEquipoId);
+        currentTask = task;
 
-                Platform.runLater(() -> {
-                    view.hideLoading();
+        task.whenComplete((groups, error) -> {
+            if (error != null) {
+                handleLoadGroupsError(Futures.unwrap(error));
+                return;
+            }
 
-                    if (AccessibilityManager.getInstance().isBrailleActive() && groups.size() > 5) {
-                        logger.info(String.format("Limitando a 5 grupos para Braille (había %d)", groups.size()));
-                        view.setGroups(groups.subList(0, 5));
-                        this.allGroups = groups.subList(0, 5);
-                    } else {
-                        view.setGroups(groups);
-                        this.allGroups = groups;
-                    }
+            Platform.runLater(() -> {
+                view.hideLoading();
+
+                if (AccessibilityManager.getInstance().isBrailleActive() && groups.size() > 5) {
+                    logger.info(String.format("Limitando a 5 grupos para Braille (había %d)", groups.size()));
+                    view.setGroups(groups.subList(0, 5));
+                    this.allGroups = groups.subList(0, 5);
+                } else {
+                    view.setGroups(groups);
+                    this.allGroups = groups;
+                }
 
-                    voiceAdapter.onGroupsLoaded(this.allGroups, this::selectGroupByVoice);
+                voiceAdapter.onGroupsLoaded(this.allGroups, this::selectGroupByVoice);
 
-                    if (AccessibilityManager.getInstance().isBrailleActive()) {
-                        brailleAdapter.onGroupsLoaded(this.allGroups, this::selectGroupByBraille);
-                        logger.info("Voz y Braille configurados - Usuario puede usar cualquiera de los dos");
-                    }
-
-                    isInitialLoad = false;
-                });
+                if (AccessibilityManager.getInstance().isBrailleActive()) {
+                    brailleAdapter.onGroupsLoaded(this.allGroups, this::selectGroupByBraille);
+                    logger.info("Voz y Braille configurados - Usuario puede usar cualquiera de los dos");
+                }
 
-            } catch (IOException e) {
-                logger.severe("Error de conexión al cargar grupos: " + e.getMessage());
-                Platform.runLater(() -> {
-                    view.hideLoading();
-                    Message.showError(
-                            "Error de Conexión",
-                            "No se pudo conectar con el servidor. Verifique su conexión e intente nuevamente."
-                    );
-                    Navigator.navigateBack();
-                });
-            } catch (Exception e) {
-                logger.severe("Error inesperado al cargar grupos: " + e.getMessage());
-                Platform.runLater(() -> {
-                    view.hideLoading();
-                    Message.showError(
-                            "Error Inesperado",
-                            "Ocurrió un error al cargar los grupos: " + e.getClass().getSimpleName()
-                    );
-                    Navigator.navigateBack();
-                });
-            }
+                isInitialLoad = false;
+            });
         });
     }
 
+    private void handleLoadGroupsError(Throwable error) {
+        if (error instanceof CancellationException) {
+            logger.fine("Carga de grupos cancelada");
+            return;
+        }
+
+        if (error instanceof IOException) {
+            logger.severe("Error de conexión al cargar grupos: " + error.getMessage());
+            Platform.runLater(() -> {
+                view.hideLoading();
+                Message.showError(
+                        "Error de Conexión",
+                        "No se pudo conectar con el servidor. Verifique su conexión e intente nuevamente."
+                );
+                Navigator.navigateBack();
+            });
+        } else {
+            logger.severe("Error inesperado al cargar grupos: " + error.getMessage());
+            Platform.runLater(() -> {
+                view.hideLoading();
+                Message.showError(
+                        "Error Inesperado",
+                        "Ocurrió un error al cargar los grupos: " + error.getClass().getSimpleName()
+                );
+                Navigator.navigateBack();
+            });
+        }
+    }
+
+    private void prefetchSubGroups(List<GrupoDTO> visibleGroups) {
+        Integer sucursalId = SessionData.getInstance().getSucursalId();
+
+        List<Integer> grupoIds = new ArrayList<>();
+        for (GrupoDTO grupo : visibleGroups) {
+            grupoIds.add(grupo.getId());
+        }
+
+        subGrupoService.prefetch(sucursalId, grupoIds);
+    }
+
     private void handleKeyPressed(KeyEvent event) {
         if (brailleAdapter != null) {
             boolean handled = brailleAdapter.handleKeyEvent(event);
@@ -202,52 +227,59 @@ public class GruposController {
         voiceAdapter.cleanup();
         brailleAdapter.cleanup();
 
-        executor.submit(() -> {
-            try {
-                SessionData session = SessionData.getInstance();
-                Integer sucursalId = session.getSucursalId();
-                Integer grupoId = grupo.getId();
-                SubGrupoDTO subgrupoPreferencial = subGrupoService.getPreferencial(sucursalId, grupoId);
+        SessionData session = SessionData.getInstance();
+        Integer sucursalId = session.getSucursalId();
+        Integer grupoId = grupo.getId();
 
-                if (subgrupoPreferencial == null) {
-                    throw new Exception("No se encontró subgrupo preferencial para el grupo " + grupo.getNombre());
-                }
+        subGrupoService.getPreferencialAsync(sucursalId, grupoId)
+                .thenCompose(subgrupoPreferencial -> {
+                    if (subgrupoPreferencial == null) {
+                        throw new IllegalStateException("No se encontró subgrupo preferencial para el grupo " + grupo.getNombre());
+                    }
 
-                TicketRequestDTO request = buildTicketRequest(subgrupoPreferencial);
+                    TicketRequestDTO request = buildTicketRequest(subgrupoPreferencial);
 
-                logger.info("Generando ticket preferencial...");
-                TicketResponseDTO ticket = ticketService.generateTicket(request);
+                    logger.info("Generando ticket preferencial...");
+                    return ticketService.generateTicketAsync(request);
+                })
+                .whenComplete((ticket, error) -> {
+                    if (error != null) {
+                        handlePreferentialTicketError(Futures.unwrap(error));
+                        return;
+                    }
 
-                logger.info(String.format("Ticket generado: %s", ticket.getCodigo()));
+                    logger.info(String.format("Ticket generado: %s", ticket.getCodigo()));
 
-                Platform.runLater(() -> {
-                    view.hideLoading();
-                    isProcessingSelection = false;
-                    Navigator.navigatoToTicket(ticket);
+                    Platform.runLater(() -> {
+                        view.hideLoading();
+                        isProcessingSelection = false;
+                        Navigator.navigatoToTicket(ticket);
+                    });
                 });
+    }
 
-            } catch (IOException e) {
-                logger.severe("Error de conexión: " + e.getMessage());
-                Platform.runLater(() -> {
-                    view.hideLoading();
-                    isProcessingSelection = false;
-                    Message.showError(
-                            "Error de Conexión",
-                            "No se pudo generar el ticket preferencial. Verifique su conexión."
-                    );
-                });
-            } catch (Exception e) {
-                logger.severe("Error al generar ticket preferencial: " + e.getMessage());
-                Platform.runLater(() -> {
-                    view.hideLoading();
-                    isProcessingSelection = false;
-                    Message.showError(
-                            "Error",
-                            "No se pudo generar el ticket: " + e.getMessage()
-                    );
-                });
-            }
-        });
+    private void handlePreferentialTicketError(Throwable error) {
+        if (error instanceof IOException) {
+            logger.severe("Error de conexión: " + error.getMessage());
+            Platform.runLater(() -> {
+                view.hideLoading();
+                isProcessingSelection = false;
+                Message.showError(
+                        "Error de Conexión",
+                        "No se pudo generar el ticket preferencial. Verifique su conexión."
+                );
+            });
+        } else {
+            logger.severe("Error al generar ticket preferencial: " + error.getMessage());
+            Platform.runLater(() -> {
+                view.hideLoading();
+                isProcessingSelection = false;
+                Message.showError(
+                        "Error",
+                        "No se pudo generar el ticket: " + error.getMessage()
+                );
+            });
+        }
     }
 
     private TicketRequestDTO buildTicketRequest(SubGrupoDTO subGrupo) {
@@ -261,6 +293,7 @@ public class GruposController {
         request.setNumDoc(session.getNumeroDocumento());
         request.setTipoDoc(session.getTipoDocumento());
         request.setValidaDoc(0);
+        request.setClientRequestId(session.getSolicitudTicketId(subGrupo.getISubGrupo()));
 
         return request;
     }
@@ -303,7 +336,6 @@ public class GruposController {
         if (currentTask != null && !currentTask.isDone()) {
             currentTask.cancel(true);
         }
-        executor.shutdown();
 
         isProcessingSelection = false;
     }
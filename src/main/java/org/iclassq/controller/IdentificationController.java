@@ -6,6 +6,7 @@ import org.iclassq.accessibility.adapter.DisabilityDetectionAdapter;
 import org.iclassq.accessibility.adapter.IdentificationVoiceAdapter;
 import org.iclassq.accessibility.adapter.ProximityDetectionAdapter;
 import org.iclassq.config.ServiceFactory;
+import org.iclassq.http.Futures;
 import org.iclassq.model.domain.SessionData;
 import org.iclassq.model.dto.response.TipoDocumentoDTO;
 import org.iclassq.navigation.Navigator;
@@ -114,19 +115,9 @@ public class IdentificationController {
     }
 
     private void loadDocumentTypes() {
-        new Thread(() -> {
-            try {
-                List<TipoDocumentoDTO> list = tipoDocumentoService.getAll();
-
-                Platform.runLater(() -> {
-                    populateDocumentTypes(list);
-                    voiceAdapter.onDocumentTypesLoaded(list);
-                    registerVoiceCommands(list);
-                    isInitialLoad = false;
-                });
-
-            } catch (Exception e) {
-                logger.severe("Error al cargar tipos de documento: " + e.getMessage());
+        tipoDocumentoService.getAllAsync().whenComplete((list, error) -> {
+            if (error != null) {
+                logger.severe("Error al cargar tipos de documento: " + Futures.unwrap(error).getMessage());
                 Platform.runLater(() ->
                         Message.showError(
                                 "Error al cargar datos",
@@ -134,8 +125,16 @@ public class IdentificationController {
                                         "Por favor reinicie la aplicación."
                         )
                 );
+                return;
             }
-        }, "LoadDocTypesThread").start();
+
+            Platform.runLater(() -> {
+                populateDocumentTypes(list);
+                voiceAdapter.onDocumentTypesLoaded(list);
+                registerVoiceCommands(list);
+                isInitialLoad = false;
+            });
+        });
     }
 
     private void populateDocumentTypes(List<TipoDocumentoDTO> list) {
@@ -3,6 +3,7 @@ package org.iclassq.controller;
 import javafx.application.Platform;
 import org.iclassq.accessibility.adapter.SubGruposVoiceAdapter;
 import org.iclassq.config.ServiceFactory;
+import org.iclassq.http.Futures;
 import org.iclassq.model.domain.SessionData;
 import org.iclassq.model.dto.request.TicketRequestDTO;
 import org.iclassq.model.dto.response.SubGrupoDTO;
@@ -15,8 +16,8 @@ import org.iclassq.view.components.Message;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
@@ -24,7 +25,6 @@ public class SubGruposController {
     private final SubGruposView view;
     private final SubGrupoService subGrupoService;
     private final TicketService ticketService;
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
     private Future<?> currentLoadTask;
     private Future<?> currentGenerateTask;
     private final Logger logger = Logger.getLogger(SubGruposController.class.getName());
@@ -62,47 +62,59 @@ public class SubGruposController {
 
         view.showLoading();
 
-        currentLoadTask = executor.submit(() -> {
-            try {
-                SessionData session = SessionData.getInstance();
-                Integer sucursalId = session.getSucursalId();
-                Integer grupoId = session.getGrupo().getId();
-
-                List<SubGrupoDTO> subGroups = subGrupoService.getByGrupo(sucursalId, grupoId);
-
-                Platform.runLater(() -> {
-                    view.hideLoading();
-                    view.setSubGroups(subGroups);
-
-                    this.allSubGroups = subGroups;
-
-                    voiceAdapter.onSubGroupsLoaded(subGroups, this::selectSubGroupByVoice);
-
-                    isInitialLoad = false;
-                });
-
-            } catch (IOException e) {
-                logger.severe("Error de conexión: " + e.getMessage());
-                Platform.runLater(() -> {
-                    view.hideLoading();
-                    Message.showError(
-                            "Error de Conexión",
-                            "No se pudo conectar con el servidor. Verifique su conexión"
-                    );
-                });
-            } catch (Exception e) {
-                logger.severe("Error inesperado: " + e.getMessage());
-                Platform.runLater(() -> {
-                    view.hideLoading();
-                    Message.showError(
-                            "Error",
-                            "Ocurrió un error inesperado. Por favor intente nuevamente"
-                    );
-                });
+        SessionData session = SessionData.getInstance();
+        Integer sucursalId = session.getSucursalId();
+        Integer grupoId = session.getGrupo().getId();
+
+        CompletableFuture<List<SubGrupoDTO>> task = subGrupoService.getByGrupoAsync(sucursalId, grupoId);
+        currentLoadTask = task;
+
+        task.whenComplete((subGroups, error) -> {
+            if (error != null) {
+                handleLoadError(Futures.unwrap(error));
+                return;
             }
+
+            Platform.runLater(() -> {
+                view.hideLoading();
+                view.setSubGroups(subGroups);
+
+                this.allSubGroups = subGroups;
+
+                voiceAdapter.onSubGroupsLoaded(subGroups, this::selectSubGroupByVoice);
+
+                isInitialLoad = false;
+            });
         });
     }
 
+    private void handleLoadError(Throwable error) {
+        if (error instanceof CancellationException) {
+            logger.fine("Carga de subgrupos cancelada");
+            return;
+        }
+
+        if (error instanceof IOException) {
+            logger.severe("Error de conexión: " + error.getMessage());
+            Platform.runLater(() -> {
+                view.hideLoading();
+                Message.showError(
+                        "Error de Conexión",
+                        "No se pudo conectar con el servidor. Verifique su conexión"
+                );
+            });
+        } else {
+            logger.severe("Error inesperado: " + error.getMessage());
+            Platform.runLater(() -> {
+                view.hideLoading();
+                Message.showError(
+                        "Error",
+                        "Ocurrió un error inesperado. Por favor intente nuevamente"
+                );
+            });
+        }
+    }
+
     private void selectSubGroupByVoice(SubGrupoDTO subGrupo) {
         voiceAdapter.onSubGroupSelectedByVoice(subGrupo, this::handleSubGroupSelected);
     }
@@ -117,38 +129,51 @@ public class SubGruposController {
         voiceAdapter.onGeneratingTicket();
         voiceAdapter.cleanup();
 
-        currentGenerateTask = executor.submit(() -> {
-            try {
-                TicketRequestDTO request = buildTicketRequest(subGrupo);
-                TicketResponseDTO ticket = ticketService.generateTicket(request);
-
-                Platform.runLater(() -> {
-                    view.hideLoading();
-                    Navigator.navigatoToTicket(ticket);
-                });
-
-            } catch (IOException e) {
-                logger.severe("Error de conexión al generar ticket: " + e);
-                Platform.runLater(() -> {
-                    view.hideLoading();
-                    Message.showError(
-                            "Error de Conexión",
-                            "No se pudo generar el ticket. Verifique su conexión."
-                    );
-                });
-            } catch (Exception e) {
-                logger.severe("Error al generar ticket: " + e.getMessage());
-                Platform.runLater(() -> {
-                    view.hideLoading();
-                    Message.showError(
-                            "Error",
-                            "No se pudo generar el ticket: " + e.getMessage()
-                    );
-                });
+        TicketRequestDTO request = buildTicketRequest(subGrupo);
+
+        CompletableFuture<TicketResponseDTO> task = ticketService.generateTicketAsync(request);
+        currentGenerateTask = task;
+
+        task.whenComplete((ticket, error) -> {
+            if (error != null) {
+                handleGenerateError(Futures.unwrap(error));
+                return;
             }
+
+            Platform.runLater(() -> {
+                view.hideLoading();
+                Navigator.navigatoToTicket(ticket);
+            });
         });
     }
 
+    private void handleGenerateError(Throwable error) {
+        if (error instanceof CancellationException) {
+            logger.fine("Generación de ticket cancelada");
+            return;
+        }
+
+        if (error instanceof IOException) {
+            logger.severe("Error de conexión al generar ticket: " + error);
+            Platform.runLater(() -> {
+                view.hideLoading();
+                Message.showError(
+                        "Error de Conexión",
+                        "No se pudo generar el ticket. Verifique su conexión."
+                );
+            });
+        } else {
+            logger.severe("Error al generar ticket: " + error.getMessage());
+            Platform.runLater(() -> {
+                view.hideLoading();
+                Message.showError(
+                        "Error",
+                        "No se pudo generar el ticket: " + error.getMessage()
+                );
+            });
+        }
+    }
+
     private TicketRequestDTO buildTicketRequest(SubGrupoDTO subGrupo) {
         SessionData session = SessionData.getInstance();
 
@@ -160,6 +185,7 @@ public class SubGruposController {
         request.setNumDoc(session.getNumeroDocumento());
         request.setTipoDoc(session.getTipoDocumento());
         request.setValidaDoc(0);
+        request.setClientRequestId(session.getSolicitudTicketId(subGrupo.getISubGrupo()));
 
         return request;
     }
@@ -200,6 +226,5 @@ public class SubGruposController {
         if (currentGenerateTask != null && !currentGenerateTask.isDone()) {
             currentGenerateTask.cancel(true);
         }
-        executor.shutdown();
     }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package org.iclassq.http;
+
+import okhttp3.Call;
+
+import java.util.concurrent.CompletableFuture;
+
+public class CallFuture<T> extends CompletableFuture<T> {
+    private final Call call;
+
+    public CallFuture(Call call) {
+        this.call = call;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        call.cancel();
+        return super.cancel(mayInterruptIfRunning);
+    }
+
+    public Call getCall() {
+        return call;
+    }
+}
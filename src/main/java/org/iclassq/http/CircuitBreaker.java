@@ -0,0 +1,80 @@
+package org.iclassq.http;
+
+import java.util.logging.Logger;
+
+public class CircuitBreaker {
+    private static final Logger logger = Logger.getLogger(CircuitBreaker.class.getName());
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String endpoint;
+    private final int failureThreshold;
+    private final long openDurationMs;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt = 0;
+    private boolean probeInFlight = false;
+
+    public CircuitBreaker(String endpoint, int failureThreshold, long openDurationMs) {
+        this.endpoint = endpoint;
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+    }
+
+    public synchronized void acquire() throws CircuitOpenException {
+        if (state == State.OPEN) {
+            long elapsed = System.currentTimeMillis() - openedAt;
+            if (elapsed < openDurationMs) {
+                throw new CircuitOpenException(endpoint, openDurationMs - elapsed);
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                throw new CircuitOpenException(endpoint, openDurationMs);
+            }
+            probeInFlight = true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+
+        if (state != State.CLOSED) {
+            transitionTo(State.CLOSED);
+        }
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        probeInFlight = false;
+
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            openedAt = System.currentTimeMillis();
+            if (state != State.OPEN) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    public synchronized void onIgnored() {
+        probeInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void transitionTo(State newState) {
+        logger.warning(String.format("Circuito %s: %s -> %s (fallos consecutivos: %d)",
+                endpoint, state, newState, consecutiveFailures));
+        state = newState;
+    }
+}
@@ -0,0 +1,11 @@
+package org.iclassq.http;
+
+import java.io.IOException;
+
+public class CircuitOpenException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException(String endpoint, long retryInMs) {
+        super(String.format("Servicio %s no disponible temporalmente (reintento en %d ms)", endpoint, retryInMs));
+    }
+}
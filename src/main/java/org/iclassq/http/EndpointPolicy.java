@@ -0,0 +1,35 @@
+package org.iclassq.http;
+
+import lombok.Getter;
+
+@Getter
+public class EndpointPolicy {
+    private static final int LATENCY_WINDOW_SIZE = 128;
+    private static final int MIN_SAMPLES_FOR_ADAPTIVE = 20;
+    private static final double HEADROOM_FACTOR = 0.5;
+    private static final int MIN_HEADROOM_MS = 1000;
+
+    private final String endpoint;
+    private final EndpointTimeout timeout;
+    private final CircuitBreaker circuitBreaker;
+    private final LatencyWindow latencyWindow;
+
+    public EndpointPolicy(String endpoint, EndpointTimeout timeout, int failureThreshold, long openDurationMs) {
+        this.endpoint = endpoint;
+        this.timeout = timeout;
+        this.circuitBreaker = new CircuitBreaker(endpoint, failureThreshold, openDurationMs);
+        this.latencyWindow = new LatencyWindow(LATENCY_WINDOW_SIZE);
+    }
+
+    public int getAdaptiveReadTimeoutMs() {
+        if (latencyWindow.getCount() < MIN_SAMPLES_FOR_ADAPTIVE) {
+            return timeout.getReadTimeoutMs();
+        }
+
+        long p99 = latencyWindow.percentile(0.99);
+        long headroom = Math.max((long) (p99 * HEADROOM_FACTOR), MIN_HEADROOM_MS);
+        long adaptive = p99 + headroom;
+
+        return (int) Math.max(timeout.getMinReadTimeoutMs(), Math.min(adaptive, timeout.getReadTimeoutMs()));
+    }
+}
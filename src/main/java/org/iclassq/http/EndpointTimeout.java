@@ -0,0 +1,18 @@
+package org.iclassq.http;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class EndpointTimeout {
+    private final int connectTimeoutMs;
+    private final int minReadTimeoutMs;
+    private final int readTimeoutMs;
+
+    public static EndpointTimeout ofSeconds(int connectSeconds, int minReadSeconds, int maxReadSeconds) {
+        return new EndpointTimeout(connectSeconds * 1000, minReadSeconds * 1000, maxReadSeconds * 1000);
+    }
+}
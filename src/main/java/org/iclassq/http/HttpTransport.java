@@ -0,0 +1,263 @@
+package org.iclassq.http;
+
+import okhttp3.*;
+import org.iclassq.http.metrics.HttpMetrics;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+public class HttpTransport {
+    private static final Logger logger = Logger.getLogger(HttpTransport.class.getName());
+
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+    private static final int KEEP_ALIVE_MINUTES = 5;
+    private static final int PREWARM_CONNECTIONS = 2;
+    private static final int MAX_DISPATCHED_REQUESTS = 64;
+    private static final int MAX_CONCURRENT_PER_HOST = 5;
+    private static final int MAX_BACKGROUND_QUEUE = 16;
+    private static final int THROTTLED_BACKGROUND_CONCURRENCY = 1;
+    private static final long CUSTOMER_FLOW_WINDOW_MS = 30_000;
+
+    private static final EndpointTimeout DEFAULT_TIMEOUT = EndpointTimeout.ofSeconds(5, 3, 10);
+    private static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    private static final long DEFAULT_OPEN_DURATION_MS = 20_000;
+
+    private final OkHttpClient client;
+    private final ConnectionPool connectionPool;
+    private final Map<String, EndpointPolicy> endpointPolicies = new ConcurrentHashMap<>();
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final PriorityGate priorityGate = new PriorityGate(MAX_CONCURRENT_PER_HOST, MAX_BACKGROUND_QUEUE,
+            THROTTLED_BACKGROUND_CONCURRENCY, CUSTOMER_FLOW_WINDOW_MS);
+    private volatile Interceptor sessionInterceptor;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong connectionsAcquired = new AtomicLong();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+
+    public HttpTransport(CookieJar cookieJar) {
+        this.connectionPool = new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES);
+
+        registerDefaultPolicies();
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(MAX_DISPATCHED_REQUESTS);
+        dispatcher.setMaxRequestsPerHost(MAX_DISPATCHED_REQUESTS);
+
+        this.client = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(connectionPool)
+                .cookieJar(cookieJar)
+                .followRedirects(false)
+                .connectTimeout(DEFAULT_TIMEOUT.getConnectTimeoutMs(), TimeUnit.MILLISECONDS)
+                .readTimeout(DEFAULT_TIMEOUT.getReadTimeoutMs(), TimeUnit.MILLISECONDS)
+                .addInterceptor(HttpMetrics.getInstance().applicationInterceptor())
+                .addInterceptor(this::applyPriority)
+                .addInterceptor(this::applySessionInterceptor)
+                .addInterceptor(this::applyEndpointPolicy)
+                .addNetworkInterceptor(HttpMetrics.getInstance().networkInterceptor())
+                .eventListener(new PoolEventListener())
+                .build();
+    }
+
+    private void registerDefaultPolicies() {
+        registerEndpoint("/j_security_check_for_standar", EndpointTimeout.ofSeconds(5, 5, 15), 5, 10_000);
+        registerEndpoint("/obtenerrolesbyusername.app", EndpointTimeout.ofSeconds(5, 3, 10), 5, 10_000);
+        registerEndpoint("/listargruposxtiempo.app", EndpointTimeout.ofSeconds(3, 2, 8), 5, 20_000);
+        registerEndpoint("/listarsubgruposxgrupoandsucursal.app", EndpointTimeout.ofSeconds(3, 2, 8), 5, 20_000);
+        registerEndpoint("/listarTipoDocumentoXGeneraTicket.app", EndpointTimeout.ofSeconds(3, 2, 8), 5, 20_000);
+        registerEndpoint("/obtenerhorariosgrupos.app", EndpointTimeout.ofSeconds(5, 3, 15), 3, 60_000);
+        registerEndpoint("/generarticketatencion.app", EndpointTimeout.ofSeconds(5, 20, 30), 8, 10_000);
+    }
+
+    public void registerEndpoint(String endpoint, EndpointTimeout timeout, int failureThreshold, long openDurationMs) {
+        endpointPolicies.put(endpoint, new EndpointPolicy(endpoint, timeout, failureThreshold, openDurationMs));
+    }
+
+    public OkHttpClient getClient() {
+        return client;
+    }
+
+    public Call newCall(Request request) {
+        PriorityHandle flightPriority = PriorityHandle.current();
+        if (flightPriority != null && request.tag(PriorityHandle.class) == null
+                && request.tag(RequestPriority.class) == null) {
+            request = request.newBuilder()
+                    .tag(PriorityHandle.class, flightPriority)
+                    .build();
+        } else if (request.tag(RequestPriority.class) == null) {
+            request = request.newBuilder()
+                    .tag(RequestPriority.class, RequestPriority.current())
+                    .build();
+        }
+        return client.newCall(request);
+    }
+
+    public SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
+    public PriorityGate getPriorityGate() {
+        return priorityGate;
+    }
+
+    public void setSessionInterceptor(Interceptor sessionInterceptor) {
+        this.sessionInterceptor = sessionInterceptor;
+    }
+
+    public EndpointPolicy getEndpointPolicy(HttpUrl url) {
+        return endpointPolicies.computeIfAbsent(endpointOf(url), endpoint ->
+                new EndpointPolicy(endpoint, DEFAULT_TIMEOUT, DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION_MS));
+    }
+
+    public static String endpointOf(HttpUrl url) {
+        List<String> segments = url.pathSegments();
+        return "/" + segments.get(segments.size() - 1);
+    }
+
+    private Response applyPriority(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        PriorityHandle handle = request.tag(PriorityHandle.class);
+        if (handle == null) {
+            RequestPriority priority = request.tag(RequestPriority.class);
+            handle = new PriorityHandle(priority != null ? priority : RequestPriority.INTERACTIVE);
+        }
+
+        return priorityGate.run(
+                request.url().host() + ":" + request.url().port(),
+                handle,
+                chain.call(),
+                () -> chain.proceed(request));
+    }
+
+    private Response applySessionInterceptor(Interceptor.Chain chain) throws IOException {
+        Interceptor interceptor = sessionInterceptor;
+        if (interceptor == null) {
+            return chain.proceed(chain.request());
+        }
+        return interceptor.intercept(chain);
+    }
+
+    private Response applyEndpointPolicy(Interceptor.Chain chain) throws IOException {
+        EndpointPolicy policy = getEndpointPolicy(chain.request().url());
+        CircuitBreaker breaker = policy.getCircuitBreaker();
+
+        breaker.acquire();
+
+        int readTimeoutMs = policy.getAdaptiveReadTimeoutMs();
+        long start = System.nanoTime();
+
+        try {
+            Response response = chain
+                    .withConnectTimeout(policy.getTimeout().getConnectTimeoutMs(), TimeUnit.MILLISECONDS)
+                    .withReadTimeout(readTimeoutMs, TimeUnit.MILLISECONDS)
+                    .proceed(chain.request());
+
+            policy.getLatencyWindow().record(elapsedMs(start));
+
+            if (response.code() >= 500) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+
+            return response;
+
+        } catch (IOException e) {
+            if (chain.call().isCanceled()) {
+                breaker.onIgnored();
+            } else {
+                if (e instanceof SocketTimeoutException) {
+                    policy.getLatencyWindow().record(elapsedMs(start));
+                }
+                breaker.onFailure();
+                logger.fine(String.format("Fallo en %s tras %d ms (timeout lectura %d ms): %s",
+                        policy.getEndpoint(), elapsedMs(start), readTimeoutMs, e.getMessage()));
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            breaker.onIgnored();
+            throw e;
+        }
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    public void prewarm(String baseUrl) {
+        HttpUrl url = HttpUrl.parse(baseUrl);
+        if (url == null) {
+            logger.warning("URL inválida para precalentar conexiones: " + baseUrl);
+            return;
+        }
+
+        logger.info(String.format("Precalentando %d conexión(es) hacia %s", PREWARM_CONNECTIONS, url.host()));
+
+        for (int i = 0; i < PREWARM_CONNECTIONS; i++) {
+            Request request = new Request.Builder()
+                    .url(url)
+                    .head()
+                    .tag(RequestPriority.class, RequestPriority.BACKGROUND)
+                    .build();
+
+            client.newCall(request).enqueue(new Callback() {
+                @Override
+                public void onResponse(Call call, Response response) {
+                    response.close();
+                    logger.fine("Conexión precalentada: " + getPoolStats());
+                }
+
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    logger.fine("No se pudo precalentar conexión: " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    public PoolStats getPoolStats() {
+        return PoolStats.builder()
+                .totalConnections(connectionPool.connectionCount())
+                .idleConnections(connectionPool.idleConnectionCount())
+                .requests(requests.get())
+                .connectionsAcquired(connectionsAcquired.get())
+                .connectionsOpened(connectionsOpened.get())
+                .coalescedRequests(singleFlight.getCoalescedCount())
+                .build();
+    }
+
+    public void logPoolStats() {
+        logger.info(getPoolStats().toString());
+    }
+
+    public void shutdown() {
+        logPoolStats();
+        client.dispatcher().cancelAll();
+        connectionPool.evictAll();
+    }
+
+    private class PoolEventListener extends EventListener {
+        @Override
+        public void callStart(Call call) {
+            requests.incrementAndGet();
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            connectionsOpened.incrementAndGet();
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            connectionsAcquired.incrementAndGet();
+        }
+    }
+}
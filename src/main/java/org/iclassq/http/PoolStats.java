@@ -0,0 +1,39 @@
+package org.iclassq.http;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Builder
+@Value
+public class PoolStats {
+    int totalConnections;
+    int idleConnections;
+    long requests;
+    long connectionsAcquired;
+    long connectionsOpened;
+    long coalescedRequests;
+
+    public int getActiveConnections() {
+        return totalConnections - idleConnections;
+    }
+
+    public double getReuseRatio() {
+        if (connectionsAcquired == 0) {
+            return 0.0;
+        }
+        return (double) (connectionsAcquired - connectionsOpened) / connectionsAcquired;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Pool HTTP: %d conexiones (%d activas, %d inactivas) - %d peticiones, %d conexiones abiertas, reutilización %.1f%%, %d compartidas",
+                totalConnections,
+                getActiveConnections(),
+                idleConnections,
+                requests,
+                connectionsOpened,
+                getReuseRatio() * 100,
+                coalescedRequests
+        );
+    }
+}
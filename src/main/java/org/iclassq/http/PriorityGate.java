@@ -0,0 +1,142 @@
+package org.iclassq.http;
+
+import okhttp3.Call;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PriorityGate {
+    private static final long WAIT_SLICE_MS = 100;
+
+    private final int maxConcurrentPerHost;
+    private final int maxBackgroundQueue;
+    private final int throttledBackgroundConcurrency;
+    private final long customerFlowWindowMs;
+
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final ThreadLocal<Boolean> holding = ThreadLocal.withInitial(() -> false);
+    private final AtomicLong rejectedBackground = new AtomicLong();
+    private volatile long lastInteractiveAt = 0;
+
+    public PriorityGate(int maxConcurrentPerHost, int maxBackgroundQueue,
+                        int throttledBackgroundConcurrency, long customerFlowWindowMs) {
+        this.maxConcurrentPerHost = maxConcurrentPerHost;
+        this.maxBackgroundQueue = maxBackgroundQueue;
+        this.throttledBackgroundConcurrency = throttledBackgroundConcurrency;
+        this.customerFlowWindowMs = customerFlowWindowMs;
+    }
+
+    public boolean isCustomerInFlow() {
+        return System.currentTimeMillis() - lastInteractiveAt < customerFlowWindowMs;
+    }
+
+    public long getRejectedBackground() {
+        return rejectedBackground.get();
+    }
+
+    public <T> T run(String host, PriorityHandle handle, Call call, SingleFlight.Loader<T> action) throws IOException {
+        if (holding.get()) {
+            return action.load();
+        }
+
+        if (handle.isInteractive()) {
+            lastInteractiveAt = System.currentTimeMillis();
+        }
+
+        Lane lane = lanes.computeIfAbsent(host, key -> new Lane());
+        RequestPriority priority = lane.acquire(host, handle, call);
+        holding.set(true);
+
+        try {
+            return action.load();
+        } finally {
+            holding.set(false);
+            lane.release(priority);
+        }
+    }
+
+    private class Lane {
+        private int running = 0;
+        private int runningBackground = 0;
+        private int waitingInteractive = 0;
+        private int waitingBackground = 0;
+
+        private synchronized RequestPriority acquire(String host, PriorityHandle handle, Call call) throws IOException {
+            boolean interactive = handle.isInteractive();
+
+            if (!interactive && waitingBackground >= maxBackgroundQueue) {
+                rejectedBackground.incrementAndGet();
+                throw new IOException("Cola de segundo plano llena para " + host);
+            }
+
+            if (interactive) {
+                waitingInteractive++;
+            } else {
+                waitingBackground++;
+                handle.setOnPromoted(this::onPromoted);
+            }
+
+            try {
+                while (true) {
+                    if (!interactive && handle.isInteractive()) {
+                        waitingBackground--;
+                        waitingInteractive++;
+                        interactive = true;
+                    }
+                    if (!mustWait(interactive)) {
+                        break;
+                    }
+                    if (call.isCanceled()) {
+                        throw new InterruptedIOException("Canceled");
+                    }
+                    wait(WAIT_SLICE_MS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Espera de prioridad interrumpida");
+            } finally {
+                handle.setOnPromoted(null);
+                if (interactive) {
+                    waitingInteractive--;
+                } else {
+                    waitingBackground--;
+                }
+            }
+
+            running++;
+            if (!interactive) {
+                runningBackground++;
+            }
+            return interactive ? RequestPriority.INTERACTIVE : RequestPriority.BACKGROUND;
+        }
+
+        private synchronized void onPromoted() {
+            lastInteractiveAt = System.currentTimeMillis();
+            notifyAll();
+        }
+
+        private boolean mustWait(boolean interactive) {
+            if (running >= maxConcurrentPerHost) {
+                return true;
+            }
+            if (interactive) {
+                return false;
+            }
+            if (waitingInteractive > 0) {
+                return true;
+            }
+            return isCustomerInFlow() && runningBackground >= throttledBackgroundConcurrency;
+        }
+
+        private synchronized void release(RequestPriority priority) {
+            running--;
+            if (priority == RequestPriority.BACKGROUND) {
+                runningBackground--;
+            }
+            notifyAll();
+        }
+    }
+}
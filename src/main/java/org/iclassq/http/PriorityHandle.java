@@ -0,0 +1,59 @@
+package org.iclassq.http;
+
+import java.io.IOException;
+
+public class PriorityHandle {
+    private static final ThreadLocal<PriorityHandle> current = new ThreadLocal<>();
+
+    private volatile RequestPriority priority;
+    private volatile Runnable onPromoted;
+
+    public PriorityHandle(RequestPriority priority) {
+        this.priority = priority;
+    }
+
+    public RequestPriority get() {
+        return priority;
+    }
+
+    public boolean isInteractive() {
+        return priority == RequestPriority.INTERACTIVE;
+    }
+
+    public void promote() {
+        Runnable listener;
+        synchronized (this) {
+            if (priority == RequestPriority.INTERACTIVE) {
+                return;
+            }
+            priority = RequestPriority.INTERACTIVE;
+            listener = onPromoted;
+        }
+
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    synchronized void setOnPromoted(Runnable onPromoted) {
+        this.onPromoted = onPromoted;
+    }
+
+    static PriorityHandle current() {
+        return current.get();
+    }
+
+    static <T> T callWith(PriorityHandle handle, SingleFlight.Loader<T> action) throws IOException {
+        PriorityHandle previous = current.get();
+        current.set(handle);
+        try {
+            return action.load();
+        } finally {
+            if (previous == null) {
+                current.remove();
+            } else {
+                current.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.iclassq.http;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+public enum RequestPriority {
+    INTERACTIVE,
+    BACKGROUND;
+
+    private static final ThreadLocal<RequestPriority> current = ThreadLocal.withInitial(() -> INTERACTIVE);
+
+    public static RequestPriority current() {
+        return current.get();
+    }
+
+    public static <T> T supplyInBackground(Supplier<T> action) {
+        RequestPriority previous = current.get();
+        current.set(BACKGROUND);
+        try {
+            return action.get();
+        } finally {
+            current.set(previous);
+        }
+    }
+
+    public static <T> T callInBackground(SingleFlight.Loader<T> action) throws IOException {
+        RequestPriority previous = current.get();
+        current.set(BACKGROUND);
+        try {
+            return action.load();
+        } finally {
+            current.set(previous);
+        }
+    }
+}
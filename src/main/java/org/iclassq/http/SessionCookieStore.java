@@ -0,0 +1,71 @@
+package org.iclassq.http;
+
+import okhttp3.Cookie;
+import okhttp3.CookieJar;
+import okhttp3.HttpUrl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+public class SessionCookieStore implements CookieJar {
+    private final Map<String, List<Cookie>> cookiesByHost = new HashMap<>();
+
+    @Override
+    public synchronized void saveFromResponse(HttpUrl url, List<Cookie> cookies) {
+        for (Cookie cookie : cookies) {
+            List<Cookie> hostCookies = cookiesByHost.computeIfAbsent(cookie.domain(), host -> new ArrayList<>());
+            hostCookies.removeIf(existing -> sameIdentity(existing, cookie));
+
+            if (cookie.expiresAt() > System.currentTimeMillis()) {
+                hostCookies.add(cookie);
+            }
+        }
+    }
+
+    @Override
+    public synchronized List<Cookie> loadForRequest(HttpUrl url) {
+        List<Cookie> matching = new ArrayList<>();
+        long now = System.currentTimeMillis();
+
+        for (List<Cookie> hostCookies : cookiesByHost.values()) {
+            Iterator<Cookie> iterator = hostCookies.iterator();
+            while (iterator.hasNext()) {
+                Cookie cookie = iterator.next();
+                if (cookie.expiresAt() <= now) {
+                    iterator.remove();
+                } else if (cookie.matches(url)) {
+                    matching.add(cookie);
+                }
+            }
+        }
+
+        return matching;
+    }
+
+    public String getValue(HttpUrl url, String name) {
+        for (Cookie cookie : loadForRequest(url)) {
+            if (name.equals(cookie.name())) {
+                return cookie.value();
+            }
+        }
+        return null;
+    }
+
+    public synchronized void clear(String host) {
+        cookiesByHost.remove(host);
+    }
+
+    public synchronized void clear() {
+        cookiesByHost.clear();
+    }
+
+    private static boolean sameIdentity(Cookie a, Cookie b) {
+        return a.name().equals(b.name())
+                && a.domain().equals(b.domain())
+                && a.path().equals(b.path())
+                && a.hostOnly() == b.hostOnly();
+    }
+}
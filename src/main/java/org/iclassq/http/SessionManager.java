@@ -0,0 +1,222 @@
+package org.iclassq.http;
+
+import okhttp3.*;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+public class SessionManager implements Interceptor {
+    private static final Logger logger = Logger.getLogger(SessionManager.class.getName());
+
+    private static final String SESSION_COOKIE = "JSESSIONID";
+    private static final String LOGIN_ENDPOINT = "/j_security_check_for_standar";
+    private static final String LOGOUT_ENDPOINT = "/j_spring_logout_standar";
+    private static final String KEEP_ALIVE_ENDPOINT = "/obtenerrolesbyusername.app";
+    private static final String MAIN_PAGE = "/main.app";
+    private static final String APP_SUFFIX = ".app";
+
+    private final String baseUrl;
+    private final HttpUrl sessionUrl;
+    private final HttpTransport transport;
+    private final SessionCookieStore cookieStore;
+    private final long keepAliveIntervalMs;
+    private final AtomicLong lastActivity = new AtomicLong(System.currentTimeMillis());
+    private final ScheduledExecutorService keepAliveExecutor;
+
+    private volatile Credentials credentials;
+    private volatile Consumer<String> onSessionRenewed;
+    private ScheduledFuture<?> keepAliveTask;
+
+    public SessionManager(String baseUrl, HttpTransport transport, SessionCookieStore cookieStore,
+                          long keepAliveIntervalMs) {
+        this.baseUrl = baseUrl;
+        this.sessionUrl = HttpUrl.get(baseUrl);
+        this.transport = transport;
+        this.cookieStore = cookieStore;
+        this.keepAliveIntervalMs = keepAliveIntervalMs;
+        this.keepAliveExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "SessionKeepAliveThread");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void setOnSessionRenewed(Consumer<String> onSessionRenewed) {
+        this.onSessionRenewed = onSessionRenewed;
+    }
+
+    public synchronized String login(String username, String password, Integer rol) throws IOException {
+        Credentials attempt = new Credentials(username, password, rol);
+        String sessionId = handshake(attempt);
+
+        if (sessionId != null) {
+            credentials = attempt;
+            lastActivity.set(System.currentTimeMillis());
+            startKeepAlive();
+        }
+
+        return sessionId;
+    }
+
+    public void logout() throws IOException {
+        synchronized (this) {
+            credentials = null;
+            stopKeepAlive();
+        }
+
+        Request request = new Request.Builder()
+                .url(baseUrl + LOGOUT_ENDPOINT)
+                .get()
+                .build();
+
+        try {
+            transport.newCall(request).execute().close();
+        } finally {
+            cookieStore.clear(sessionUrl.host());
+        }
+    }
+
+    public String getSessionId() {
+        return cookieStore.getValue(sessionUrl, SESSION_COOKIE);
+    }
+
+    public void shutdown() {
+        keepAliveExecutor.shutdownNow();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String endpoint = HttpTransport.endpointOf(request.url());
+
+        if (!endpoint.endsWith(APP_SUFFIX) || credentials == null) {
+            return chain.proceed(request);
+        }
+
+        lastActivity.set(System.currentTimeMillis());
+
+        String sentSessionId = getSessionId();
+        Response response = chain.proceed(request);
+
+        if (!isAuthRedirect(response)) {
+            return response;
+        }
+
+        response.close();
+        logger.info("Sesión expirada en " + endpoint + ", renovando autenticación");
+
+        if (!renewSession(sentSessionId)) {
+            throw new IOException("Sesión expirada y no se pudo renovar la autenticación");
+        }
+
+        return chain.proceed(request);
+    }
+
+    private boolean isAuthRedirect(Response response) {
+        return response.code() == 401 || response.isRedirect();
+    }
+
+    private synchronized boolean renewSession(String staleSessionId) throws IOException {
+        Credentials current = credentials;
+        if (current == null) {
+            return false;
+        }
+
+        String sessionId = getSessionId();
+        if (sessionId != null && !Objects.equals(sessionId, staleSessionId)) {
+            return true;
+        }
+
+        String renewed = handshake(current);
+        if (renewed == null) {
+            logger.warning("No se pudo renovar la sesión de " + current.username);
+            return false;
+        }
+
+        logger.info("Sesión renovada");
+
+        Consumer<String> listener = onSessionRenewed;
+        if (listener != null) {
+            listener.accept(renewed);
+        }
+
+        return true;
+    }
+
+    private String handshake(Credentials attempt) throws IOException {
+        RequestBody form = new FormBody.Builder()
+                .add("j_username", attempt.username)
+                .add("j_password", attempt.password)
+                .add("rol", String.valueOf(attempt.rol))
+                .build();
+
+        Request request = new Request.Builder()
+                .url(baseUrl + LOGIN_ENDPOINT)
+                .post(form)
+                .build();
+
+        try (Response response = transport.newCall(request).execute()) {
+            String location = response.header("Location");
+            boolean accepted = response.isRedirect()
+                    ? location != null && location.contains(MAIN_PAGE)
+                    : response.isSuccessful();
+
+            return accepted ? getSessionId() : null;
+        }
+    }
+
+    private synchronized void startKeepAlive() {
+        stopKeepAlive();
+
+        long checkEveryMs = Math.max(keepAliveIntervalMs / 4, 1000);
+        keepAliveTask = keepAliveExecutor.scheduleWithFixedDelay(
+                this::keepAlive, checkEveryMs, checkEveryMs, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void stopKeepAlive() {
+        if (keepAliveTask != null) {
+            keepAliveTask.cancel(false);
+            keepAliveTask = null;
+        }
+    }
+
+    private void keepAlive() {
+        Credentials current = credentials;
+        if (current == null || System.currentTimeMillis() - lastActivity.get() < keepAliveIntervalMs) {
+            return;
+        }
+
+        Request request = new Request.Builder()
+                .url(baseUrl + KEEP_ALIVE_ENDPOINT + "?username=" + current.username)
+                .get()
+                .tag(RequestPriority.class, RequestPriority.BACKGROUND)
+                .build();
+
+        try (Response response = transport.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                logger.warning("Keep-alive de sesión respondió " + response.code());
+            }
+        } catch (IOException e) {
+            logger.warning("Error en keep-alive de sesión: " + e.getMessage());
+        }
+    }
+
+    private static class Credentials {
+        private final String username;
+        private final String password;
+        private final Integer rol;
+
+        private Credentials(String username, String password, Integer rol) {
+            this.username = username;
+            this.password = password;
+            this.rol = rol;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.iclassq.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+public class SingleFlight {
+    private static final Logger logger = Logger.getLogger(SingleFlight.class.getName());
+
+    private final Map<String, Flight> flights = new HashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws IOException;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Loader<T> loader) throws IOException {
+        Flight flight;
+        boolean leader;
+
+        synchronized (this) {
+            flight = flights.get(key);
+            leader = flight == null;
+
+            if (leader) {
+                flight = new Flight(new CompletableFuture<>(), new PriorityHandle(RequestPriority.current()));
+                register(key, flight);
+            } else {
+                onCoalesced(key, flight);
+            }
+            flight.subscribers++;
+        }
+
+        if (!leader) {
+            return (T) await(flight.source);
+        }
+
+        try {
+            T value = PriorityHandle.callWith(flight.priority, loader);
+            flight.source.complete(value);
+            return value;
+        } catch (IOException | RuntimeException e) {
+            flight.source.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> executeAsync(String key, Supplier<CompletableFuture<T>> loader) {
+        Flight flight;
+
+        synchronized (this) {
+            flight = flights.get(key);
+
+            if (flight == null) {
+                PriorityHandle priority = new PriorityHandle(RequestPriority.current());
+                flight = new Flight(startAsync(priority, loader), priority);
+                register(key, flight);
+            } else {
+                onCoalesced(key, flight);
+            }
+            flight.subscribers++;
+        }
+
+        Flight subscribed = flight;
+        CompletableFuture<T> result = new CompletableFuture<>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                boolean cancelled = super.cancel(mayInterruptIfRunning);
+                if (cancelled) {
+                    release(subscribed);
+                }
+                return cancelled;
+            }
+        };
+
+        subscribed.source.whenComplete((value, error) -> {
+            if (error != null) {
+                result.completeExceptionally(Futures.unwrap(error));
+            } else {
+                result.complete((T) value);
+            }
+        });
+
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompletableFuture<Object> startAsync(PriorityHandle priority,
+                                                        Supplier<? extends CompletableFuture<?>> loader) {
+        try {
+            return (CompletableFuture<Object>) PriorityHandle.callWith(priority, loader::get);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void register(String key, Flight flight) {
+        flights.put(key, flight);
+        flight.source.whenComplete((value, error) -> {
+            synchronized (this) {
+                flights.remove(key, flight);
+            }
+        });
+    }
+
+    private void onCoalesced(String key, Flight flight) {
+        coalesced.incrementAndGet();
+        logger.fine("Petición en curso compartida: " + key);
+
+        if (RequestPriority.current() == RequestPriority.INTERACTIVE && !flight.priority.isInteractive()) {
+            logger.fine("Promoviendo petición en curso a interactiva: " + key);
+            flight.priority.promote();
+        }
+    }
+
+    private synchronized void release(Flight flight) {
+        flight.subscribers--;
+        if (flight.subscribers == 0) {
+            flight.source.cancel(true);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Espera de petición compartida interrumpida");
+        } catch (CancellationException e) {
+            throw new InterruptedIOException("Petición compartida cancelada");
+        } catch (ExecutionException e) {
+            Throwable cause = Futures.unwrap(e);
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    private static class Flight {
+        private final CompletableFuture<Object> source;
+        private final PriorityHandle priority;
+        private int subscribers;
+
+        private Flight(CompletableFuture<Object> source, PriorityHandle priority) {
+            this.source = source;
+            this.priority = priority;
+        }
+    }
+}
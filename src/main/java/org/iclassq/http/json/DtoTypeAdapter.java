@@ -0,0 +1,93 @@
+package org.iclassq.http.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+public abstract class DtoTypeAdapter<T> extends TypeAdapter<T> {
+
+    protected abstract T newInstance();
+
+    protected abstract void readField(JsonReader in, String name, T target) throws IOException;
+
+    protected abstract void writeFields(JsonWriter out, T value) throws IOException;
+
+    @Override
+    public T read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        T target = newInstance();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            readField(in, in.nextName(), target);
+        }
+        in.endObject();
+
+        return target;
+    }
+
+    @Override
+    public void write(JsonWriter out, T value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        writeFields(out, value);
+        out.endObject();
+    }
+
+    protected static Integer readInteger(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        if (token == JsonToken.STRING) {
+            String value = in.nextString().trim();
+            return value.isEmpty() ? null : Integer.valueOf(value);
+        }
+
+        return in.nextInt();
+    }
+
+    protected static Boolean readBoolean(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        if (token == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+
+        return in.nextBoolean();
+    }
+
+    protected static String readString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        if (token == JsonToken.BOOLEAN) {
+            return String.valueOf(in.nextBoolean());
+        }
+
+        return in.nextString();
+    }
+}
@@ -0,0 +1,39 @@
+package org.iclassq.http.json;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.iclassq.model.dto.response.GrupoDTO;
+
+import java.io.IOException;
+
+public class GrupoDTOAdapter extends DtoTypeAdapter<GrupoDTO> {
+
+    @Override
+    protected GrupoDTO newInstance() {
+        return new GrupoDTO();
+    }
+
+    @Override
+    protected void readField(JsonReader in, String name, GrupoDTO target) throws IOException {
+        switch (name) {
+            case "id":
+                target.setId(readInteger(in));
+                break;
+            case "nombre":
+                target.setNombre(readString(in));
+                break;
+            case "prefijo":
+                target.setPrefijo(readString(in));
+                break;
+            default:
+                in.skipValue();
+        }
+    }
+
+    @Override
+    protected void writeFields(JsonWriter out, GrupoDTO value) throws IOException {
+        out.name("id").value(value.getId());
+        out.name("nombre").value(value.getNombre());
+        out.name("prefijo").value(value.getPrefijo());
+    }
+}
@@ -0,0 +1,35 @@
+package org.iclassq.http.json;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.iclassq.model.dto.response.HorarioDTO;
+
+import java.io.IOException;
+
+public class HorarioDTOAdapter extends DtoTypeAdapter<HorarioDTO> {
+
+    @Override
+    protected HorarioDTO newInstance() {
+        return new HorarioDTO();
+    }
+
+    @Override
+    protected void readField(JsonReader in, String name, HorarioDTO target) throws IOException {
+        switch (name) {
+            case "horaInicio":
+                target.setHoraInicio(readString(in));
+                break;
+            case "horaFin":
+                target.setHoraFin(readString(in));
+                break;
+            default:
+                in.skipValue();
+        }
+    }
+
+    @Override
+    protected void writeFields(JsonWriter out, HorarioDTO value) throws IOException {
+        out.name("horaInicio").value(value.getHoraInicio());
+        out.name("horaFin").value(value.getHoraFin());
+    }
+}
@@ -0,0 +1,89 @@
+package org.iclassq.http.json;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import okhttp3.ResponseBody;
+import org.iclassq.model.dto.response.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class JsonCodec {
+    private static JsonCodec instance;
+
+    private final Gson gson;
+    private final Map<Class<?>, Type> listTypes = new ConcurrentHashMap<>();
+    private final Map<Type, TypeAdapter<?>> dataAdapters = new ConcurrentHashMap<>();
+
+    private JsonCodec() {
+        this.gson = new GsonBuilder()
+                .registerTypeAdapter(GrupoDTO.class, new GrupoDTOAdapter())
+                .registerTypeAdapter(SubGrupoDTO.class, new SubGrupoDTOAdapter())
+                .registerTypeAdapter(TipoDocumentoDTO.class, new TipoDocumentoDTOAdapter())
+                .registerTypeAdapter(HorarioDTO.class, new HorarioDTOAdapter())
+                .registerTypeAdapter(UsuarioRolDTO.class, new UsuarioRolDTOAdapter())
+                .registerTypeAdapter(TicketResponseDTO.class, new TicketResponseDTOAdapter())
+                .create();
+    }
+
+    public static synchronized JsonCodec getInstance() {
+        if (instance == null) {
+            instance = new JsonCodec();
+        }
+        return instance;
+    }
+
+    public Gson getGson() {
+        return gson;
+    }
+
+    public Type listOf(Class<?> clazz) {
+        return listTypes.computeIfAbsent(clazz,
+                key -> TypeToken.getParameterized(List.class, key).getType());
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> adapterFor(Type type) {
+        return (TypeAdapter<T>) dataAdapters.computeIfAbsent(type,
+                key -> gson.getAdapter(TypeToken.get(key)));
+    }
+
+    public <T> ApiResponse<T> readApiResponse(ResponseBody body, Type dataType) throws IOException {
+        try (Reader reader = body.charStream()) {
+            return readApiResponse(reader, dataType);
+        }
+    }
+
+    public <T> ApiResponse<T> readApiResponse(Reader reader, Type dataType) throws IOException {
+        TypeAdapter<T> dataAdapter = adapterFor(dataType);
+        ApiResponse<T> apiResponse = new ApiResponse<>();
+
+        JsonReader in = gson.newJsonReader(reader);
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "data":
+                    apiResponse.setData(dataAdapter.read(in));
+                    break;
+                case "success":
+                    apiResponse.setSuccess(DtoTypeAdapter.readBoolean(in));
+                    break;
+                case "message":
+                    apiResponse.setMessage(DtoTypeAdapter.readString(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return apiResponse;
+    }
+}
@@ -0,0 +1,43 @@
+package org.iclassq.http.json;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.iclassq.model.dto.response.SubGrupoDTO;
+
+import java.io.IOException;
+
+public class SubGrupoDTOAdapter extends DtoTypeAdapter<SubGrupoDTO> {
+
+    @Override
+    protected SubGrupoDTO newInstance() {
+        return new SubGrupoDTO();
+    }
+
+    @Override
+    protected void readField(JsonReader in, String name, SubGrupoDTO target) throws IOException {
+        switch (name) {
+            case "iSubGrupo":
+                target.setISubGrupo(readInteger(in));
+                break;
+            case "vNombreSubGrupo":
+                target.setVNombreSubGrupo(readString(in));
+                break;
+            case "vPrefijo":
+                target.setVPrefijo(readString(in));
+                break;
+            case "agrupador":
+                target.setAgrupador(readInteger(in));
+                break;
+            default:
+                in.skipValue();
+        }
+    }
+
+    @Override
+    protected void writeFields(JsonWriter out, SubGrupoDTO value) throws IOException {
+        out.name("iSubGrupo").value(value.getISubGrupo());
+        out.name("vNombreSubGrupo").value(value.getVNombreSubGrupo());
+        out.name("vPrefijo").value(value.getVPrefijo());
+        out.name("agrupador").value(value.getAgrupador());
+    }
+}
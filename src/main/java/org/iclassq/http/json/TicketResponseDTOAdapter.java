@@ -0,0 +1,75 @@
+package org.iclassq.http.json;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.iclassq.model.dto.response.TicketResponseDTO;
+
+import java.io.IOException;
+
+public class TicketResponseDTOAdapter extends DtoTypeAdapter<TicketResponseDTO> {
+
+    @Override
+    protected TicketResponseDTO newInstance() {
+        return new TicketResponseDTO();
+    }
+
+    @Override
+    protected void readField(JsonReader in, String name, TicketResponseDTO target) throws IOException {
+        switch (name) {
+            case "id":
+                target.setId(readInteger(in));
+                break;
+            case "codigo":
+                target.setCodigo(readString(in));
+                break;
+            case "horaEmision":
+                target.setHoraEmision(readString(in));
+                break;
+            case "idSubgrupo":
+                target.setIdSubgrupo(readInteger(in));
+                break;
+            case "numeroIdentificacion":
+                target.setNumeroIdentificacion(readString(in));
+                break;
+            case "estado":
+                target.setEstado(readInteger(in));
+                break;
+            case "nombreSubgrupo":
+                target.setNombreSubgrupo(readString(in));
+                break;
+            case "prefijo":
+                target.setPrefijo(readString(in));
+                break;
+            case "tipoIdentificacion":
+                target.setTipoIdentificacion(readString(in));
+                break;
+            case "ticketSecuencia":
+                target.setTicketSecuencia(readInteger(in));
+                break;
+            case "fechaAtencion":
+                target.setFechaAtencion(readString(in));
+                break;
+            case "provisional":
+                target.setProvisional(Boolean.TRUE.equals(readBoolean(in)));
+                break;
+            default:
+                in.skipValue();
+        }
+    }
+
+    @Override
+    protected void writeFields(JsonWriter out, TicketResponseDTO value) throws IOException {
+        out.name("id").value(value.getId());
+        out.name("codigo").value(value.getCodigo());
+        out.name("horaEmision").value(value.getHoraEmision());
+        out.name("idSubgrupo").value(value.getIdSubgrupo());
+        out.name("numeroIdentificacion").value(value.getNumeroIdentificacion());
+        out.name("estado").value(value.getEstado());
+        out.name("nombreSubgrupo").value(value.getNombreSubgrupo());
+        out.name("prefijo").value(value.getPrefijo());
+        out.name("tipoIdentificacion").value(value.getTipoIdentificacion());
+        out.name("ticketSecuencia").value(value.getTicketSecuencia());
+        out.name("fechaAtencion").value(value.getFechaAtencion());
+        out.name("provisional").value(value.isProvisional());
+    }
+}
@@ -0,0 +1,35 @@
+package org.iclassq.http.json;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.iclassq.model.dto.response.TipoDocumentoDTO;
+
+import java.io.IOException;
+
+public class TipoDocumentoDTOAdapter extends DtoTypeAdapter<TipoDocumentoDTO> {
+
+    @Override
+    protected TipoDocumentoDTO newInstance() {
+        return new TipoDocumentoDTO();
+    }
+
+    @Override
+    protected void readField(JsonReader in, String name, TipoDocumentoDTO target) throws IOException {
+        switch (name) {
+            case "id":
+                target.setId(readInteger(in));
+                break;
+            case "descripcion":
+                target.setDescripcion(readString(in));
+                break;
+            default:
+                in.skipValue();
+        }
+    }
+
+    @Override
+    protected void writeFields(JsonWriter out, TipoDocumentoDTO value) throws IOException {
+        out.name("id").value(value.getId());
+        out.name("descripcion").value(value.getDescripcion());
+    }
+}
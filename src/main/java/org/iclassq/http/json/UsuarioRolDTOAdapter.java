@@ -0,0 +1,117 @@
+package org.iclassq.http.json;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.iclassq.model.dto.response.RolDTO;
+import org.iclassq.model.dto.response.UsuarioDTO;
+import org.iclassq.model.dto.response.UsuarioRolDTO;
+
+import java.io.IOException;
+
+public class UsuarioRolDTOAdapter extends DtoTypeAdapter<UsuarioRolDTO> {
+
+    @Override
+    protected UsuarioRolDTO newInstance() {
+        return new UsuarioRolDTO();
+    }
+
+    @Override
+    protected void readField(JsonReader in, String name, UsuarioRolDTO target) throws IOException {
+        switch (name) {
+            case "rol":
+                target.setRol(readRol(in));
+                break;
+            case "usuario":
+                target.setUsuario(readUsuario(in));
+                break;
+            default:
+                in.skipValue();
+        }
+    }
+
+    private RolDTO readRol(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        RolDTO rol = new RolDTO();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "iRolId":
+                    rol.setIRolId(readInteger(in));
+                    break;
+                case "vRolNombre":
+                    rol.setVRolNombre(readString(in));
+                    break;
+                case "vPrefijo":
+                    rol.setVPrefijo(readString(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return rol;
+    }
+
+    private UsuarioDTO readUsuario(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        UsuarioDTO usuario = new UsuarioDTO();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "iRolEquipo":
+                    usuario.setIRolEquipo(readInteger(in));
+                    break;
+                case "iSucursal":
+                    usuario.setISucursal(readInteger(in));
+                    break;
+                case "vUsuarioUsername":
+                    usuario.setVUsuarioUsername(readString(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return usuario;
+    }
+
+    @Override
+    protected void writeFields(JsonWriter out, UsuarioRolDTO value) throws IOException {
+        out.name("rol");
+        RolDTO rol = value.getRol();
+        if (rol == null) {
+            out.nullValue();
+        } else {
+            out.beginObject();
+            out.name("iRolId").value(rol.getIRolId());
+            out.name("vRolNombre").value(rol.getVRolNombre());
+            out.name("vPrefijo").value(rol.getVPrefijo());
+            out.endObject();
+        }
+
+        out.name("usuario");
+        UsuarioDTO usuario = value.getUsuario();
+        if (usuario == null) {
+            out.nullValue();
+        } else {
+            out.beginObject();
+            out.name("iRolEquipo").value(usuario.getIRolEquipo());
+            out.name("iSucursal").value(usuario.getISucursal());
+            out.name("vUsuarioUsername").value(usuario.getVUsuarioUsername());
+            out.endObject();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.iclassq.http.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class EndpointMetrics {
+    private final String endpoint;
+    private final FixedBucketHistogram timeToFirstByte = new FixedBucketHistogram(FixedBucketHistogram.LATENCY_BOUNDS_MS);
+    private final FixedBucketHistogram bodyTransfer = new FixedBucketHistogram(FixedBucketHistogram.LATENCY_BOUNDS_MS);
+    private final FixedBucketHistogram responseSize = new FixedBucketHistogram(FixedBucketHistogram.SIZE_BOUNDS_BYTES);
+    private final AtomicLongArray errors = new AtomicLongArray(ErrorClass.values().length);
+
+    public EndpointMetrics(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public void recordTimeToFirstByte(long millis) {
+        timeToFirstByte.record(millis);
+    }
+
+    public void recordBody(long millis, long bytes) {
+        bodyTransfer.record(millis);
+        responseSize.record(bytes);
+    }
+
+    public void recordError(ErrorClass errorClass) {
+        errors.incrementAndGet(errorClass.ordinal());
+    }
+
+    public EndpointMetricsSnapshot snapshot() {
+        Map<ErrorClass, Long> errorCounts = new EnumMap<>(ErrorClass.class);
+        for (ErrorClass errorClass : ErrorClass.values()) {
+            long count = errors.get(errorClass.ordinal());
+            if (count > 0) {
+                errorCounts.put(errorClass, count);
+            }
+        }
+
+        return EndpointMetricsSnapshot.builder()
+                .endpoint(endpoint)
+                .requests(timeToFirstByte.getCount())
+                .ttfbP50Ms(timeToFirstByte.percentile(0.50))
+                .ttfbP95Ms(timeToFirstByte.percentile(0.95))
+                .ttfbP99Ms(timeToFirstByte.percentile(0.99))
+                .ttfbMaxMs(timeToFirstByte.getMax())
+                .bodyP50Ms(bodyTransfer.percentile(0.50))
+                .bodyP95Ms(bodyTransfer.percentile(0.95))
+                .bodyP99Ms(bodyTransfer.percentile(0.99))
+                .sizeP50Bytes(responseSize.percentile(0.50))
+                .sizeMeanBytes(responseSize.getMean())
+                .sizeMaxBytes(responseSize.getMax())
+                .errors(errorCounts)
+                .build();
+    }
+}
@@ -0,0 +1,44 @@
+package org.iclassq.http.metrics;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+
+@Builder
+@Value
+public class EndpointMetricsSnapshot {
+    String endpoint;
+    long requests;
+    long ttfbP50Ms;
+    long ttfbP95Ms;
+    long ttfbP99Ms;
+    long ttfbMaxMs;
+    long bodyP50Ms;
+    long bodyP95Ms;
+    long bodyP99Ms;
+    long sizeP50Bytes;
+    long sizeMeanBytes;
+    long sizeMaxBytes;
+    Map<ErrorClass, Long> errors;
+
+    public long getErrorCount() {
+        long total = 0;
+        for (Long count : errors.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d peticiones - TTFB p50/p95/p99 %d/%d/%d ms (máx %d), cuerpo p50/p95/p99 %d/%d/%d ms, tamaño p50 %d B (medio %d B), errores %s",
+                endpoint,
+                requests,
+                ttfbP50Ms, ttfbP95Ms, ttfbP99Ms, ttfbMaxMs,
+                bodyP50Ms, bodyP95Ms, bodyP99Ms,
+                sizeP50Bytes, sizeMeanBytes,
+                errors.isEmpty() ? "ninguno" : errors
+        );
+    }
+}
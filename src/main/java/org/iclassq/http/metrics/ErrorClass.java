@@ -0,0 +1,42 @@
+package org.iclassq.http.metrics;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+
+public enum ErrorClass {
+    TIMEOUT,
+    CONNECT,
+    CANCELED,
+    IO,
+    HTTP_4XX,
+    HTTP_5XX;
+
+    public static ErrorClass of(IOException e, boolean canceled) {
+        if (canceled) {
+            return CANCELED;
+        }
+        if (e instanceof SocketTimeoutException) {
+            return TIMEOUT;
+        }
+        if (e instanceof ConnectException || e instanceof UnknownHostException) {
+            return CONNECT;
+        }
+        if (e instanceof InterruptedIOException) {
+            return TIMEOUT;
+        }
+        return IO;
+    }
+
+    public static ErrorClass ofStatus(int code) {
+        if (code >= 500) {
+            return HTTP_5XX;
+        }
+        if (code >= 400) {
+            return HTTP_4XX;
+        }
+        return null;
+    }
+}
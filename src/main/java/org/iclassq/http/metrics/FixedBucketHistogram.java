@@ -0,0 +1,72 @@
+package org.iclassq.http.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class FixedBucketHistogram {
+    public static final long[] LATENCY_BOUNDS_MS = {
+            1, 2, 3, 5, 7, 10, 15, 20, 30, 50, 75, 100, 150, 200, 300, 500, 750,
+            1_000, 1_500, 2_000, 3_000, 5_000, 7_500, 10_000, 15_000, 20_000, 30_000, 60_000
+    };
+
+    static final long[] SIZE_BOUNDS_BYTES = {
+            256, 512, 1_024, 2_048, 4_096, 8_192, 16_384, 32_768, 65_536, 131_072,
+            262_144, 524_288, 1_048_576, 2_097_152, 4_194_304, 8_388_608, 16_777_216
+    };
+
+    private final long[] bounds;
+    private final AtomicLongArray counts;
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public FixedBucketHistogram(long[] bounds) {
+        this.bounds = bounds;
+        this.counts = new AtomicLongArray(bounds.length + 1);
+    }
+
+    public void record(long value) {
+        int index = Arrays.binarySearch(bounds, value);
+        if (index < 0) {
+            index = -index - 1;
+        }
+
+        counts.incrementAndGet(index);
+        total.incrementAndGet();
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long getCount() {
+        return total.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public long getMean() {
+        long count = total.get();
+        return count == 0 ? 0 : sum.get() / count;
+    }
+
+    public long percentile(double percentile) {
+        long count = total.get();
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(percentile * count);
+        long seen = 0;
+
+        for (int i = 0; i < bounds.length; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(bounds[i], max.get());
+            }
+        }
+
+        return max.get();
+    }
+}
@@ -0,0 +1,221 @@
+package org.iclassq.http.metrics;
+
+import okhttp3.*;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
+import org.iclassq.http.HttpTransport;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+public class HttpMetrics {
+    private static final Logger logger = Logger.getLogger(HttpMetrics.class.getName());
+    private static final HttpMetrics INSTANCE = new HttpMetrics();
+
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private ScheduledExecutorService reporter;
+    private ScheduledFuture<?> reportTask;
+
+    private HttpMetrics() {
+    }
+
+    public static HttpMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    public Interceptor applicationInterceptor() {
+        return this::recordOutcome;
+    }
+
+    public Interceptor networkInterceptor() {
+        return this::recordTransfer;
+    }
+
+    private Response recordOutcome(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            metricsFor(request.url()).recordError(ErrorClass.of(e, chain.call().isCanceled()));
+            throw e;
+        }
+
+        ErrorClass statusError = ErrorClass.ofStatus(response.code());
+        if (statusError != null) {
+            metricsFor(request.url()).recordError(statusError);
+        }
+
+        return response;
+    }
+
+    private Response recordTransfer(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        EndpointMetrics metrics = metricsFor(request.url());
+        long start = System.nanoTime();
+
+        Response response = chain.proceed(request);
+
+        long headersAt = System.nanoTime();
+        metrics.recordTimeToFirstByte(TimeUnit.NANOSECONDS.toMillis(headersAt - start));
+
+        ResponseBody body = response.body();
+        if (body == null) {
+            return response;
+        }
+
+        return response.newBuilder()
+                .body(new MeteredBody(body, metrics, headersAt, chain.call()))
+                .build();
+    }
+
+    public List<EndpointMetricsSnapshot> snapshot() {
+        List<EndpointMetricsSnapshot> snapshots = new ArrayList<>();
+        for (EndpointMetrics metrics : endpoints.values()) {
+            snapshots.add(metrics.snapshot());
+        }
+        snapshots.sort(Comparator.comparing(EndpointMetricsSnapshot::getEndpoint));
+        return snapshots;
+    }
+
+    public EndpointMetricsSnapshot snapshot(String endpoint) {
+        EndpointMetrics metrics = endpoints.get(endpoint);
+        return metrics != null ? metrics.snapshot() : null;
+    }
+
+    public synchronized void startReporting(int intervalMinutes) {
+        stopReporting();
+
+        if (intervalMinutes <= 0) {
+            return;
+        }
+
+        reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "HttpMetricsReporterThread");
+            t.setDaemon(true);
+            return t;
+        });
+        reportTask = reporter.scheduleAtFixedRate(this::logSnapshot, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    public synchronized void stopReporting() {
+        if (reportTask != null) {
+            reportTask.cancel(false);
+            reportTask = null;
+        }
+        if (reporter != null) {
+            reporter.shutdownNow();
+            reporter = null;
+        }
+    }
+
+    public void logSnapshot() {
+        List<EndpointMetricsSnapshot> snapshots = snapshot();
+        if (snapshots.isEmpty()) {
+            return;
+        }
+
+        logger.info("Latencias HTTP por endpoint:");
+        for (EndpointMetricsSnapshot snapshot : snapshots) {
+            logger.info("  " + snapshot);
+        }
+    }
+
+    private EndpointMetrics metricsFor(HttpUrl url) {
+        String endpoint = HttpTransport.endpointOf(url);
+        EndpointMetrics metrics = endpoints.get(endpoint);
+        if (metrics == null) {
+            metrics = endpoints.computeIfAbsent(endpoint, EndpointMetrics::new);
+        }
+        return metrics;
+    }
+
+    private static class MeteredBody extends ResponseBody {
+        private final ResponseBody delegate;
+        private final EndpointMetrics metrics;
+        private final long headersAt;
+        private final Call call;
+        private BufferedSource source;
+        private long bytesRead = 0;
+        private boolean recorded = false;
+
+        private MeteredBody(ResponseBody delegate, EndpointMetrics metrics, long headersAt, Call call) {
+            this.delegate = delegate;
+            this.metrics = metrics;
+            this.headersAt = headersAt;
+            this.call = call;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            if (source == null) {
+                source = Okio.buffer(meter(delegate.source()));
+            }
+            return source;
+        }
+
+        private Source meter(Source upstream) {
+            return new ForwardingSource(upstream) {
+                @Override
+                public long read(Buffer sink, long byteCount) throws IOException {
+                    long read;
+                    try {
+                        read = super.read(sink, byteCount);
+                    } catch (IOException e) {
+                        finish(ErrorClass.of(e, call.isCanceled()));
+                        throw e;
+                    }
+
+                    if (read == -1) {
+                        finish(null);
+                    } else {
+                        bytesRead += read;
+                    }
+                    return read;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    finish(null);
+                    super.close();
+                }
+            };
+        }
+
+        private void finish(ErrorClass error) {
+            if (recorded) {
+                return;
+            }
+            recorded = true;
+
+            if (error != null) {
+                metrics.recordError(error);
+            } else {
+                metrics.recordBody(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - headersAt), bytesRead);
+            }
+        }
+    }
+}
@@ -5,6 +5,7 @@ import lombok.Setter;
 import org.iclassq.model.dto.response.*;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Getter
 @Setter
@@ -24,6 +25,7 @@ public class SessionData {
     private SubGrupoDTO subgrupo;
     private boolean esPreferencial;
     private LocalDateTime inicioSesion;
+    private String visitaId;
 
     private SessionData() {
         this.inicioSesion = LocalDateTime.now();
@@ -58,6 +60,17 @@ public class SessionData {
         }
     }
 
+    public String getVisitaId() {
+        if (visitaId == null) {
+            visitaId = UUID.randomUUID().toString();
+        }
+        return visitaId;
+    }
+
+    public String getSolicitudTicketId(Integer idSubgrupo) {
+        return getVisitaId() + "-" + idSubgrupo;
+    }
+
     public boolean puedeGenerarTicket() {
         return numeroDocumento != null &&
                 !numeroDocumento.isEmpty() &&
@@ -72,6 +85,7 @@ public class SessionData {
         this.grupo = null;
         this.subgrupo = null;
         this.esPreferencial = false;
+        this.visitaId = null;
         this.inicioSesion = LocalDateTime.now();
     }
 
@@ -15,4 +15,5 @@ public class TicketRequestDTO {
     private String numDoc;
     private Integer tipoDoc;
     private Integer validaDoc;
+    private String clientRequestId;
 }
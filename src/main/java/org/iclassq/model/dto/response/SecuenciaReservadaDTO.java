@@ -0,0 +1,16 @@
+package org.iclassq.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SecuenciaReservadaDTO {
+    private String prefijo;
+    private Integer inicio;
+    private Integer fin;
+}
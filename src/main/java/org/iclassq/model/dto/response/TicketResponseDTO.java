@@ -21,4 +21,5 @@ public class TicketResponseDTO {
     private String tipoIdentificacion;
     private Integer ticketSecuencia;
     private String fechaAtencion;
+    private boolean provisional;
 }
@@ -4,7 +4,9 @@ import org.iclassq.model.dto.response.GrupoDTO;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface GrupoService {
     List<GrupoDTO> getAllByTime(Integer rolEquipoId) throws IOException;
+    CompletableFuture<List<GrupoDTO>> getAllByTimeAsync(Integer rolEquipoId);
 }
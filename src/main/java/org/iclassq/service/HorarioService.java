@@ -3,7 +3,11 @@ package org.iclassq.service;
 import org.iclassq.model.dto.response.HorarioDTO;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 
 public interface HorarioService {
     HorarioDTO getHorarios(Integer idRol) throws IOException;
+    CompletableFuture<HorarioDTO> getHorariosAsync(Integer idRol);
+    void setOnHorarioChanged(BiConsumer<Integer, HorarioDTO> onHorarioChanged);
 }
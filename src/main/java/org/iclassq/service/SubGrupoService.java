@@ -4,8 +4,12 @@ import org.iclassq.model.dto.response.SubGrupoDTO;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface SubGrupoService {
     List<SubGrupoDTO> getByGrupo(Integer sucursalId, Integer grupoId) throws IOException;
     SubGrupoDTO getPreferencial(Integer sucursalId, Integer grupoId) throws IOException;
+    CompletableFuture<List<SubGrupoDTO>> getByGrupoAsync(Integer sucursalId, Integer grupoId);
+    CompletableFuture<SubGrupoDTO> getPreferencialAsync(Integer sucursalId, Integer grupoId);
+    void prefetch(Integer sucursalId, List<Integer> grupoIds);
 }
@@ -4,7 +4,9 @@ import org.iclassq.model.dto.request.TicketRequestDTO;
 import org.iclassq.model.dto.response.TicketResponseDTO;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 public interface TicketService {
     TicketResponseDTO generateTicket(TicketRequestDTO dto) throws IOException;
+    CompletableFuture<TicketResponseDTO> generateTicketAsync(TicketRequestDTO dto);
 }
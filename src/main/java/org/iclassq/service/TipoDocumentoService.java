@@ -4,7 +4,9 @@ import org.iclassq.model.dto.response.TipoDocumentoDTO;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface TipoDocumentoService {
     List<TipoDocumentoDTO> getAll() throws IOException;
+    CompletableFuture<List<TipoDocumentoDTO>> getAllAsync();
 }
@@ -0,0 +1,202 @@
+package org.iclassq.service.cache;
+
+import org.iclassq.http.Futures;
+import org.iclassq.http.RequestPriority;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+public class CatalogCache {
+    private static final Logger logger = Logger.getLogger(CatalogCache.class.getName());
+
+    private final Map<String, Entry<?>> entries = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor;
+    private final CatalogSnapshotStore snapshotStore;
+    private final AtomicBoolean snapshotPending = new AtomicBoolean(false);
+    private volatile String sessionId;
+    private volatile String tenant;
+
+    public CatalogCache(CatalogSnapshotStore snapshotStore) {
+        this.snapshotStore = snapshotStore;
+        this.refreshExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "CatalogRefreshThread");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void loadSnapshot() {
+        if (snapshotStore == null) {
+            return;
+        }
+
+        CatalogSnapshot loaded = snapshotStore.load();
+        tenant = loaded.getTenant();
+
+        for (CatalogSnapshotEntry snapshot : loaded.getEntries()) {
+            Entry<Object> entry = new Entry<>(snapshot.getType(), snapshot.getValue(), snapshot.getLoadedAt());
+            entry.stale = true;
+            entries.putIfAbsent(snapshot.getKey(), entry);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(CatalogType type, String key, CatalogLoader<T> loader) throws IOException {
+        Entry<T> entry = (Entry<T>) entries.get(key);
+
+        if (entry == null) {
+            logger.fine("Catálogo no encontrado en caché, consultando backend: " + key);
+            return load(type, key, loader);
+        }
+
+        if (entry.isExpired(type.getTtl().toMillis())) {
+            refreshInBackground(type, key, entry, loader);
+        }
+
+        return entry.value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> getAsync(CatalogType type, String key, Supplier<CompletableFuture<T>> loader) {
+        Entry<T> entry = (Entry<T>) entries.get(key);
+
+        if (entry == null) {
+            logger.fine("Catálogo no encontrado en caché, consultando backend: " + key);
+            String loadSession = sessionId;
+            CompletableFuture<T> future = loader.get();
+            future.thenAccept(value -> store(loadSession, type, key, value));
+            return future;
+        }
+
+        if (entry.isExpired(type.getTtl().toMillis()) && entry.refreshing.compareAndSet(false, true)) {
+            logger.fine("Sirviendo catálogo vencido y refrescando en segundo plano: " + key);
+            String loadSession = sessionId;
+
+            RequestPriority.supplyInBackground(loader).whenComplete((value, error) -> {
+                if (error != null) {
+                    logger.warning(String.format("No se pudo refrescar catálogo %s: %s",
+                            key, Futures.unwrap(error).getMessage()));
+                } else {
+                    store(loadSession, type, key, value);
+                }
+                entry.refreshing.set(false);
+            });
+        }
+
+        return CompletableFuture.completedFuture(entry.value);
+    }
+
+    private <T> T load(CatalogType type, String key, CatalogLoader<T> loader) throws IOException {
+        String loadSession = sessionId;
+        T value = loader.load();
+        store(loadSession, type, key, value);
+        return value;
+    }
+
+    private <T> void store(String loadSession, CatalogType type, String key, T value) {
+        if (value != null && Objects.equals(loadSession, sessionId)) {
+            entries.put(key, new Entry<>(type, value, System.currentTimeMillis()));
+            scheduleSnapshot();
+        }
+    }
+
+    private <T> void refreshInBackground(CatalogType type, String key, Entry<T> entry, CatalogLoader<T> loader) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        logger.fine("Sirviendo catálogo vencido y refrescando en segundo plano: " + key);
+
+        refreshExecutor.submit(() -> {
+            try {
+                RequestPriority.callInBackground(() -> load(type, key, loader));
+            } catch (Exception e) {
+                logger.warning(String.format("No se pudo refrescar catálogo %s: %s", key, e.getMessage()));
+            } finally {
+                entry.refreshing.set(false);
+            }
+        });
+    }
+
+    private void scheduleSnapshot() {
+        if (snapshotStore == null || !snapshotPending.compareAndSet(false, true)) {
+            return;
+        }
+
+        refreshExecutor.submit(() -> {
+            snapshotPending.set(false);
+            String snapshotTenant = tenant;
+
+            List<CatalogSnapshotEntry> snapshot = new ArrayList<>();
+            entries.forEach((key, entry) ->
+                    snapshot.add(new CatalogSnapshotEntry(entry.type, key, entry.loadedAt, entry.value)));
+
+            try {
+                snapshotStore.save(snapshotTenant, snapshot);
+            } catch (Exception e) {
+                logger.warning("No se pudo guardar snapshot de catálogos: " + e.getMessage());
+            }
+        });
+    }
+
+    public void invalidate(String key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.values().forEach(entry -> entry.stale = true);
+        logger.info("Caché de catálogos invalidada");
+    }
+
+    public void evictAll() {
+        entries.clear();
+        logger.info("Caché de catálogos vaciada");
+    }
+
+    public void onSessionChanged(String newSessionId, String newTenant) {
+        if (Objects.equals(sessionId, newSessionId)) {
+            return;
+        }
+
+        sessionId = newSessionId;
+
+        if (newTenant != null && !Objects.equals(tenant, newTenant)) {
+            tenant = newTenant;
+            evictAll();
+        } else {
+            invalidateAll();
+        }
+    }
+
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private static class Entry<T> {
+        private final CatalogType type;
+        private final T value;
+        private final long loadedAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean(false);
+        private volatile boolean stale = false;
+
+        private Entry(CatalogType type, T value, long loadedAt) {
+            this.type = type;
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+
+        private boolean isExpired(long ttlMs) {
+            return stale || System.currentTimeMillis() - loadedAt >= ttlMs;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package org.iclassq.service.cache;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface CatalogLoader<T> {
+    T load() throws IOException;
+}
@@ -0,0 +1,13 @@
+package org.iclassq.service.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CatalogSnapshot {
+    private final String tenant;
+    private final List<CatalogSnapshotEntry> entries;
+}
@@ -0,0 +1,13 @@
+package org.iclassq.service.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CatalogSnapshotEntry {
+    private final CatalogType type;
+    private final String key;
+    private final long loadedAt;
+    private final Object value;
+}
@@ -0,0 +1,185 @@
+package org.iclassq.service.cache;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.iclassq.http.json.JsonCodec;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class CatalogSnapshotStore {
+    private static final Logger logger = Logger.getLogger(CatalogSnapshotStore.class.getName());
+
+    private static final int SNAPSHOT_VERSION = 2;
+    private static final String SNAPSHOT_FILE = "catalogos-v" + SNAPSHOT_VERSION + ".json.gz";
+
+    private final Path file;
+    private final JsonCodec codec;
+
+    public CatalogSnapshotStore(Path file) {
+        this.file = file;
+        this.codec = JsonCodec.getInstance();
+    }
+
+    public static CatalogSnapshotStore inUserHome() {
+        String userHome = System.getProperty("user.home");
+        return new CatalogSnapshotStore(Paths.get(userHome, ".iclassq", "cache", SNAPSHOT_FILE));
+    }
+
+    public CatalogSnapshot load() {
+        List<CatalogSnapshotEntry> entries = new ArrayList<>();
+        String tenant = null;
+
+        if (!Files.exists(file)) {
+            logger.info("No existe snapshot de catálogos en: " + file.toAbsolutePath());
+            return new CatalogSnapshot(null, entries);
+        }
+
+        try (JsonReader in = new JsonReader(new InputStreamReader(
+                new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file))),
+                StandardCharsets.UTF_8))) {
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "version":
+                        int version = in.nextInt();
+                        if (version != SNAPSHOT_VERSION) {
+                            logger.warning(String.format("Versión de snapshot no soportada: %d (esperada %d)",
+                                    version, SNAPSHOT_VERSION));
+                            return new CatalogSnapshot(null, new ArrayList<>());
+                        }
+                        break;
+                    case "tenant":
+                        tenant = in.nextString();
+                        break;
+                    case "entries":
+                        readEntries(in, entries);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+
+            logger.info(String.format("Snapshot de catálogos cargado: %d entrada(s) desde %s",
+                    entries.size(), file.toAbsolutePath()));
+
+        } catch (Exception e) {
+            logger.warning("No se pudo leer snapshot de catálogos: " + e.getMessage());
+            entries.clear();
+        }
+
+        return new CatalogSnapshot(tenant, entries);
+    }
+
+    private void readEntries(JsonReader in, List<CatalogSnapshotEntry> entries) throws IOException {
+        in.beginArray();
+        while (in.hasNext()) {
+            CatalogType type = null;
+            String key = null;
+            long loadedAt = 0;
+            Object value = null;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "type":
+                        type = parseType(in.nextString());
+                        break;
+                    case "key":
+                        key = in.nextString();
+                        break;
+                    case "loadedAt":
+                        loadedAt = in.nextLong();
+                        break;
+                    case "data":
+                        if (type == null) {
+                            in.skipValue();
+                        } else {
+                            TypeAdapter<?> adapter = codec.adapterFor(codec.listOf(type.getItemType()));
+                            value = adapter.read(in);
+                        }
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+
+            if (type != null && key != null && value != null) {
+                entries.add(new CatalogSnapshotEntry(type, key, loadedAt, value));
+            }
+        }
+        in.endArray();
+    }
+
+    private CatalogType parseType(String name) {
+        try {
+            return CatalogType.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void save(String tenant, List<CatalogSnapshotEntry> entries) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tempFile = Files.createTempFile(file.getParent(), SNAPSHOT_FILE, ".tmp");
+
+        try {
+            try (OutputStream fileOut = Files.newOutputStream(tempFile);
+                 JsonWriter out = new JsonWriter(new OutputStreamWriter(
+                         new GZIPOutputStream(new BufferedOutputStream(fileOut)),
+                         StandardCharsets.UTF_8))) {
+
+                out.beginObject();
+                out.name("version").value(SNAPSHOT_VERSION);
+                out.name("savedAt").value(System.currentTimeMillis());
+                out.name("tenant").value(tenant);
+                out.name("entries").beginArray();
+
+                for (CatalogSnapshotEntry entry : entries) {
+                    TypeAdapter adapter = codec.adapterFor(codec.listOf(entry.getType().getItemType()));
+
+                    out.beginObject();
+                    out.name("type").value(entry.getType().name());
+                    out.name("key").value(entry.getKey());
+                    out.name("loadedAt").value(entry.getLoadedAt());
+                    out.name("data");
+                    adapter.write(out, entry.getValue());
+                    out.endObject();
+                }
+
+                out.endArray();
+                out.endObject();
+            }
+
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+
+            moveAtomically(tempFile, file);
+            logger.fine(String.format("Snapshot de catálogos guardado: %d entrada(s)", entries.size()));
+
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.iclassq.service.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.iclassq.config.AppConfig;
+import org.iclassq.model.dto.response.GrupoDTO;
+import org.iclassq.model.dto.response.SubGrupoDTO;
+import org.iclassq.model.dto.response.TipoDocumentoDTO;
+
+import java.time.Duration;
+
+@Getter
+@AllArgsConstructor
+public enum CatalogType {
+    GRUPOS("grupos", "/listargruposxtiempo.app", 60, GrupoDTO.class),
+    SUBGRUPOS("subgrupos", "/listarsubgruposxgrupoandsucursal.app", 300, SubGrupoDTO.class),
+    TIPOS_DOCUMENTO("tipos-documento", "/listarTipoDocumentoXGeneraTicket.app", 1800, TipoDocumentoDTO.class);
+
+    private final String name;
+    private final String endpoint;
+    private final int defaultTtlSeconds;
+    private final Class<?> itemType;
+
+    public Duration getTtl() {
+        return Duration.ofSeconds(AppConfig.getCacheTtlSeconds(name, defaultTtlSeconds));
+    }
+
+    public String key(Object... params) {
+        StringBuilder key = new StringBuilder(name);
+        for (Object param : params) {
+            key.append(':').append(param);
+        }
+        return key.toString();
+    }
+}
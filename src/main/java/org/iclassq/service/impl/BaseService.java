@@ -1,48 +1,95 @@
 package org.iclassq.service.impl;
 
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-import okhttp3.CookieJar;
-import okhttp3.OkHttpClient;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
 import okhttp3.Response;
+import org.iclassq.http.CallFuture;
+import org.iclassq.http.HttpTransport;
+import org.iclassq.http.json.JsonCodec;
 import org.iclassq.model.dto.response.ApiResponse;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
 
 public abstract class BaseService {
     protected final String baseUrl;
-    protected final OkHttpClient client;
+    protected final HttpTransport transport;
+    protected final JsonCodec codec;
     protected final Gson gson;
 
-    protected BaseService(String baseUrl, CookieJar cookieJar) {
+    protected BaseService(String baseUrl, HttpTransport transport) {
         this.baseUrl = baseUrl;
-        this.gson = new Gson();
+        this.transport = transport;
+        this.codec = JsonCodec.getInstance();
+        this.gson = codec.getGson();
+    }
 
-        this.client = new OkHttpClient.Builder()
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .cookieJar(cookieJar)
-                .build();
+    @FunctionalInterface
+    protected interface ResponseParser<T> {
+        T parse(Response response) throws IOException;
     }
 
-    protected <T> T parseData(Response response, Type type) throws IOException {
+    protected Call newCall(Request request) {
+        return transport.newCall(request);
+    }
+
+    protected <T> T executeShared(Request request, ResponseParser<T> parser) throws IOException {
+        return transport.getSingleFlight().execute(flightKey(request), () -> {
+            try (Response response = newCall(request).execute()) {
+                return parser.parse(response);
+            }
+        });
+    }
+
+    protected <T> CompletableFuture<T> enqueue(Request request, ResponseParser<T> parser) {
+        Call call = newCall(request);
+        CallFuture<T> future = new CallFuture<>(call);
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    future.complete(parser.parse(response));
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.completeExceptionally(e);
+            }
+        });
+
+        return future;
+    }
+
+    protected <T> CompletableFuture<T> enqueueShared(Request request, ResponseParser<T> parser) {
+        return transport.getSingleFlight().executeAsync(flightKey(request), () -> enqueue(request, parser));
+    }
+
+    private static String flightKey(Request request) {
+        return request.method() + " " + request.url();
+    }
+
+    protected <T> ApiResponse<T> parseApiResponse(Response response, Type type) throws IOException {
         if (!response.isSuccessful()) {
             throw new IOException("Error Http: " + response.code());
         }
 
-        String json = response.body().string();
-
-        Type apiResponseType = TypeToken.getParameterized(ApiResponse.class, type).getType();
-        ApiResponse<T> apiResponse = gson.fromJson(json, apiResponseType);
+        return codec.readApiResponse(response.body(), type);
+    }
 
+    protected <T> T parseData(Response response, Type type) throws IOException {
+        ApiResponse<T> apiResponse = parseApiResponse(response, type);
         return apiResponse.getData();
     }
 
     protected <T> List<T> parseDataList(Response response, Class<T> clazz) throws IOException {
-        Type listType = TypeToken.getParameterized(List.class, clazz).getType();
-        return parseData(response, listType);
+        return parseData(response, codec.listOf(clazz));
     }
 }
@@ -1,29 +1,52 @@
 package org.iclassq.service.impl;
 
-import okhttp3.CookieJar;
 import okhttp3.Request;
-import okhttp3.Response;
+import org.iclassq.http.HttpTransport;
 import org.iclassq.model.dto.response.GrupoDTO;
 import org.iclassq.service.GrupoService;
+import org.iclassq.service.cache.CatalogCache;
+import org.iclassq.service.cache.CatalogType;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class GrupoServiceImpl extends BaseService implements GrupoService {
+    private final CatalogCache catalogCache;
 
-    public GrupoServiceImpl(String baseUrl, CookieJar cookieJar) {
-        super(baseUrl, cookieJar);
+    public GrupoServiceImpl(String baseUrl, HttpTransport transport, CatalogCache catalogCache) {
+        super(baseUrl, transport);
+        this.catalogCache = catalogCache;
     }
 
     @Override
     public List<GrupoDTO> getAllByTime(Integer rolEquipoId) throws IOException {
-        Request request = new Request.Builder()
+        return catalogCache.get(
+                CatalogType.GRUPOS,
+                CatalogType.GRUPOS.key(rolEquipoId),
+                () -> fetchAllByTime(rolEquipoId)
+        );
+    }
+
+    @Override
+    public CompletableFuture<List<GrupoDTO>> getAllByTimeAsync(Integer rolEquipoId) {
+        return catalogCache.getAsync(
+                CatalogType.GRUPOS,
+                CatalogType.GRUPOS.key(rolEquipoId),
+                () -> enqueueShared(buildAllByTimeRequest(rolEquipoId),
+                        response -> parseDataList(response, GrupoDTO.class))
+        );
+    }
+
+    private List<GrupoDTO> fetchAllByTime(Integer rolEquipoId) throws IOException {
+        return executeShared(buildAllByTimeRequest(rolEquipoId),
+                response -> parseDataList(response, GrupoDTO.class));
+    }
+
+    private Request buildAllByTimeRequest(Integer rolEquipoId) {
+        return new Request.Builder()
                 .url(baseUrl + "/listargruposxtiempo.app?idRol=" + rolEquipoId)
                 .get()
                 .build();
-
-        try (Response response = client.newCall(request).execute()) {
-            return parseDataList(response, GrupoDTO.class);
-        }
     }
 }
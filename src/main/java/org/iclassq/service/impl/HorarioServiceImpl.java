@@ -1,38 +1,85 @@
 package org.iclassq.service.impl;
 
-import okhttp3.CookieJar;
 import okhttp3.Request;
 import okhttp3.Response;
+import org.iclassq.http.HttpTransport;
 import org.iclassq.model.dto.response.HorarioDTO;
 import org.iclassq.service.HorarioService;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 import java.util.logging.Logger;
 
 public class HorarioServiceImpl extends BaseService implements HorarioService {
     private static final Logger logger = Logger.getLogger(HorarioServiceImpl.class.getName());
 
-    public HorarioServiceImpl(String baseUrl, CookieJar cookieJar) {
-        super(baseUrl, cookieJar);
+    private final Map<Integer, HorarioDTO> lastKnown = new ConcurrentHashMap<>();
+    private volatile BiConsumer<Integer, HorarioDTO> onHorarioChanged;
+
+    public HorarioServiceImpl(String baseUrl, HttpTransport transport) {
+        super(baseUrl, transport);
     }
 
     @Override
     public HorarioDTO getHorarios(Integer idRol) throws IOException {
+        HorarioDTO horarios = executeShared(buildHorariosRequest(idRol), this::parseHorarios);
+        notifyIfChanged(idRol, horarios);
+        return horarios;
+    }
+
+    @Override
+    public CompletableFuture<HorarioDTO> getHorariosAsync(Integer idRol) {
+        return enqueueShared(buildHorariosRequest(idRol), this::parseHorarios)
+                .thenApply(horarios -> {
+                    notifyIfChanged(idRol, horarios);
+                    return horarios;
+                });
+    }
+
+    @Override
+    public void setOnHorarioChanged(BiConsumer<Integer, HorarioDTO> onHorarioChanged) {
+        this.onHorarioChanged = onHorarioChanged;
+    }
+
+    private void notifyIfChanged(Integer idRol, HorarioDTO horarios) {
+        if (idRol == null || horarios == null) {
+            return;
+        }
+
+        HorarioDTO previous = lastKnown.put(idRol, horarios);
+        if (previous == null || Objects.equals(previous, horarios)) {
+            return;
+        }
+
+        logger.info(String.format("Horario del rol %d cambió: %s - %s -> %s - %s", idRol,
+                previous.getHoraInicio(), previous.getHoraFin(), horarios.getHoraInicio(), horarios.getHoraFin()));
+
+        BiConsumer<Integer, HorarioDTO> listener = onHorarioChanged;
+        if (listener != null) {
+            listener.accept(idRol, horarios);
+        }
+    }
+
+    private Request buildHorariosRequest(Integer idRol) {
         String url = baseUrl + "/obtenerhorariosgrupos.app?idRol=" + idRol;
 
-        Request request = new Request.Builder()
+        return new Request.Builder()
                 .url(url)
                 .get()
                 .build();
+    }
 
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                throw new IOException("Error al obtener horarios: " + response);
-            }
+    private HorarioDTO parseHorarios(Response response) throws IOException {
+        if (!response.isSuccessful()) {
+            throw new IOException("Error al obtener horarios: " + response);
+        }
 
-            HorarioDTO horarios = parseData(response, HorarioDTO.class);
+        HorarioDTO horarios = parseData(response, HorarioDTO.class);
 
-            return horarios;
-        }
+        return horarios;
     }
 }
@@ -1,72 +1,127 @@
 package org.iclassq.service.impl;
 
-import okhttp3.CookieJar;
 import okhttp3.Request;
-import okhttp3.Response;
+import org.iclassq.http.HttpTransport;
+import org.iclassq.http.RequestPriority;
 import org.iclassq.model.dto.response.SubGrupoDTO;
 import org.iclassq.service.SubGrupoService;
+import org.iclassq.service.cache.CatalogCache;
+import org.iclassq.service.cache.CatalogType;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Logger;
 
 public class SubGrupoServiceImpl extends BaseService implements SubGrupoService {
     private final Logger logger = Logger.getLogger(AuthServiceImpl.class.getName());
+    private static final int PREFETCH_CONCURRENCY = 3;
 
-    public SubGrupoServiceImpl(String baseUrl, CookieJar cookieJar) {
-        super(baseUrl, cookieJar);
+    private final CatalogCache catalogCache;
+    private final ExecutorService prefetchExecutor;
+
+    public SubGrupoServiceImpl(String baseUrl, HttpTransport transport, CatalogCache catalogCache) {
+        super(baseUrl, transport);
+        this.catalogCache = catalogCache;
+        this.prefetchExecutor = Executors.newFixedThreadPool(PREFETCH_CONCURRENCY, r -> {
+            Thread thread = new Thread(r, "SubGrupoPrefetchThread");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @Override
     public List<SubGrupoDTO> getByGrupo(Integer sucursalId, Integer grupoId) throws IOException {
+        return catalogCache.get(
+                CatalogType.SUBGRUPOS,
+                CatalogType.SUBGRUPOS.key(sucursalId, grupoId),
+                () -> fetchByGrupo(sucursalId, grupoId)
+        );
+    }
+
+    @Override
+    public CompletableFuture<List<SubGrupoDTO>> getByGrupoAsync(Integer sucursalId, Integer grupoId) {
+        return catalogCache.getAsync(
+                CatalogType.SUBGRUPOS,
+                CatalogType.SUBGRUPOS.key(sucursalId, grupoId),
+                () -> enqueueShared(buildByGrupoRequest(sucursalId, grupoId),
+                        response -> parseDataList(response, SubGrupoDTO.class))
+        );
+    }
+
+    private List<SubGrupoDTO> fetchByGrupo(Integer sucursalId, Integer grupoId) throws IOException {
+        return executeShared(buildByGrupoRequest(sucursalId, grupoId),
+                response -> parseDataList(response, SubGrupoDTO.class));
+    }
+
+    private Request buildByGrupoRequest(Integer sucursalId, Integer grupoId) {
         logger.info("id sucursal: " + sucursalId);
         logger.info("id grupo: " + grupoId);
         String url = baseUrl + "/listarsubgruposxgrupoandsucursal.app?idSucursal=" + sucursalId + "&idGrupo=" + grupoId;
 
-        Request request = new Request.Builder()
+        return new Request.Builder()
                 .url(url)
                 .get()
                 .build();
-
-        try (Response response = client.newCall(request).execute()) {
-            return parseDataList(response, SubGrupoDTO.class);
-        }
     }
 
     @Override
     public SubGrupoDTO getPreferencial(Integer sucursalId, Integer grupoId) throws IOException {
         logger.info("Obteniendo subgrupo preferencial - grupo: " + grupoId + ", sucursal: " + sucursalId);
 
-        String url = baseUrl + "/listarsubgruposxgrupoandsucursal.app?idSucursal=" + sucursalId + "&idGrupo=" + grupoId;
+        return selectPreferencial(grupoId, getByGrupo(sucursalId, grupoId));
+    }
 
-        Request request = new Request.Builder()
-                .url(url)
-                .get()
-                .build();
+    @Override
+    public CompletableFuture<SubGrupoDTO> getPreferencialAsync(Integer sucursalId, Integer grupoId) {
+        logger.info("Obteniendo subgrupo preferencial - grupo: " + grupoId + ", sucursal: " + sucursalId);
 
-        try (Response response = client.newCall(request).execute()) {
-            List<SubGrupoDTO> subgrupos = parseDataList(response, SubGrupoDTO.class);
+        return getByGrupoAsync(sucursalId, grupoId)
+                .thenApply(subgrupos -> selectPreferencial(grupoId, subgrupos));
+    }
 
-            if (subgrupos == null || subgrupos.isEmpty()) {
-                logger.warning("No se encontraron subgrupos para el grupo " + grupoId);
-                return null;
-            }
+    private SubGrupoDTO selectPreferencial(Integer grupoId, List<SubGrupoDTO> subgrupos) {
+        if (subgrupos == null || subgrupos.isEmpty()) {
+            logger.warning("No se encontraron subgrupos para el grupo " + grupoId);
+            return null;
+        }
 
-            for (SubGrupoDTO sg : subgrupos) {
-                if (sg.getAgrupador() != null && sg.getAgrupador() == 2) {
-                    logger.info(String.format("Subgrupo preferencial encontrado: %s (ID: %d, Prefijo: %s, Agrupador: %d)",
-                            sg.getVNombreSubGrupo(),
-                            sg.getISubGrupo(),
-                            sg.getVPrefijo(),
-                            sg.getAgrupador()));
-                    return sg;
-                }
+        for (SubGrupoDTO sg : subgrupos) {
+            if (sg.getAgrupador() != null && sg.getAgrupador() == 2) {
+                logger.info(String.format("Subgrupo preferencial encontrado: %s (ID: %d, Prefijo: %s, Agrupador: %d)",
+                        sg.getVNombreSubGrupo(),
+                        sg.getISubGrupo(),
+                        sg.getVPrefijo(),
+                        sg.getAgrupador()));
+                return sg;
             }
+        }
 
-            SubGrupoDTO primero = subgrupos.get(0);
-            logger.warning(String.format("No se encontró subgrupo con agrupador=2, usando primero disponible: %s (ID: %d)",
-                    primero.getVNombreSubGrupo(), primero.getISubGrupo()));
-            return primero;
+        SubGrupoDTO primero = subgrupos.get(0);
+        logger.warning(String.format("No se encontró subgrupo con agrupador=2, usando primero disponible: %s (ID: %d)",
+                primero.getVNombreSubGrupo(), primero.getISubGrupo()));
+        return primero;
+    }
+
+    @Override
+    public void prefetch(Integer sucursalId, List<Integer> grupoIds) {
+        if (sucursalId == null || grupoIds == null || grupoIds.isEmpty()) {
+            return;
+        }
+
+        logger.fine(String.format("Precargando subgrupos de %d grupo(s)", grupoIds.size()));
+
+        for (Integer grupoId : grupoIds) {
+            prefetchExecutor.submit(() -> {
+                try {
+                    RequestPriority.callInBackground(() -> getByGrupo(sucursalId, grupoId));
+                } catch (Exception e) {
+                    logger.fine(String.format("No se pudo precargar subgrupos del grupo %d: %s",
+                            grupoId, e.getMessage()));
+                }
+            });
         }
     }
 }
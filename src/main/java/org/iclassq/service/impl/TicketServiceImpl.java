@@ -1,23 +1,343 @@
 package org.iclassq.service.impl;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
 import okhttp3.*;
+import org.iclassq.http.CircuitOpenException;
+import org.iclassq.http.Futures;
+import org.iclassq.http.HttpTransport;
+import org.iclassq.http.LatencyWindow;
+import org.iclassq.http.RequestPriority;
+import org.iclassq.model.domain.SessionData;
+import org.iclassq.model.dto.response.ApiResponse;
 import org.iclassq.model.dto.request.TicketRequestDTO;
+import org.iclassq.model.dto.response.SecuenciaReservadaDTO;
 import org.iclassq.model.dto.response.TicketResponseDTO;
 import org.iclassq.service.TicketService;
+import org.iclassq.service.ticket.PendingTicket;
+import org.iclassq.service.ticket.ProvisionalTicketIssuer;
+import org.iclassq.service.ticket.TicketLogRecord;
+import org.iclassq.service.ticket.TicketRejectedException;
+import org.iclassq.service.ticket.TicketRequestJournal;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
 
 public class TicketServiceImpl extends BaseService implements TicketService {
+    private static final Logger logger = Logger.getLogger(TicketServiceImpl.class.getName());
 
-    public TicketServiceImpl(String baseUrl, CookieJar cookieJar) {
-        super(baseUrl, cookieJar);
+    private static final String TICKET_ENDPOINT = "/generarticketatencion.app";
+    private static final String RESERVE_ENDPOINT = "/reservarsecuenciaticket.app";
+    private static final long RECONCILE_INTERVAL_SECONDS = 30;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long[] RETRY_BACKOFF_MS = {250, 1000};
+    private static final long DEFAULT_HEDGE_DELAY_MS = 3000;
+    private static final long MIN_HEDGE_DELAY_MS = 1000;
+    private static final int MIN_SAMPLES_FOR_HEDGE = 20;
+    private static final String IDEMPOTENCY_HEADER = "Idempotency-Key";
+
+    private final TicketRequestJournal journal;
+    private final boolean idempotentRetries;
+    private volatile boolean dedupConfirmed = false;
+    private volatile boolean reservationUnsupported = false;
+    private final ProvisionalTicketIssuer provisionalIssuer;
+    private final ExecutorService journalExecutor;
+    private final ScheduledExecutorService retryScheduler;
+    private final ScheduledExecutorService reconcileScheduler;
+
+    public TicketServiceImpl(String baseUrl, HttpTransport transport, TicketRequestJournal journal,
+                             boolean idempotentRetries, ProvisionalTicketIssuer provisionalIssuer) {
+        super(baseUrl, transport);
+        this.journal = journal;
+        this.idempotentRetries = idempotentRetries;
+        this.provisionalIssuer = provisionalIssuer;
+        this.journalExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "TicketJournalThread");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "TicketRetryThread");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.reconcileScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "TicketReconcileThread");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        reconcileScheduler.scheduleWithFixedDelay(this::reconcile,
+                RECONCILE_INTERVAL_SECONDS, RECONCILE_INTERVAL_SECONDS, TimeUnit.SECONDS);
     }
 
     @Override
     public TicketResponseDTO generateTicket(TicketRequestDTO dto) throws IOException {
-        String url = baseUrl + "/generarticketatencion.app";
+        try {
+            return generateTicketAsync(dto).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Generación de ticket interrumpida");
+        } catch (ExecutionException e) {
+            Throwable cause = Futures.unwrap(e);
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Error al generar el ticket: " + cause.getMessage(), cause);
+        }
+    }
+
+    @Override
+    public CompletableFuture<TicketResponseDTO> generateTicketAsync(TicketRequestDTO dto) {
+        if (dto.getClientRequestId() == null) {
+            dto.setClientRequestId(UUID.randomUUID().toString());
+        }
+
+        return journal.submit(dto, this::issue);
+    }
+
+    private CompletableFuture<TicketResponseDTO> issue(PendingTicket pending) {
+        TicketRequestDTO request = pending.getRequest();
+        String clientRequestId = pending.getClientRequestId();
+
+        CompletableFuture<TicketResponseDTO> online = new CompletableFuture<>();
+        journalExecutor.execute(() -> {
+            journalQuietly(() -> provisionalIssuer.recordRequested(request));
+            attempt(pending, online);
+        });
+
+        CompletableFuture<TicketResponseDTO> result = new CompletableFuture<>();
+        online.whenComplete((ticket, error) -> {
+            if (error == null) {
+                journalQuietly(() -> provisionalIssuer.recordIssued(clientRequestId, ticket));
+                result.complete(ticket);
+                return;
+            }
+
+            Throwable cause = Futures.unwrap(error);
+
+            if (!(cause instanceof TicketRejectedException) && provisionalIssuer.covers(request.getPrefijo())) {
+                try {
+                    result.complete(provisionalIssuer.issue(request));
+                    return;
+                } catch (IOException e) {
+                    logger.warning("No se pudo emitir ticket provisional: " + e.getMessage());
+                }
+            }
+
+            journalQuietly(() -> provisionalIssuer.recordFailed(clientRequestId));
+            result.completeExceptionally(cause);
+        });
+
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface JournalAction {
+        void run() throws IOException;
+    }
+
+    private static void journalQuietly(JournalAction action) {
+        try {
+            action.run();
+        } catch (IOException e) {
+            logger.warning("No se pudo escribir en bitácora de tickets: " + e.getMessage());
+        }
+    }
+
+    void reconcile() {
+        try {
+            RequestPriority.callInBackground(() -> {
+                reconcileInDoubt();
+                reconcileProvisional();
+                reserveBlocks();
+                return null;
+            });
+        } catch (IOException e) {
+            logger.fine("Conciliación de tickets pospuesta: " + e.getMessage());
+        } catch (Exception e) {
+            logger.warning("Error en conciliación de tickets: " + e.getMessage());
+        }
+    }
+
+    private void reconcileInDoubt() throws IOException {
+        List<TicketLogRecord> inDoubt = provisionalIssuer.getInDoubt();
+        if (inDoubt.isEmpty() || !isRetrySafe()) {
+            return;
+        }
+
+        for (TicketLogRecord record : inDoubt) {
+            Request request = buildTicketRequest(record.getRequest(), null);
+
+            try (Response response = newCall(request).execute()) {
+                TicketResponseDTO ticket = parseTicket(response);
+                provisionalIssuer.recordIssued(record.getClientRequestId(), ticket);
+                logger.info(String.format("Solicitud en duda %s conciliada con backend: %s",
+                        record.getClientRequestId(), ticket.getCodigo()));
+            } catch (TicketRejectedException e) {
+                logger.warning(String.format("Backend rechazó solicitud en duda %s: %s",
+                        record.getClientRequestId(), e.getMessage()));
+                provisionalIssuer.recordFailed(record.getClientRequestId());
+            }
+        }
+    }
+
+    private void reconcileProvisional() throws IOException {
+        for (TicketLogRecord record : provisionalIssuer.getUnreconciled()) {
+            Request request = buildTicketRequest(record.getRequest(), record.getSecuencia());
+
+            try (Response response = newCall(request).execute()) {
+                TicketResponseDTO ticket = parseTicket(response);
+                if (provisionalIssuer.markReconciled(record.getClientRequestId(), ticket)) {
+                    logger.info(String.format("Ticket provisional %s conciliado con backend", record.getCodigo()));
+                }
+            } catch (TicketRejectedException e) {
+                logger.severe(String.format("Backend rechazó ticket provisional %s: %s",
+                        record.getCodigo(), e.getMessage()));
+                provisionalIssuer.markReconciled(record.getClientRequestId(), null);
+            }
+        }
+    }
+
+    private void reserveBlocks() throws IOException {
+        Integer sucursalId = SessionData.getInstance().getSucursalId();
+        if (sucursalId == null || reservationUnsupported) {
+            return;
+        }
+
+        for (String prefijo : provisionalIssuer.getPrefijosNeedingBlocks()) {
+            RequestBody form = new FormBody.Builder()
+                    .add("idSucursal", String.valueOf(sucursalId))
+                    .add("prefijo", prefijo)
+                    .add("cantidad", String.valueOf(provisionalIssuer.getBlockSize()))
+                    .build();
+
+            Request request = new Request.Builder()
+                    .url(baseUrl + RESERVE_ENDPOINT)
+                    .post(form)
+                    .build();
+
+            try (Response response = newCall(request).execute()) {
+                if (response.code() == 404) {
+                    reservationUnsupported = true;
+                    logger.warning("Backend sin soporte de reserva de números, emisión provisional deshabilitada en esta sesión");
+                    return;
+                }
+
+                SecuenciaReservadaDTO reserva = parseData(response, SecuenciaReservadaDTO.class);
+                if (reserva != null && reserva.getInicio() != null && reserva.getFin() != null) {
+                    provisionalIssuer.grant(reserva);
+                }
+            }
+        }
+    }
+
+    private void attempt(PendingTicket pending, CompletableFuture<TicketResponseDTO> result) {
+        int attempt = pending.nextAttempt();
+        Request request = buildTicketRequest(pending.getRequest(), null);
+        boolean retriesAllowed = isRetrySafe();
+
+        CompletableFuture<TicketResponseDTO> call = retriesAllowed
+                ? hedged(request)
+                : enqueue(request, this::parseTicket);
+
+        call.whenComplete((ticket, error) -> {
+            if (error == null) {
+                result.complete(ticket);
+                return;
+            }
+
+            Throwable cause = Futures.unwrap(error);
+
+            if (retriesAllowed && attempt < MAX_ATTEMPTS && isRetryable(cause)) {
+                long backoff = RETRY_BACKOFF_MS[Math.min(attempt, RETRY_BACKOFF_MS.length) - 1];
+                logger.warning(String.format("Intento %d de ticket %s falló (%s), reintentando en %d ms",
+                        attempt, pending.getClientRequestId(), cause.getMessage(), backoff));
+
+                retryScheduler.schedule(() -> attempt(pending, result), backoff, TimeUnit.MILLISECONDS);
+                return;
+            }
+
+            result.completeExceptionally(cause);
+        });
+    }
+
+    private boolean isRetrySafe() {
+        return idempotentRetries && dedupConfirmed;
+    }
+
+    private void confirmDedup(Response response) {
+        String sent = response.request().header(IDEMPOTENCY_HEADER);
+        if (!dedupConfirmed && sent != null && sent.equals(response.header(IDEMPOTENCY_HEADER))) {
+            dedupConfirmed = true;
+            if (idempotentRetries) {
+                logger.info("Backend confirma deduplicación por Idempotency-Key, reintentos de ticket habilitados");
+            }
+        }
+    }
+
+    private CompletableFuture<TicketResponseDTO> hedged(Request request) {
+        CompletableFuture<TicketResponseDTO> result = new CompletableFuture<>();
+        CompletableFuture<TicketResponseDTO> primary = enqueue(request, this::parseTicket);
+        AtomicInteger outstanding = new AtomicInteger(1);
+
+        listen(primary, result, outstanding);
+
+        retryScheduler.schedule(() -> {
+            if (result.isDone()) {
+                return;
+            }
+
+            logger.info("Ticket sin respuesta tras " + hedgeDelayMs() + " ms, enviando solicitud de respaldo");
+            outstanding.incrementAndGet();
+            CompletableFuture<TicketResponseDTO> hedge = enqueue(request, this::parseTicket);
+            listen(hedge, result, outstanding);
+            result.whenComplete((ticket, error) -> hedge.cancel(true));
+        }, hedgeDelayMs(), TimeUnit.MILLISECONDS);
+
+        result.whenComplete((ticket, error) -> primary.cancel(true));
+        return result;
+    }
+
+    private static void listen(CompletableFuture<TicketResponseDTO> call, CompletableFuture<TicketResponseDTO> result,
+                               AtomicInteger outstanding) {
+        call.whenComplete((ticket, error) -> {
+            if (error == null) {
+                result.complete(ticket);
+            } else if (outstanding.decrementAndGet() == 0 || Futures.unwrap(error) instanceof TicketRejectedException) {
+                result.completeExceptionally(Futures.unwrap(error));
+            }
+        });
+    }
+
+    private long hedgeDelayMs() {
+        LatencyWindow latency = transport.getEndpointPolicy(HttpUrl.get(baseUrl + TICKET_ENDPOINT)).getLatencyWindow();
+        if (latency.getCount() < MIN_SAMPLES_FOR_HEDGE) {
+            return DEFAULT_HEDGE_DELAY_MS;
+        }
+        return Math.max(MIN_HEDGE_DELAY_MS, latency.percentile(0.95));
+    }
+
+    private static boolean isRetryable(Throwable error) {
+        if (error instanceof TicketRejectedException
+                || error instanceof CircuitOpenException
+                || error instanceof CancellationException) {
+            return false;
+        }
+        return error instanceof IOException;
+    }
+
+    private Request buildTicketRequest(TicketRequestDTO dto, Integer secuenciaReservada) {
+        String url = baseUrl + TICKET_ENDPOINT;
 
         FormBody.Builder body = new FormBody.Builder();
         body.add("idSubgrupo", String.valueOf(dto.getIdSubgrupo()));
@@ -27,32 +347,40 @@ public class TicketServiceImpl extends BaseService implements TicketService {
         body.add("numDoc", dto.getNumDoc());
         body.add("tipoDoc", String.valueOf(dto.getTipoDoc()));
         body.add("validaDoc", String.valueOf(dto.getValidaDoc()));
+        body.add("clientRequestId", dto.getClientRequestId());
+        if (secuenciaReservada != null) {
+            body.add("secuenciaReservada", String.valueOf(secuenciaReservada));
+        }
 
         RequestBody request = body.build();
 
-        Request http = new Request.Builder()
+        return new Request.Builder()
                 .url(url)
+                .header(IDEMPOTENCY_HEADER, dto.getClientRequestId())
                 .post(request)
                 .build();
+    }
 
-        try (Response response = client.newCall(http).execute()) {
-            if (!response.isSuccessful()) {
-                throw new IOException("Error al generar el ticket: " + response);
-            }
+    private TicketResponseDTO parseTicket(Response response) throws IOException {
+        if (response.code() >= 400 && response.code() < 500) {
+            throw new TicketRejectedException("Error al generar el ticket: " + response);
+        }
 
-            String responseBody = response.body().string();
-            JsonObject jsonResponse = gson.fromJson(responseBody, JsonObject.class);
-            boolean success = jsonResponse.has("success") && jsonResponse.get("success").getAsBoolean();
+        if (!response.isSuccessful()) {
+            throw new IOException("Error al generar el ticket: " + response);
+        }
 
-            if (!success) {
-                String errorMessage = jsonResponse.get("message").getAsString();
-                throw new IOException(errorMessage);
-            }
+        confirmDedup(response);
 
-            JsonObject data = jsonResponse.getAsJsonObject("data");
-            TicketResponseDTO ticket = gson.fromJson(data, TicketResponseDTO.class);
+        ApiResponse<TicketResponseDTO> apiResponse = parseApiResponse(response, TicketResponseDTO.class);
+        boolean success = Boolean.TRUE.equals(apiResponse.getSuccess());
 
-            return ticket;
+        if (!success) {
+            throw new TicketRejectedException(apiResponse.getMessage());
         }
+
+        TicketResponseDTO ticket = apiResponse.getData();
+
+        return ticket;
     }
 }
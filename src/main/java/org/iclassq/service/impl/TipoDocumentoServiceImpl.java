@@ -1,33 +1,53 @@
 package org.iclassq.service.impl;
 
-import com.google.gson.Gson;
-import okhttp3.CookieJar;
-import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.Response;
+import org.iclassq.http.HttpTransport;
 import org.iclassq.model.dto.response.TipoDocumentoDTO;
 import org.iclassq.service.TipoDocumentoService;
+import org.iclassq.service.cache.CatalogCache;
+import org.iclassq.service.cache.CatalogType;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class TipoDocumentoServiceImpl extends BaseService implements TipoDocumentoService {
+    private final CatalogCache catalogCache;
 
-    public TipoDocumentoServiceImpl(String baseUrl, CookieJar cookieJar) {
-        super(baseUrl, cookieJar);
+    public TipoDocumentoServiceImpl(String baseUrl, HttpTransport transport, CatalogCache catalogCache) {
+        super(baseUrl, transport);
+        this.catalogCache = catalogCache;
     }
 
     @Override
     public List<TipoDocumentoDTO> getAll() throws IOException {
+        return catalogCache.get(
+                CatalogType.TIPOS_DOCUMENTO,
+                CatalogType.TIPOS_DOCUMENTO.key(),
+                this::fetchAll
+        );
+    }
+
+    @Override
+    public CompletableFuture<List<TipoDocumentoDTO>> getAllAsync() {
+        return catalogCache.getAsync(
+                CatalogType.TIPOS_DOCUMENTO,
+                CatalogType.TIPOS_DOCUMENTO.key(),
+                () -> enqueueShared(buildAllRequest(),
+                        response -> parseDataList(response, TipoDocumentoDTO.class))
+        );
+    }
+
+    private List<TipoDocumentoDTO> fetchAll() throws IOException {
+        return executeShared(buildAllRequest(), response -> parseDataList(response, TipoDocumentoDTO.class));
+    }
+
+    private Request buildAllRequest() {
         String url = baseUrl + "/listarTipoDocumentoXGeneraTicket.app";
 
-        Request request = new Request.Builder()
+        return new Request.Builder()
                 .url(url)
                 .get()
                 .build();
-
-        try (Response response = client.newCall(request).execute()) {
-            return parseDataList(response, TipoDocumentoDTO.class);
-        }
     }
 }
@@ -1,8 +1,7 @@
 package org.iclassq.service.impl;
 
-import okhttp3.CookieJar;
 import okhttp3.Request;
-import okhttp3.Response;
+import org.iclassq.http.HttpTransport;
 import org.iclassq.model.dto.response.UsuarioRolDTO;
 import org.iclassq.service.UsuarioService;
 
@@ -13,8 +12,8 @@ import java.util.logging.Logger;
 public class UsuarioServiceImpl extends BaseService implements UsuarioService {
     private final Logger logger = Logger.getLogger(UsuarioServiceImpl.class.getName());
 
-    public UsuarioServiceImpl(String baseUrl, CookieJar cookieJar) {
-        super(baseUrl, cookieJar);
+    public UsuarioServiceImpl(String baseUrl, HttpTransport transport) {
+        super(baseUrl, transport);
     }
 
     @Override
@@ -26,7 +25,7 @@ public class UsuarioServiceImpl extends BaseService implements UsuarioService {
                 .get()
                 .build();
 
-        try (Response response = client.newCall(request).execute()) {
+        return executeShared(request, response -> {
             List<UsuarioRolDTO> roles = parseDataList(response, UsuarioRolDTO.class);
 
             if (roles == null || roles.isEmpty()) {
@@ -34,6 +33,6 @@ public class UsuarioServiceImpl extends BaseService implements UsuarioService {
             }
 
             return roles;
-        }
+        });
     }
 }
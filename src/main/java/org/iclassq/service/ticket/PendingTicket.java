@@ -0,0 +1,50 @@
+package org.iclassq.service.ticket;
+
+import lombok.Getter;
+import org.iclassq.model.dto.request.TicketRequestDTO;
+import org.iclassq.model.dto.response.TicketResponseDTO;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Getter
+public class PendingTicket {
+    public enum State {
+        PENDING,
+        ISSUED,
+        FAILED
+    }
+
+    private final String clientRequestId;
+    private final TicketRequestDTO request;
+    private final long createdAt;
+    private final AtomicInteger attempts = new AtomicInteger();
+    private volatile State state = State.PENDING;
+    private volatile TicketResponseDTO ticket;
+    private volatile CompletableFuture<TicketResponseDTO> inFlight;
+
+    public PendingTicket(TicketRequestDTO request) {
+        this.clientRequestId = request.getClientRequestId();
+        this.request = request;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    public int nextAttempt() {
+        return attempts.incrementAndGet();
+    }
+
+    void setInFlight(CompletableFuture<TicketResponseDTO> inFlight) {
+        this.inFlight = inFlight;
+    }
+
+    void markIssued(TicketResponseDTO ticket) {
+        this.ticket = ticket;
+        this.state = State.ISSUED;
+        this.inFlight = null;
+    }
+
+    void markFailed() {
+        this.state = State.FAILED;
+        this.inFlight = null;
+    }
+}
@@ -0,0 +1,285 @@
+package org.iclassq.service.ticket;
+
+import org.iclassq.model.dto.request.TicketRequestDTO;
+import org.iclassq.model.dto.response.SecuenciaReservadaDTO;
+import org.iclassq.model.dto.response.TicketResponseDTO;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+public class ProvisionalTicketIssuer {
+    private static final Logger logger = Logger.getLogger(ProvisionalTicketIssuer.class.getName());
+    private static final int COMPACT_THRESHOLD = 500;
+    private static final long IN_DOUBT_TTL_MS = TimeUnit.HOURS.toMillis(24);
+
+    private final TicketLog log;
+    private final Set<String> prefijos;
+    private final int blockSize;
+
+    private final Map<String, Deque<SequenceBlock>> blocks = new HashMap<>();
+    private final Map<String, TicketLogRecord> unreconciled = new LinkedHashMap<>();
+    private final Map<String, TicketLogRecord> inDoubt = new LinkedHashMap<>();
+    private final Set<String> retired = new HashSet<>();
+
+    public ProvisionalTicketIssuer(TicketLog log, Collection<String> prefijos, int blockSize) {
+        this.log = log;
+        this.prefijos = new HashSet<>(prefijos);
+        this.blockSize = blockSize;
+    }
+
+    public synchronized void restore() {
+        Map<String, TicketLogRecord> requested = new LinkedHashMap<>();
+        List<TicketLogRecord> provisional = new ArrayList<>();
+
+        for (TicketLogRecord record : log.replay()) {
+            switch (record.getType()) {
+                case BLOCK:
+                    blocks.computeIfAbsent(record.getPrefijo(), key -> new ArrayDeque<>())
+                            .add(new SequenceBlock(record.getPrefijo(), record.getInicio(), record.getFin()));
+                    break;
+                case REQUESTED:
+                    requested.put(record.getClientRequestId(), record);
+                    break;
+                case ISSUED:
+                case FAILED:
+                    requested.remove(record.getClientRequestId());
+                    break;
+                case PROVISIONAL:
+                    requested.remove(record.getClientRequestId());
+                    provisional.add(record);
+                    if (record.getRequest() == null) {
+                        logger.severe("Ticket provisional " + record.getCodigo() + " sin datos legibles, requiere conciliación manual");
+                        break;
+                    }
+                    unreconciled.put(record.getClientRequestId(), record);
+                    break;
+                case RECONCILED:
+                    unreconciled.remove(record.getClientRequestId());
+                    break;
+                case RETIRED:
+                    retired.add(record.getPrefijo());
+                    break;
+            }
+        }
+
+        retired.forEach(blocks::remove);
+
+        for (TicketLogRecord record : provisional) {
+            Integer sequence = record.getSecuencia();
+            Deque<SequenceBlock> prefijoBlocks = blocks.get(record.getPrefijo());
+            if (sequence != null && prefijoBlocks != null) {
+                prefijoBlocks.forEach(block -> block.markUsed(sequence));
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        for (TicketLogRecord record : requested.values()) {
+            if (record.getRequest() == null || now - record.getTimestamp() > IN_DOUBT_TTL_MS) {
+                logger.severe("Solicitud de ticket sin resultado no conciliable, requiere revisión manual: "
+                        + record.getClientRequestId());
+                continue;
+            }
+
+            logger.warning("Solicitud de ticket sin resultado antes del cierre, pendiente de conciliación: "
+                    + record.getClientRequestId());
+            inDoubt.put(record.getClientRequestId(), record);
+        }
+
+        for (String prefijo : retired) {
+            logger.warning("Emisión provisional deshabilitada para " + prefijo + ": el backend no respetó un número reservado");
+        }
+
+        logger.info(String.format("Bitácora de tickets restaurada: %d provisional(es) por conciliar, %d solicitud(es) en duda, %d número(s) reservados",
+                unreconciled.size(), inDoubt.size(), totalRemaining()));
+
+        compact();
+    }
+
+    public synchronized boolean covers(String prefijo) {
+        return prefijo != null && prefijos.contains(prefijo) && !retired.contains(prefijo);
+    }
+
+    public Set<String> getPrefijos() {
+        return Collections.unmodifiableSet(prefijos);
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public synchronized int getRemaining(String prefijo) {
+        int remaining = 0;
+        for (SequenceBlock block : blocks.getOrDefault(prefijo, new ArrayDeque<>())) {
+            remaining += block.getRemaining();
+        }
+        return remaining;
+    }
+
+    public synchronized List<String> getPrefijosNeedingBlocks() {
+        List<String> needing = new ArrayList<>();
+        for (String prefijo : prefijos) {
+            if (!retired.contains(prefijo) && getRemaining(prefijo) < blockSize / 2 + 1) {
+                needing.add(prefijo);
+            }
+        }
+        return needing;
+    }
+
+    public void recordRequested(TicketRequestDTO request) throws IOException {
+        log.append(TicketLogRecord.requested(request));
+    }
+
+    public void recordIssued(String clientRequestId, TicketResponseDTO ticket) throws IOException {
+        log.append(TicketLogRecord.issued(clientRequestId, ticket));
+        resolveInDoubt(clientRequestId);
+    }
+
+    public void recordFailed(String clientRequestId) throws IOException {
+        log.append(TicketLogRecord.failed(clientRequestId));
+        resolveInDoubt(clientRequestId);
+    }
+
+    private synchronized void resolveInDoubt(String clientRequestId) {
+        inDoubt.remove(clientRequestId);
+    }
+
+    public synchronized List<TicketLogRecord> getInDoubt() {
+        return new ArrayList<>(inDoubt.values());
+    }
+
+    public synchronized void grant(SecuenciaReservadaDTO reserva) throws IOException {
+        if (retired.contains(reserva.getPrefijo())) {
+            logger.warning("Bloque de números ignorado para " + reserva.getPrefijo() + ": emisión provisional deshabilitada");
+            return;
+        }
+
+        log.append(TicketLogRecord.block(reserva.getPrefijo(), reserva.getInicio(), reserva.getFin()));
+        blocks.computeIfAbsent(reserva.getPrefijo(), key -> new ArrayDeque<>())
+                .add(new SequenceBlock(reserva.getPrefijo(), reserva.getInicio(), reserva.getFin()));
+
+        logger.info(String.format("Bloque de números reservado para %s: %d-%d",
+                reserva.getPrefijo(), reserva.getInicio(), reserva.getFin()));
+    }
+
+    public synchronized TicketResponseDTO issue(TicketRequestDTO request) throws IOException {
+        String prefijo = request.getPrefijo();
+        SequenceBlock block = nextBlock(prefijo);
+
+        if (block == null) {
+            throw new IOException("Sin números reservados para emisión provisional de " + prefijo);
+        }
+
+        int sequence = block.take();
+
+        TicketResponseDTO ticket = new TicketResponseDTO();
+        ticket.setCodigo(String.format("%s%03d", prefijo, sequence));
+        ticket.setHoraEmision(LocalTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss")));
+        ticket.setIdSubgrupo(request.getIdSubgrupo());
+        ticket.setNumeroIdentificacion(request.getNumDoc());
+        ticket.setNombreSubgrupo(request.getNombre());
+        ticket.setPrefijo(prefijo);
+        ticket.setTipoIdentificacion(String.valueOf(request.getTipoDoc()));
+        ticket.setTicketSecuencia(sequence);
+        ticket.setFechaAtencion(LocalDate.now().toString());
+        ticket.setProvisional(true);
+
+        TicketLogRecord record = TicketLogRecord.provisional(request, ticket);
+        log.append(record);
+        unreconciled.put(record.getClientRequestId(), record);
+
+        logger.warning(String.format("Ticket provisional emitido sin backend: %s (solicitud %s)",
+                ticket.getCodigo(), request.getClientRequestId()));
+
+        return ticket;
+    }
+
+    private SequenceBlock nextBlock(String prefijo) {
+        Deque<SequenceBlock> prefijoBlocks = blocks.get(prefijo);
+        if (prefijoBlocks == null) {
+            return null;
+        }
+
+        while (!prefijoBlocks.isEmpty() && prefijoBlocks.peekFirst().getRemaining() == 0) {
+            prefijoBlocks.pollFirst();
+        }
+
+        return prefijoBlocks.peekFirst();
+    }
+
+    public synchronized List<TicketLogRecord> getUnreconciled() {
+        return new ArrayList<>(unreconciled.values());
+    }
+
+    public synchronized boolean markReconciled(String clientRequestId, TicketResponseDTO ticket) throws IOException {
+        TicketLogRecord provisional = unreconciled.remove(clientRequestId);
+        log.append(TicketLogRecord.reconciled(clientRequestId, ticket));
+
+        boolean matched = provisional == null || ticket == null
+                || Objects.equals(provisional.getCodigo(), ticket.getCodigo());
+
+        if (!matched) {
+            logger.severe(String.format("Ticket provisional %s conciliado con número distinto %s (solicitud %s): "
+                            + "el número provisional puede estar duplicado en la cola",
+                    provisional.getCodigo(), ticket.getCodigo(), clientRequestId));
+            retire(provisional.getPrefijo());
+        }
+
+        if (unreconciled.isEmpty() && log.getRecordCount() > COMPACT_THRESHOLD) {
+            compact();
+        }
+
+        return matched;
+    }
+
+    private void retire(String prefijo) throws IOException {
+        if (prefijo == null || !retired.add(prefijo)) {
+            return;
+        }
+
+        log.append(TicketLogRecord.retired(prefijo));
+        Deque<SequenceBlock> discarded = blocks.remove(prefijo);
+
+        logger.severe(String.format("Emisión provisional deshabilitada para %s: el backend no respeta números reservados (%d número(s) descartados)",
+                prefijo, discarded == null ? 0 : discarded.stream().mapToInt(SequenceBlock::getRemaining).sum()));
+    }
+
+    private void compact() {
+        List<TicketLogRecord> live = new ArrayList<>();
+
+        for (String prefijo : retired) {
+            live.add(TicketLogRecord.retired(prefijo));
+        }
+        blocks.forEach((prefijo, prefijoBlocks) -> {
+            for (SequenceBlock block : prefijoBlocks) {
+                if (block.getRemaining() > 0) {
+                    live.add(TicketLogRecord.block(prefijo, block.getNext(), block.getFin()));
+                }
+            }
+        });
+        live.addAll(inDoubt.values());
+        live.addAll(unreconciled.values());
+
+        try {
+            log.compact(live);
+        } catch (IOException e) {
+            logger.warning("No se pudo compactar bitácora de tickets: " + e.getMessage());
+        }
+    }
+
+    private int totalRemaining() {
+        int total = 0;
+        for (String prefijo : blocks.keySet()) {
+            total += getRemaining(prefijo);
+        }
+        return total;
+    }
+
+    public void close() {
+        log.close();
+    }
+}
@@ -0,0 +1,36 @@
+package org.iclassq.service.ticket;
+
+import lombok.Getter;
+
+@Getter
+public class SequenceBlock {
+    private final String prefijo;
+    private final int inicio;
+    private final int fin;
+    private int next;
+
+    public SequenceBlock(String prefijo, int inicio, int fin) {
+        this.prefijo = prefijo;
+        this.inicio = inicio;
+        this.fin = fin;
+        this.next = inicio;
+    }
+
+    public int getRemaining() {
+        return Math.max(0, fin - next + 1);
+    }
+
+    public boolean contains(int sequence) {
+        return sequence >= inicio && sequence <= fin;
+    }
+
+    int take() {
+        return next++;
+    }
+
+    void markUsed(int sequence) {
+        if (contains(sequence) && sequence >= next) {
+            next = sequence + 1;
+        }
+    }
+}
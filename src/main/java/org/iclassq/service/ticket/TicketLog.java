@@ -0,0 +1,203 @@
+package org.iclassq.service.ticket;
+
+import com.google.gson.Gson;
+import org.iclassq.http.json.JsonCodec;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+public class TicketLog {
+    private static final Logger logger = Logger.getLogger(TicketLog.class.getName());
+    private static final String LOG_FILE = "tickets-v1.jsonl";
+    private static final String KEY_FILE = "tickets.key";
+
+    private final Path file;
+    private final TicketLogCipher cipher;
+    private final Gson gson;
+    private final Object writeLock = new Object();
+    private final Object syncLock = new Object();
+
+    private FileChannel channel;
+    private long written = 0;
+    private long synced = 0;
+    private long recordCount = 0;
+
+    public TicketLog(Path file, TicketLogCipher cipher) {
+        this.file = file;
+        this.cipher = cipher;
+        this.gson = JsonCodec.getInstance().getGson();
+    }
+
+    public static TicketLog inUserHome() {
+        String userHome = System.getProperty("user.home");
+        Path directory = Paths.get(userHome, ".iclassq", "tickets");
+        return new TicketLog(directory.resolve(LOG_FILE), new TicketLogCipher(directory.resolve(KEY_FILE)));
+    }
+
+    public List<TicketLogRecord> replay() {
+        List<TicketLogRecord> records = new ArrayList<>();
+
+        if (!Files.exists(file)) {
+            return records;
+        }
+
+        int discarded = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    TicketLogRecord record = gson.fromJson(line, TicketLogRecord.class);
+                    if (record != null && record.getType() != null) {
+                        openQuietly(record);
+                        records.add(record);
+                    } else {
+                        discarded++;
+                    }
+                } catch (RuntimeException e) {
+                    discarded++;
+                }
+            }
+        } catch (IOException e) {
+            logger.warning("No se pudo leer bitácora de tickets: " + e.getMessage());
+        }
+
+        if (discarded > 0) {
+            logger.warning(String.format("Bitácora de tickets: %d registro(s) incompletos descartados", discarded));
+        }
+
+        synchronized (writeLock) {
+            recordCount = records.size();
+        }
+
+        return records;
+    }
+
+    public void append(TicketLogRecord record) throws IOException {
+        byte[] line = encode(record);
+        long sequence;
+
+        synchronized (writeLock) {
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            FileChannel out = openChannel();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            sequence = ++written;
+            recordCount++;
+        }
+
+        sync(sequence);
+    }
+
+    private void sync(long sequence) throws IOException {
+        synchronized (syncLock) {
+            if (synced >= sequence) {
+                return;
+            }
+
+            long target;
+            FileChannel out;
+            synchronized (writeLock) {
+                target = written;
+                out = openChannel();
+            }
+
+            out.force(false);
+            synced = target;
+        }
+    }
+
+    public long getRecordCount() {
+        synchronized (writeLock) {
+            return recordCount;
+        }
+    }
+
+    public void compact(List<TicketLogRecord> live) throws IOException {
+        synchronized (syncLock) {
+            synchronized (writeLock) {
+                closeChannel();
+
+                Files.createDirectories(file.getParent());
+                Path tempFile = Files.createTempFile(file.getParent(), LOG_FILE, ".tmp");
+
+                try {
+                    try (FileChannel out = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                        for (TicketLogRecord record : live) {
+                            ByteBuffer buffer = ByteBuffer.wrap(encode(record));
+                            while (buffer.hasRemaining()) {
+                                out.write(buffer);
+                            }
+                        }
+                        out.force(true);
+                    }
+
+                    moveAtomically(tempFile, file);
+                    recordCount = live.size();
+                    synced = written;
+
+                    logger.fine(String.format("Bitácora de tickets compactada: %d registro(s) vigentes", live.size()));
+                } finally {
+                    Files.deleteIfExists(tempFile);
+                }
+            }
+        }
+    }
+
+    public void close() {
+        synchronized (writeLock) {
+            closeChannel();
+        }
+    }
+
+    private void openQuietly(TicketLogRecord record) {
+        try {
+            record.open(gson, cipher);
+        } catch (IOException | RuntimeException e) {
+            logger.warning(String.format("Datos cifrados ilegibles en registro %s de bitácora de tickets: %s",
+                    record.getClientRequestId(), e.getMessage()));
+        }
+    }
+
+    private byte[] encode(TicketLogRecord record) throws IOException {
+        record.seal(gson, cipher);
+        return (gson.toJson(record) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private FileChannel openChannel() throws IOException {
+        if (channel == null || !channel.isOpen()) {
+            Files.createDirectories(file.getParent());
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.fine("Error cerrando bitácora de tickets: " + e.getMessage());
+            }
+            channel = null;
+        }
+    }
+
+    private void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
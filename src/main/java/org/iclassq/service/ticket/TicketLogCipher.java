@@ -0,0 +1,115 @@
+package org.iclassq.service.ticket;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.logging.Logger;
+
+public class TicketLogCipher {
+    private static final Logger logger = Logger.getLogger(TicketLogCipher.class.getName());
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int KEY_BITS = 256;
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private final Path keyFile;
+    private final SecureRandom random = new SecureRandom();
+    private SecretKey key;
+
+    public TicketLogCipher(Path keyFile) {
+        this.keyFile = keyFile;
+    }
+
+    public String seal(String plaintext) throws IOException {
+        try {
+            byte[] iv = new byte[IV_BYTES];
+            random.nextBytes(iv);
+
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key(), new GCMParameterSpec(TAG_BITS, iv));
+            byte[] encrypted = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+
+            return Base64.getEncoder().encodeToString(ByteBuffer.allocate(iv.length + encrypted.length)
+                    .put(iv)
+                    .put(encrypted)
+                    .array());
+        } catch (GeneralSecurityException e) {
+            throw new IOException("No se pudo cifrar registro de bitácora de tickets", e);
+        }
+    }
+
+    public String open(String sealed) throws IOException {
+        try {
+            byte[] data = Base64.getDecoder().decode(sealed);
+            if (data.length <= IV_BYTES) {
+                throw new IOException("Registro cifrado incompleto");
+            }
+
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key(), new GCMParameterSpec(TAG_BITS, data, 0, IV_BYTES));
+            byte[] plaintext = cipher.doFinal(data, IV_BYTES, data.length - IV_BYTES);
+
+            return new String(plaintext, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IOException("No se pudo descifrar registro de bitácora de tickets", e);
+        }
+    }
+
+    private synchronized SecretKey key() throws IOException, GeneralSecurityException {
+        if (key == null) {
+            key = Files.exists(keyFile) ? readKey() : createKey();
+        }
+        return key;
+    }
+
+    private SecretKey readKey() throws IOException {
+        byte[] encoded = Files.readAllBytes(keyFile);
+        if (encoded.length != KEY_BITS / 8) {
+            throw new IOException("Llave de bitácora de tickets inválida: " + keyFile);
+        }
+        return new SecretKeySpec(encoded, "AES");
+    }
+
+    private SecretKey createKey() throws IOException, GeneralSecurityException {
+        KeyGenerator generator = KeyGenerator.getInstance("AES");
+        generator.init(KEY_BITS, random);
+        SecretKey created = generator.generateKey();
+
+        Files.createDirectories(keyFile.getParent());
+        Path tempFile = Files.createTempFile(keyFile.getParent(), keyFile.getFileName().toString(), ".tmp");
+
+        try {
+            restrictToOwner(tempFile);
+            Files.write(tempFile, created.getEncoded());
+            Files.move(tempFile, keyFile);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+
+        logger.info("Llave de bitácora de tickets creada: " + keyFile);
+        return created;
+    }
+
+    private static void restrictToOwner(Path path) throws IOException {
+        try {
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            File file = path.toFile();
+            file.setReadable(false, false);
+            file.setWritable(false, false);
+            file.setReadable(true, true);
+            file.setWritable(true, true);
+        }
+    }
+}
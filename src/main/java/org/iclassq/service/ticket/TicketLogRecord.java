@@ -0,0 +1,114 @@
+package org.iclassq.service.ticket;
+
+import com.google.gson.Gson;
+import lombok.Getter;
+import org.iclassq.model.dto.request.TicketRequestDTO;
+import org.iclassq.model.dto.response.TicketResponseDTO;
+
+import java.io.IOException;
+
+@Getter
+public class TicketLogRecord {
+    public enum Type {
+        REQUESTED,
+        ISSUED,
+        FAILED,
+        PROVISIONAL,
+        RECONCILED,
+        BLOCK,
+        RETIRED
+    }
+
+    private Type type;
+    private long timestamp;
+    private String clientRequestId;
+    private String codigo;
+    private String prefijo;
+    private Integer secuencia;
+    private Integer inicio;
+    private Integer fin;
+    private String sealed;
+
+    private transient TicketRequestDTO request;
+    private transient TicketResponseDTO ticket;
+
+    private TicketLogRecord() {
+    }
+
+    private TicketLogRecord(Type type, String clientRequestId) {
+        this.type = type;
+        this.clientRequestId = clientRequestId;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    public static TicketLogRecord requested(TicketRequestDTO request) {
+        TicketLogRecord record = new TicketLogRecord(Type.REQUESTED, request.getClientRequestId());
+        record.request = request;
+        record.prefijo = request.getPrefijo();
+        return record;
+    }
+
+    public static TicketLogRecord issued(String clientRequestId, TicketResponseDTO ticket) {
+        TicketLogRecord record = new TicketLogRecord(Type.ISSUED, clientRequestId);
+        record.codigo = ticket != null ? ticket.getCodigo() : null;
+        return record;
+    }
+
+    public static TicketLogRecord failed(String clientRequestId) {
+        return new TicketLogRecord(Type.FAILED, clientRequestId);
+    }
+
+    public static TicketLogRecord provisional(TicketRequestDTO request, TicketResponseDTO ticket) {
+        TicketLogRecord record = new TicketLogRecord(Type.PROVISIONAL, request.getClientRequestId());
+        record.request = request;
+        record.ticket = ticket;
+        record.codigo = ticket.getCodigo();
+        record.prefijo = ticket.getPrefijo();
+        record.secuencia = ticket.getTicketSecuencia();
+        return record;
+    }
+
+    public static TicketLogRecord reconciled(String clientRequestId, TicketResponseDTO ticket) {
+        TicketLogRecord record = new TicketLogRecord(Type.RECONCILED, clientRequestId);
+        record.codigo = ticket != null ? ticket.getCodigo() : null;
+        return record;
+    }
+
+    public static TicketLogRecord block(String prefijo, int inicio, int fin) {
+        TicketLogRecord record = new TicketLogRecord(Type.BLOCK, null);
+        record.prefijo = prefijo;
+        record.inicio = inicio;
+        record.fin = fin;
+        return record;
+    }
+
+    public static TicketLogRecord retired(String prefijo) {
+        TicketLogRecord record = new TicketLogRecord(Type.RETIRED, null);
+        record.prefijo = prefijo;
+        return record;
+    }
+
+    void seal(Gson gson, TicketLogCipher cipher) throws IOException {
+        if (sealed == null && (request != null || ticket != null)) {
+            sealed = cipher.seal(gson.toJson(new Payload(request, ticket)));
+        }
+    }
+
+    void open(Gson gson, TicketLogCipher cipher) throws IOException {
+        if (sealed != null) {
+            Payload payload = gson.fromJson(cipher.open(sealed), Payload.class);
+            request = payload.request;
+            ticket = payload.ticket;
+        }
+    }
+
+    private static class Payload {
+        private final TicketRequestDTO request;
+        private final TicketResponseDTO ticket;
+
+        private Payload(TicketRequestDTO request, TicketResponseDTO ticket) {
+            this.request = request;
+            this.ticket = ticket;
+        }
+    }
+}
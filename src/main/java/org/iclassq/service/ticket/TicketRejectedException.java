@@ -0,0 +1,11 @@
+package org.iclassq.service.ticket;
+
+import java.io.IOException;
+
+public class TicketRejectedException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public TicketRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,81 @@
+package org.iclassq.service.ticket;
+
+import org.iclassq.model.dto.request.TicketRequestDTO;
+import org.iclassq.model.dto.response.TicketResponseDTO;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+public class TicketRequestJournal {
+    private static final Logger logger = Logger.getLogger(TicketRequestJournal.class.getName());
+    private static final int MAX_ENTRIES = 200;
+
+    private final Map<String, PendingTicket> entries = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PendingTicket> eldest) {
+            return size() > MAX_ENTRIES && eldest.getValue().getState() != PendingTicket.State.PENDING;
+        }
+    };
+
+    public CompletableFuture<TicketResponseDTO> submit(TicketRequestDTO request,
+                                                       Function<PendingTicket, CompletableFuture<TicketResponseDTO>> issuer) {
+        PendingTicket pending;
+        CompletableFuture<TicketResponseDTO> future;
+
+        synchronized (this) {
+            pending = entries.get(request.getClientRequestId());
+
+            if (pending != null && pending.getState() == PendingTicket.State.ISSUED) {
+                logger.info("Ticket ya emitido para solicitud " + pending.getClientRequestId());
+                return CompletableFuture.completedFuture(pending.getTicket());
+            }
+
+            if (pending != null && pending.getInFlight() != null) {
+                logger.info("Solicitud de ticket en curso, reutilizando: " + pending.getClientRequestId());
+                return pending.getInFlight().thenApply(Function.identity());
+            }
+
+            if (pending == null) {
+                pending = new PendingTicket(request);
+                entries.put(pending.getClientRequestId(), pending);
+            }
+
+            future = new CompletableFuture<>();
+            pending.setInFlight(future);
+        }
+
+        PendingTicket entry = pending;
+        issuer.apply(entry).whenComplete((ticket, error) -> {
+            synchronized (this) {
+                if (error == null) {
+                    entry.markIssued(ticket);
+                } else {
+                    entry.markFailed();
+                }
+            }
+
+            if (error == null) {
+                future.complete(ticket);
+            } else {
+                future.completeExceptionally(error);
+            }
+        });
+
+        return future;
+    }
+
+    public synchronized List<PendingTicket> getPending() {
+        List<PendingTicket> pending = new ArrayList<>();
+        for (PendingTicket entry : entries.values()) {
+            if (entry.getState() != PendingTicket.State.ISSUED) {
+                pending.add(entry);
+            }
+        }
+        return pending;
+    }
+}
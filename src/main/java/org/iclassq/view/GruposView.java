@@ -25,6 +25,7 @@ public class GruposView {
     private Grid groupsGrid;
     private Pagination pagination;
     private Consumer<GrupoDTO> onGroupSelected;
+    private Consumer<List<GrupoDTO>> onGroupsShown;
     private List<GrupoDTO> allGroups;
     private Loading loading;
     private StackPane body;
@@ -185,6 +186,10 @@ public class GruposView {
         body.getChildren().clear();
         body.getChildren().addAll(groupsGrid, loading);
         loading.toFront();
+
+        if (onGroupsShown != null) {
+            onGroupsShown.accept(groupsPage);
+        }
     }
 
     private void handlePageChange(Integer pageNumer) {
@@ -211,6 +216,10 @@ public class GruposView {
         this.onGroupSelected = callback;
     }
 
+    public void setOnGroupsShown(Consumer<List<GrupoDTO>> callback) {
+        this.onGroupsShown = callback;
+    }
+
     public void setOnNextPage(Runnable callback) {
         this.onNextPage = callback;
     }
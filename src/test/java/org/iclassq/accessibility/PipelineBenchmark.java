@@ -0,0 +1,132 @@
+package org.iclassq.accessibility;
+
+import org.iclassq.accessibility.camera.CameraConfig;
+import org.iclassq.accessibility.camera.CameraService;
+import org.iclassq.accessibility.camera.CameraSnapshot;
+import org.iclassq.accessibility.camera.EncodedFrame;
+import org.iclassq.accessibility.camera.FrameSources;
+import org.iclassq.accessibility.detection.DetectionResponse;
+import org.iclassq.accessibility.detection.DetectionService;
+import org.iclassq.http.metrics.FixedBucketHistogram;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+public class PipelineBenchmark {
+    private static final Logger logger = Logger.getLogger(PipelineBenchmark.class.getName());
+
+    private final CameraService cameraService;
+    private final DetectionService detectionService;
+
+    private final FixedBucketHistogram captureMs = new FixedBucketHistogram(FixedBucketHistogram.LATENCY_BOUNDS_MS);
+    private final FixedBucketHistogram encodeMs = new FixedBucketHistogram(FixedBucketHistogram.LATENCY_BOUNDS_MS);
+    private final FixedBucketHistogram detectMs = new FixedBucketHistogram(FixedBucketHistogram.LATENCY_BOUNDS_MS);
+    private final FixedBucketHistogram totalMs = new FixedBucketHistogram(FixedBucketHistogram.LATENCY_BOUNDS_MS);
+    private long frames;
+    private long encodedBytes;
+    private long incompleteSnapshots;
+    private long failedDetections;
+
+    public PipelineBenchmark(CameraService cameraService, DetectionService detectionService) {
+        this.cameraService = cameraService;
+        this.detectionService = detectionService;
+    }
+
+    public void run(long durationMs) {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + TimeUnit.MILLISECONDS.toNanos(durationMs);
+
+        while (System.nanoTime() < deadline) {
+            long iterationStart = System.nanoTime();
+
+            CameraSnapshot snapshot = cameraService.captureSnapshot();
+            long captured = System.nanoTime();
+
+            if (!snapshot.isComplete()) {
+                incompleteSnapshots++;
+            }
+
+            List<EncodedFrame> encoded = cameraService.encodeSnapshot(snapshot);
+            long encodedAt = System.nanoTime();
+            snapshot.release();
+
+            frames += encoded.size();
+            for (EncodedFrame frame : encoded) {
+                encodedBytes += frame.getLength();
+            }
+
+            if (detectionService != null && !encoded.isEmpty()) {
+                DetectionResponse response = detectionService.detectEncoded(encoded);
+                if (!response.isSuccess()) {
+                    failedDetections++;
+                }
+                detectMs.record(elapsedMs(encodedAt));
+            } else {
+                encoded.forEach(EncodedFrame::close);
+            }
+
+            captureMs.record(TimeUnit.NANOSECONDS.toMillis(captured - iterationStart));
+            encodeMs.record(TimeUnit.NANOSECONDS.toMillis(encodedAt - captured));
+            totalMs.record(elapsedMs(iterationStart));
+        }
+
+        logSummary(elapsedMs(startedAt));
+    }
+
+    private void logSummary(long elapsedMs) {
+        long iterations = totalMs.getCount();
+        double seconds = Math.max(elapsedMs, 1) / 1000.0;
+
+        logger.info(String.format("Benchmark del pipeline: %d snapshots, %d frames en %.1fs (%.1f snapshots/s, %.1f frames/s)",
+                iterations, frames, seconds, iterations / seconds, frames / seconds));
+        logger.info(String.format("   Snapshots incompletos: %d, detecciones fallidas: %d, JPEG promedio: %d bytes",
+                incompleteSnapshots, failedDetections, frames == 0 ? 0 : encodedBytes / frames));
+        logStage("Captura", captureMs);
+        logStage("Codificación", encodeMs);
+        if (detectionService != null) {
+            logStage("Detección", detectMs);
+        }
+        logStage("Total", totalMs);
+    }
+
+    private static void logStage(String stage, FixedBucketHistogram histogram) {
+        logger.info(String.format("   %-13s p50=%dms p95=%dms p99=%dms max=%dms", stage,
+                histogram.percentile(0.50), histogram.percentile(0.95), histogram.percentile(0.99), histogram.getMax()));
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            logger.info("Uso: PipelineBenchmark <fuente> [segundos] [--detectar]");
+            logger.info("   fuente: camara | sintetico:<cámaras> | directorio:<ruta>[" + File.pathSeparator
+                    + "<ruta>] | video:<archivo>[" + File.pathSeparator + "<archivo>]");
+            return;
+        }
+
+        long durationMs = args.length > 1 && !args[1].startsWith("--")
+                ? TimeUnit.SECONDS.toMillis(Long.parseLong(args[1]))
+                : TimeUnit.SECONDS.toMillis(30);
+        boolean detect = args[args.length - 1].equals("--detectar");
+
+        CameraConfig config = CameraConfig.getDefaultMLConfig();
+        config.setFrameSource(args[0]);
+
+        CameraService cameraService = new CameraService(config, FrameSources.parse(config.getFrameSource()));
+
+        try {
+            if (!cameraService.initialize()) {
+                logger.severe("No se pudo inicializar la fuente de frames " + args[0]);
+                return;
+            }
+
+            new PipelineBenchmark(cameraService, detect ? new DetectionService() : null).run(durationMs);
+        } finally {
+            cameraService.shutdown();
+        }
+    }
+}
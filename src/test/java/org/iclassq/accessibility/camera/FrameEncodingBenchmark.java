@@ -0,0 +1,106 @@
+package org.iclassq.accessibility.camera;
+
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.Java2DFrameConverter;
+import org.iclassq.accessibility.detection.Base64Utils;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class FrameEncodingBenchmark {
+    private static final int JPEG_QUALITY = 80;
+    private static final int[][] RESOLUTIONS = {{640, 480}, {1280, 720}};
+
+    private final int warmup;
+    private final int iterations;
+
+    private FrameEncodingBenchmark(int warmup, int iterations) {
+        this.warmup = warmup;
+        this.iterations = iterations;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int warmup = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        FrameEncodingBenchmark benchmark = new FrameEncodingBenchmark(warmup, iterations);
+        System.out.printf("Codificación JPEG + Base64 por frame (%d de calentamiento, %d medidos)%n", warmup, iterations);
+
+        for (int[] resolution : RESOLUTIONS) {
+            benchmark.compare(resolution[0], resolution[1]);
+        }
+    }
+
+    private void compare(int width, int height) throws IOException {
+        SyntheticFrameSource source = new SyntheticFrameSource(1, width, height, 0);
+        JpegBufferPool pool = new JpegBufferPool(4);
+        FrameEncoder encoder = new FrameEncoder(JPEG_QUALITY, pool);
+        Java2DFrameConverter converter = new Java2DFrameConverter();
+
+        try {
+            source.start();
+
+            Result nativePath = measure(source, frame -> {
+                try (EncodedFrame encoded = encoder.encode(frame)) {
+                    return encoded.toBase64().length();
+                }
+            });
+            Result imageIoPath = measure(source, frame ->
+                    Base64Utils.toBase64(converter.convert(frame.getFrame()), "jpg").length());
+
+            System.out.printf("%dx%d%n", width, height);
+            nativePath.print("imencode (OpenCV)");
+            imageIoPath.print("BufferedImage + ImageIO");
+        } finally {
+            converter.close();
+            source.close();
+        }
+    }
+
+    private Result measure(SyntheticFrameSource source, Path path) throws IOException {
+        long[] nanos = new long[iterations];
+        long base64Chars = 0;
+
+        for (int i = 0; i < warmup + iterations; i++) {
+            Frame grabbed = source.grab();
+            CapturedFrame frame = new CapturedFrame(0, i, grabbed, false, System.nanoTime(), System.currentTimeMillis());
+
+            long start = System.nanoTime();
+            int length = path.encode(frame);
+            long elapsed = System.nanoTime() - start;
+
+            if (i >= warmup) {
+                nanos[i - warmup] = elapsed;
+                base64Chars += length;
+            }
+        }
+
+        Arrays.sort(nanos);
+        return new Result(nanos, base64Chars / iterations);
+    }
+
+    @FunctionalInterface
+    private interface Path {
+        int encode(CapturedFrame frame);
+    }
+
+    private static class Result {
+        private final long[] sortedNanos;
+        private final long averageChars;
+
+        private Result(long[] sortedNanos, long averageChars) {
+            this.sortedNanos = sortedNanos;
+            this.averageChars = averageChars;
+        }
+
+        private double percentileMs(double percentile) {
+            int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(percentile * sortedNanos.length) - 1);
+            return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        private void print(String name) {
+            System.out.printf("   %-24s p50=%.2fms p95=%.2fms p99=%.2fms base64=%d chars%n", name,
+                    percentileMs(0.50), percentileMs(0.95), percentileMs(0.99), averageChars);
+        }
+    }
+}
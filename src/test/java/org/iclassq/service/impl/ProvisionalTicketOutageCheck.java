@@ -0,0 +1,148 @@
+package org.iclassq.service.impl;
+
+import org.iclassq.http.HttpTransport;
+import org.iclassq.http.SessionCookieStore;
+import org.iclassq.http.SessionManager;
+import org.iclassq.model.domain.SessionData;
+import org.iclassq.model.dto.request.TicketRequestDTO;
+import org.iclassq.model.dto.response.TicketResponseDTO;
+import org.iclassq.service.ticket.ProvisionalTicketIssuer;
+import org.iclassq.service.ticket.TicketLog;
+import org.iclassq.service.ticket.TicketLogCipher;
+import org.iclassq.service.ticket.TicketRequestJournal;
+import org.iclassq.simulator.BackendSimulator;
+import org.iclassq.simulator.LatencyProfile;
+import org.iclassq.simulator.SimulatorConfig;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+public class ProvisionalTicketOutageCheck {
+    private static final String TICKET_ENDPOINT = "/generarticketatencion.app";
+    private static final String PREFIJO = "A";
+    private static final int SUCURSAL_ID = 7;
+    private static final int PROVISIONAL_TICKETS = 3;
+    private static final long RECONCILE_TIMEOUT_MS = 30_000;
+
+    private final BackendSimulator simulator;
+    private final HttpTransport transport;
+    private final Path directory;
+
+    private ProvisionalTicketOutageCheck(BackendSimulator simulator, HttpTransport transport, Path directory) {
+        this.simulator = simulator;
+        this.transport = transport;
+        this.directory = directory;
+    }
+
+    public static void main(String[] args) throws Exception {
+        BackendSimulator simulator = new BackendSimulator(SimulatorConfig.builder()
+                .port(0)
+                .latency(new LatencyProfile(5, 20))
+                .build());
+        Path directory = Files.createTempDirectory("tickets-outage");
+        simulator.start();
+
+        SessionCookieStore cookieStore = new SessionCookieStore();
+        HttpTransport transport = new HttpTransport(cookieStore);
+        SessionManager sessionManager = new SessionManager(simulator.getBaseUrl(), transport, cookieStore,
+                TimeUnit.MINUTES.toMillis(5));
+        transport.setSessionInterceptor(sessionManager);
+
+        try {
+            check(sessionManager.login("kiosko", "kiosko", 3) != null, "el simulador debe aceptar el login");
+            SessionData.getInstance().setSucursalId(SUCURSAL_ID);
+
+            new ProvisionalTicketOutageCheck(simulator, transport, directory).journaledRequestsConfirmedOnceAfterOutage();
+            System.out.println("ProvisionalTicketOutageCheck: OK");
+        } finally {
+            sessionManager.shutdown();
+            transport.shutdown();
+            simulator.stop();
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private void journaledRequestsConfirmedOnceAfterOutage() throws Exception {
+        ProvisionalTicketIssuer issuer = openIssuer();
+        TicketServiceImpl service = service(issuer);
+
+        service.reconcile();
+        check(issuer.getRemaining(PREFIJO) == 10, "la conciliación debe reservar un bloque de números del backend");
+
+        TicketResponseDTO online = service.generateTicket(request());
+        check(!online.isProvisional(), "con backend disponible el ticket no debe ser provisional");
+
+        simulator.setOutage(true);
+        int issuedBefore = simulator.getIssuedTicketCount();
+
+        List<TicketResponseDTO> provisional = new ArrayList<>();
+        for (int i = 0; i < PROVISIONAL_TICKETS; i++) {
+            provisional.add(service.generateTicket(request()));
+        }
+        for (TicketResponseDTO ticket : provisional) {
+            check(ticket.isProvisional(), "durante la caída el ticket debe ser provisional: " + ticket.getCodigo());
+        }
+
+        issuer.recordRequested(request());
+        issuer.close();
+
+        issuer = openIssuer();
+        service = service(issuer);
+        check(issuer.getUnreconciled().size() == PROVISIONAL_TICKETS,
+                "cada ticket provisional debe quedar por conciliar tras reiniciar");
+        check(issuer.getInDoubt().size() == 1, "la solicitud sin resultado debe quedar en duda tras reiniciar");
+        check(simulator.getIssuedTicketCount() == issuedBefore, "el backend caído no debe emitir tickets");
+
+        simulator.setOutage(false);
+
+        long deadline = System.currentTimeMillis() + RECONCILE_TIMEOUT_MS;
+        while (!issuer.getUnreconciled().isEmpty() || !issuer.getInDoubt().isEmpty()) {
+            check(System.currentTimeMillis() < deadline, "la conciliación no terminó tras restablecer el backend");
+            service.reconcile();
+            if (!issuer.getUnreconciled().isEmpty() || !issuer.getInDoubt().isEmpty()) {
+                Thread.sleep(1000);
+            }
+        }
+
+        check(simulator.getIssuedTicketCount() - issuedBefore == PROVISIONAL_TICKETS + 1,
+                "cada solicitud de la bitácora debe confirmarse exactamente una vez en el backend");
+        check(issuer.covers(PREFIJO), "el backend debe respetar los números provisionales reservados");
+
+        long ticketRequests = simulator.getRequestCount(TICKET_ENDPOINT);
+        service.reconcile();
+        check(simulator.getRequestCount(TICKET_ENDPOINT) == ticketRequests,
+                "una conciliación posterior no debe reenviar solicitudes ya confirmadas");
+        issuer.close();
+    }
+
+    private ProvisionalTicketIssuer openIssuer() {
+        TicketLog log = new TicketLog(directory.resolve("tickets.jsonl"),
+                new TicketLogCipher(directory.resolve("tickets.key")));
+        ProvisionalTicketIssuer issuer = new ProvisionalTicketIssuer(log, List.of(PREFIJO), 10);
+        issuer.restore();
+        return issuer;
+    }
+
+    private TicketServiceImpl service(ProvisionalTicketIssuer issuer) {
+        return new TicketServiceImpl(simulator.getBaseUrl(), transport, new TicketRequestJournal(), true, issuer);
+    }
+
+    private static TicketRequestDTO request() {
+        return new TicketRequestDTO(1, SUCURSAL_ID, PREFIJO, "Rosa Quispe Mamani", "45879123", 1, 1,
+                UUID.randomUUID().toString());
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package org.iclassq.service.ticket;
+
+import org.iclassq.model.dto.request.TicketRequestDTO;
+import org.iclassq.model.dto.response.SecuenciaReservadaDTO;
+import org.iclassq.model.dto.response.TicketResponseDTO;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class ProvisionalTicketReplayCheck {
+    private static final String PREFIJO = "A";
+    private static final String NUM_DOC = "45879123";
+    private static final String NOMBRE = "Rosa Quispe Mamani";
+
+    private final Path directory;
+
+    private ProvisionalTicketReplayCheck(Path directory) {
+        this.directory = directory;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Files.createTempDirectory("tickets-replay");
+
+        try {
+            ProvisionalTicketReplayCheck check = new ProvisionalTicketReplayCheck(directory);
+            check.requestedWithoutOutcomeSurvivesRestart();
+            check.provisionalNumbersAreNotReusedAfterRestart();
+            check.mismatchedReconciliationRetiresPrefijo();
+            check.journalDoesNotStorePersonalDataInPlaintext();
+            check.truncatedTailIsDiscarded();
+            System.out.println("ProvisionalTicketReplayCheck: OK");
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private void requestedWithoutOutcomeSurvivesRestart() throws IOException {
+        Path dir = scenario("en-duda");
+        TicketRequestDTO request = request();
+
+        ProvisionalTicketIssuer issuer = open(dir);
+        issuer.recordRequested(request);
+        issuer.close();
+
+        issuer = open(dir);
+        check(issuer.getInDoubt().size() == 1, "la solicitud sin resultado debe quedar en duda tras reiniciar");
+        check(NUM_DOC.equals(issuer.getInDoubt().get(0).getRequest().getNumDoc()),
+                "la solicitud en duda debe conservar sus datos para reenviarse");
+        issuer.close();
+
+        issuer = open(dir);
+        check(issuer.getInDoubt().size() == 1, "la solicitud en duda debe sobrevivir a la compactación");
+        issuer.recordIssued(request.getClientRequestId(), ticket("A001", 1));
+        check(issuer.getInDoubt().isEmpty(), "la solicitud emitida ya no está en duda");
+        issuer.close();
+
+        issuer = open(dir);
+        check(issuer.getInDoubt().isEmpty(), "la solicitud conciliada no debe reaparecer tras reiniciar");
+        issuer.close();
+    }
+
+    private void provisionalNumbersAreNotReusedAfterRestart() throws IOException {
+        Path dir = scenario("provisional");
+
+        ProvisionalTicketIssuer issuer = open(dir);
+        issuer.grant(reserva(10, 19));
+        TicketResponseDTO first = issuer.issue(request());
+        issuer.close();
+
+        issuer = open(dir);
+        check(issuer.getUnreconciled().size() == 1, "el ticket provisional debe quedar por conciliar");
+        TicketResponseDTO second = issuer.issue(request());
+        check(first.getTicketSecuencia() == 10 && second.getTicketSecuencia() == 11,
+                "el número provisional no debe reutilizarse tras reiniciar: " + first.getCodigo() + ", " + second.getCodigo());
+        issuer.close();
+    }
+
+    private void mismatchedReconciliationRetiresPrefijo() throws IOException {
+        Path dir = scenario("conflicto");
+
+        ProvisionalTicketIssuer issuer = open(dir);
+        issuer.grant(reserva(10, 19));
+        TicketRequestDTO request = request();
+        issuer.issue(request);
+
+        check(!issuer.markReconciled(request.getClientRequestId(), ticket("A042", 42)),
+                "la conciliación con número distinto debe reportarse");
+        check(!issuer.covers(PREFIJO), "el prefijo debe dejar de emitir provisionales tras un conflicto");
+        check(issuer.getRemaining(PREFIJO) == 0, "los números reservados del prefijo deben descartarse");
+        issuer.grant(reserva(20, 29));
+        check(issuer.getRemaining(PREFIJO) == 0, "no deben aceptarse bloques nuevos para un prefijo retirado");
+        issuer.close();
+
+        issuer = open(dir);
+        check(!issuer.covers(PREFIJO), "el retiro del prefijo debe persistir tras reiniciar");
+        check(issuer.getPrefijosNeedingBlocks().isEmpty(), "no deben pedirse bloques para un prefijo retirado");
+        issuer.close();
+    }
+
+    private void journalDoesNotStorePersonalDataInPlaintext() throws IOException {
+        Path dir = scenario("privacidad");
+
+        ProvisionalTicketIssuer issuer = open(dir);
+        issuer.grant(reserva(10, 19));
+        issuer.recordRequested(request());
+        issuer.issue(request());
+        issuer.close();
+
+        String journal = Files.readString(dir.resolve("tickets.jsonl"), StandardCharsets.UTF_8);
+        check(!journal.contains(NUM_DOC) && !journal.contains(NOMBRE),
+                "la bitácora no debe contener documento ni nombre en texto plano");
+
+        issuer = open(dir);
+        List<TicketLogRecord> unreconciled = issuer.getUnreconciled();
+        check(unreconciled.size() == 1 && NOMBRE.equals(unreconciled.get(0).getRequest().getNombre()),
+                "los datos cifrados deben recuperarse al reiniciar");
+        issuer.close();
+
+        journal = Files.readString(dir.resolve("tickets.jsonl"), StandardCharsets.UTF_8);
+        check(!journal.contains(NUM_DOC) && !journal.contains(NOMBRE),
+                "la bitácora compactada no debe contener datos personales en texto plano");
+    }
+
+    private void truncatedTailIsDiscarded() throws IOException {
+        Path dir = scenario("truncada");
+
+        ProvisionalTicketIssuer issuer = open(dir);
+        issuer.grant(reserva(10, 19));
+        issuer.issue(request());
+        issuer.close();
+
+        Files.writeString(dir.resolve("tickets.jsonl"), "{\"type\":\"PROVISIONAL\",\"clientRe",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        issuer = open(dir);
+        check(issuer.getUnreconciled().size() == 1, "el registro truncado debe descartarse sin perder los anteriores");
+        check(issuer.getRemaining(PREFIJO) == 9, "el bloque reservado debe conservar los números restantes");
+        issuer.close();
+    }
+
+    private Path scenario(String name) throws IOException {
+        return Files.createDirectories(directory.resolve(name));
+    }
+
+    private static ProvisionalTicketIssuer open(Path dir) {
+        TicketLog log = new TicketLog(dir.resolve("tickets.jsonl"), new TicketLogCipher(dir.resolve("tickets.key")));
+        ProvisionalTicketIssuer issuer = new ProvisionalTicketIssuer(log, List.of(PREFIJO), 10);
+        issuer.restore();
+        return issuer;
+    }
+
+    private static TicketRequestDTO request() {
+        return new TicketRequestDTO(1, 7, PREFIJO, NOMBRE, NUM_DOC, 1, 1, UUID.randomUUID().toString());
+    }
+
+    private static TicketResponseDTO ticket(String codigo, int secuencia) {
+        TicketResponseDTO ticket = new TicketResponseDTO();
+        ticket.setCodigo(codigo);
+        ticket.setPrefijo(PREFIJO);
+        ticket.setTicketSecuencia(secuencia);
+        return ticket;
+    }
+
+    private static SecuenciaReservadaDTO reserva(int inicio, int fin) {
+        SecuenciaReservadaDTO reserva = new SecuenciaReservadaDTO();
+        reserva.setPrefijo(PREFIJO);
+        reserva.setInicio(inicio);
+        reserva.setFin(fin);
+        return reserva;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,492 @@
+package org.iclassq.simulator;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.iclassq.http.json.JsonCodec;
+import org.iclassq.model.dto.response.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+public class BackendSimulator {
+    private static final Logger logger = Logger.getLogger(BackendSimulator.class.getName());
+
+    private static final String SESSION_COOKIE = "JSESSIONID";
+    private static final String IDEMPOTENCY_HEADER = "Idempotency-Key";
+    private static final String[] TIPOS_DOCUMENTO = {"DNI", "Carnet de Extranjería", "Pasaporte", "RUC", "PTP", "Otros"};
+
+    private final SimulatorConfig config;
+    private final Random random;
+    private final Gson gson;
+
+    private final Map<String, Long> sessions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> ticketSequences = new ConcurrentHashMap<>();
+    private final AtomicInteger ticketIds = new AtomicInteger();
+    private final Map<String, TicketResponseDTO> issuedTickets = new ConcurrentHashMap<>();
+
+    private final List<GrupoDTO> grupos = new ArrayList<>();
+    private final Map<Integer, List<SubGrupoDTO>> subgrupos = new HashMap<>();
+    private final List<TipoDocumentoDTO> tiposDocumento = new ArrayList<>();
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private volatile boolean outage = false;
+
+    public BackendSimulator(SimulatorConfig config) {
+        this.config = config;
+        this.random = new Random(config.getSeed());
+        this.gson = JsonCodec.getInstance().getGson();
+
+        generateCatalogs();
+    }
+
+    private void generateCatalogs() {
+        int subgrupoId = 1;
+
+        for (int g = 1; g <= config.getGrupos(); g++) {
+            String prefijo = prefijoFor(g);
+            grupos.add(new GrupoDTO(g, "Grupo " + g, prefijo));
+
+            List<SubGrupoDTO> items = new ArrayList<>();
+            for (int s = 1; s <= config.getSubgruposPorGrupo(); s++) {
+                String nombre = s == 1 ? "Preferencial" : "Servicio " + g + "." + s;
+                items.add(new SubGrupoDTO(subgrupoId++, nombre, prefijo + s, s == 1 ? 2 : 0));
+            }
+            subgrupos.put(g, items);
+        }
+
+        for (int t = 1; t <= config.getTiposDocumento(); t++) {
+            String descripcion = t <= TIPOS_DOCUMENTO.length ? TIPOS_DOCUMENTO[t - 1] : "Documento " + t;
+            tiposDocumento.add(new TipoDocumentoDTO(t, descripcion));
+        }
+    }
+
+    private static String prefijoFor(int index) {
+        StringBuilder prefijo = new StringBuilder();
+        int value = index;
+        while (value > 0) {
+            value--;
+            prefijo.insert(0, (char) ('A' + value % 26));
+            value /= 26;
+        }
+        return prefijo.toString();
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+
+        server = HttpServer.create(new InetSocketAddress(config.getPort()), 0);
+        executor = Executors.newFixedThreadPool(config.getWorkerThreads(), r -> {
+            Thread t = new Thread(r, "BackendSimulatorThread");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+
+        String context = config.getContextPath();
+        server.createContext(context, this::handleRoot);
+        server.createContext(context + "/j_security_check_for_standar", this::handleLogin);
+        server.createContext(context + "/j_spring_logout_standar", this::handleLogout);
+        server.createContext(context + "/obtenerrolesbyusername.app", exchange -> handleData(exchange, this::roles));
+        server.createContext(context + "/listargruposxtiempo.app", exchange -> handleData(exchange, this::grupos));
+        server.createContext(context + "/listarsubgruposxgrupoandsucursal.app", exchange -> handleData(exchange, this::subgrupos));
+        server.createContext(context + "/listarTipoDocumentoXGeneraTicket.app", exchange -> handleData(exchange, this::tiposDocumento));
+        server.createContext(context + "/obtenerhorariosgrupos.app", exchange -> handleData(exchange, this::horarios));
+        server.createContext(context + "/generarticketatencion.app", exchange -> {
+            echoIdempotencyKey(exchange);
+            handleData(exchange, this::ticket);
+        });
+        server.createContext(context + "/reservarsecuenciaticket.app", exchange -> handleData(exchange, this::reserve));
+
+        server.start();
+
+        logger.info(String.format("Simulador iClassQ escuchando en %s (%d grupos x %d subgrupos, latencia %s, errores %.1f%%, sesión %ds)",
+                getBaseUrl(), config.getGrupos(), config.getSubgruposPorGrupo(), config.getLatency(),
+                config.getErrorRate() * 100, config.getSessionTtlSeconds()));
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+            executor = null;
+            logger.info("Simulador iClassQ detenido - peticiones: " + getRequestCounts());
+        }
+    }
+
+    public String getBaseUrl() {
+        int port = server != null ? server.getAddress().getPort() : config.getPort();
+        return "http://localhost:" + port + config.getContextPath();
+    }
+
+    public Map<String, Long> getRequestCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        requestCounts.forEach((endpoint, count) -> counts.put(endpoint, count.get()));
+        return counts;
+    }
+
+    public long getRequestCount(String endpoint) {
+        AtomicLong count = requestCounts.get(endpoint);
+        return count != null ? count.get() : 0;
+    }
+
+    public void expireSessions() {
+        sessions.clear();
+    }
+
+    public void setOutage(boolean outage) {
+        this.outage = outage;
+        logger.info(outage ? "Simulador iClassQ: caída simulada" : "Simulador iClassQ: servicio restablecido");
+    }
+
+    public int getIssuedTicketCount() {
+        return ticketIds.get();
+    }
+
+    @FunctionalInterface
+    private interface DataHandler {
+        Response handle(Map<String, String> params);
+    }
+
+    private static class Response {
+        private final Object data;
+        private final Type type;
+        private final boolean success;
+        private final String message;
+
+        private Response(Object data, Type type, boolean success, String message) {
+            this.data = data;
+            this.type = type;
+            this.success = success;
+            this.message = message;
+        }
+
+        private static Response ok(Object data, Type type) {
+            return new Response(data, type, true, null);
+        }
+
+        private static Response fail(String message, Type type) {
+            return new Response(null, type, false, message);
+        }
+    }
+
+    private void handleRoot(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            boolean root = path.equals(config.getContextPath()) || path.equals(config.getContextPath() + "/");
+            count(path);
+            exchange.sendResponseHeaders(root ? 200 : 404, -1);
+        }
+    }
+
+    private void handleLogin(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String endpoint = count(exchange.getRequestURI().getPath());
+            if (!simulateNetwork(exchange, endpoint)) {
+                return;
+            }
+
+            Map<String, String> form = parseParams(readBody(exchange.getRequestBody()));
+            String username = form.get("j_username");
+            String password = form.get("j_password");
+
+            boolean valid = username != null && !username.isEmpty()
+                    && (config.getPassword() == null || config.getPassword().equals(password));
+
+            if (!valid) {
+                redirect(exchange, config.getContextPath() + "/login.app?error=true");
+                return;
+            }
+
+            String sessionId = UUID.randomUUID().toString().replace("-", "").toUpperCase();
+            sessions.put(sessionId, System.currentTimeMillis());
+
+            exchange.getResponseHeaders().add("Set-Cookie",
+                    SESSION_COOKIE + "=" + sessionId + "; Path=" + config.getContextPath() + "; HttpOnly");
+            redirect(exchange, config.getContextPath() + "/main.app");
+        }
+    }
+
+    private void handleLogout(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            count(exchange.getRequestURI().getPath());
+            String sessionId = sessionIdOf(exchange);
+            if (sessionId != null) {
+                sessions.remove(sessionId);
+            }
+            redirect(exchange, config.getContextPath() + "/login.app");
+        }
+    }
+
+    private void handleData(HttpExchange exchange, DataHandler handler) throws IOException {
+        try (exchange) {
+            String endpoint = count(exchange.getRequestURI().getPath());
+
+            if (!touchSession(exchange)) {
+                redirect(exchange, config.getContextPath() + "/login.app");
+                return;
+            }
+
+            if (!simulateNetwork(exchange, endpoint)) {
+                return;
+            }
+
+            Map<String, String> params = parseParams(exchange.getRequestURI().getRawQuery());
+            if ("POST".equals(exchange.getRequestMethod())) {
+                params.putAll(parseParams(readBody(exchange.getRequestBody())));
+            }
+
+            Response response = handler.handle(params);
+            writeJson(exchange, response);
+        }
+    }
+
+    private boolean simulateNetwork(HttpExchange exchange, String endpoint) throws IOException {
+        if (outage) {
+            exchange.sendResponseHeaders(503, -1);
+            return false;
+        }
+
+        long delay;
+        boolean fail;
+
+        synchronized (random) {
+            delay = config.latencyFor(endpoint).sample(random);
+            if (random.nextDouble() < config.getStallRate()) {
+                delay = config.getStallMs();
+            }
+            fail = random.nextDouble() < config.getErrorRate();
+        }
+
+        sleep(delay);
+
+        if (fail) {
+            byte[] body = "Error simulado".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(500, body.length);
+            exchange.getResponseBody().write(body);
+            return false;
+        }
+
+        return true;
+    }
+
+    private boolean touchSession(HttpExchange exchange) {
+        String sessionId = sessionIdOf(exchange);
+        if (sessionId == null) {
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        long ttlMs = config.getSessionTtlSeconds() * 1000L;
+
+        Long lastSeen = sessions.get(sessionId);
+        if (lastSeen == null || now - lastSeen > ttlMs) {
+            sessions.remove(sessionId);
+            return false;
+        }
+
+        sessions.put(sessionId, now);
+        return true;
+    }
+
+    private Response roles(Map<String, String> params) {
+        String username = params.getOrDefault("username", "kiosko");
+        Type type = JsonCodec.getInstance().listOf(UsuarioRolDTO.class);
+
+        RolDTO rol = new RolDTO(3, "KIOSKO", "K");
+        UsuarioDTO usuario = new UsuarioDTO(1, 1, username);
+        return Response.ok(Collections.singletonList(new UsuarioRolDTO(rol, usuario)), type);
+    }
+
+    private Response grupos(Map<String, String> params) {
+        return Response.ok(grupos, JsonCodec.getInstance().listOf(GrupoDTO.class));
+    }
+
+    private Response subgrupos(Map<String, String> params) {
+        Type type = JsonCodec.getInstance().listOf(SubGrupoDTO.class);
+        Integer grupoId = parseInt(params.get("idGrupo"));
+
+        List<SubGrupoDTO> items = grupoId != null ? subgrupos.get(grupoId) : null;
+        return Response.ok(items != null ? items : Collections.emptyList(), type);
+    }
+
+    private Response tiposDocumento(Map<String, String> params) {
+        return Response.ok(tiposDocumento, JsonCodec.getInstance().listOf(TipoDocumentoDTO.class));
+    }
+
+    private Response horarios(Map<String, String> params) {
+        HorarioDTO horario = new HorarioDTO();
+        horario.setHoraInicio("06:00");
+        horario.setHoraFin("22:00");
+        return Response.ok(horario, HorarioDTO.class);
+    }
+
+    private Response ticket(Map<String, String> params) {
+        Integer subgrupoId = parseInt(params.get("idSubgrupo"));
+        String prefijo = params.get("prefijo");
+
+        if (subgrupoId == null || prefijo == null || prefijo.isEmpty()) {
+            return Response.fail("Datos de ticket incompletos", TicketResponseDTO.class);
+        }
+
+        String clientRequestId = params.get("clientRequestId");
+        if (clientRequestId == null || clientRequestId.isEmpty()) {
+            return Response.ok(issueTicket(subgrupoId, prefijo, params), TicketResponseDTO.class);
+        }
+
+        TicketResponseDTO ticket = issuedTickets.computeIfAbsent(clientRequestId,
+                key -> issueTicket(subgrupoId, prefijo, params));
+        return Response.ok(ticket, TicketResponseDTO.class);
+    }
+
+    private Response reserve(Map<String, String> params) {
+        String prefijo = params.get("prefijo");
+        Integer cantidad = parseInt(params.get("cantidad"));
+
+        if (prefijo == null || prefijo.isEmpty() || cantidad == null || cantidad <= 0) {
+            return Response.fail("Datos de reserva incompletos", SecuenciaReservadaDTO.class);
+        }
+
+        int fin = ticketSequences.computeIfAbsent(prefijo, key -> new AtomicInteger()).addAndGet(cantidad);
+        return Response.ok(new SecuenciaReservadaDTO(prefijo, fin - cantidad + 1, fin), SecuenciaReservadaDTO.class);
+    }
+
+    private TicketResponseDTO issueTicket(Integer subgrupoId, String prefijo, Map<String, String> params) {
+        Integer reservada = parseInt(params.get("secuenciaReservada"));
+        int secuencia = reservada != null
+                ? reservada
+                : ticketSequences.computeIfAbsent(prefijo, key -> new AtomicInteger()).incrementAndGet();
+
+        TicketResponseDTO ticket = new TicketResponseDTO();
+        ticket.setId(ticketIds.incrementAndGet());
+        ticket.setCodigo(String.format("%s%03d", prefijo, secuencia));
+        ticket.setHoraEmision(LocalTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss")));
+        ticket.setIdSubgrupo(subgrupoId);
+        ticket.setNumeroIdentificacion(params.get("numDoc"));
+        ticket.setEstado(1);
+        ticket.setNombreSubgrupo(params.get("nombre"));
+        ticket.setPrefijo(prefijo);
+        ticket.setTipoIdentificacion(params.get("tipoDoc"));
+        ticket.setTicketSecuencia(secuencia);
+        ticket.setFechaAtencion(LocalDate.now().toString());
+
+        return ticket;
+    }
+
+    private void writeJson(HttpExchange exchange, Response response) throws IOException {
+        ApiResponse<Object> envelope = new ApiResponse<>();
+        envelope.setData(response.data);
+        envelope.setSuccess(response.success);
+        envelope.setMessage(response.message);
+
+        Type envelopeType = TypeToken.getParameterized(ApiResponse.class, response.type).getType();
+        byte[] body = gson.toJson(envelope, envelopeType).getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().add("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+    }
+
+    private String count(String path) {
+        String endpoint = path.substring(path.lastIndexOf('/'));
+        requestCounts.computeIfAbsent(endpoint, key -> new AtomicLong()).incrementAndGet();
+        return endpoint;
+    }
+
+    private static void echoIdempotencyKey(HttpExchange exchange) {
+        String key = exchange.getRequestHeaders().getFirst(IDEMPOTENCY_HEADER);
+        if (key != null) {
+            exchange.getResponseHeaders().set(IDEMPOTENCY_HEADER, key);
+        }
+    }
+
+    private static String sessionIdOf(HttpExchange exchange) {
+        List<String> headers = exchange.getRequestHeaders().get("Cookie");
+        if (headers == null) {
+            return null;
+        }
+
+        for (String header : headers) {
+            for (String pair : header.split(";")) {
+                String[] parts = pair.trim().split("=", 2);
+                if (parts.length == 2 && SESSION_COOKIE.equals(parts[0])) {
+                    return parts[1];
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String readBody(InputStream in) throws IOException {
+        return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, String> parseParams(String encoded) {
+        Map<String, String> params = new HashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return params;
+        }
+
+        for (String pair : encoded.split("&")) {
+            String[] parts = pair.split("=", 2);
+            String key = URLDecoder.decode(parts[0], StandardCharsets.UTF_8);
+            String value = parts.length > 1 ? URLDecoder.decode(parts[1], StandardCharsets.UTF_8) : "";
+            params.put(key, value);
+        }
+        return params;
+    }
+
+    private static Integer parseInt(String value) {
+        try {
+            return value != null ? Integer.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        BackendSimulator simulator = new BackendSimulator(SimulatorConfig.fromSystemProperties());
+        simulator.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(simulator::stop, "BackendSimulatorShutdown"));
+    }
+}
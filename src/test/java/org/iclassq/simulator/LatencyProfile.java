@@ -0,0 +1,36 @@
+package org.iclassq.simulator;
+
+import lombok.Getter;
+
+import java.util.Random;
+
+@Getter
+public class LatencyProfile {
+    private static final double Z_99 = 2.326;
+
+    private final long medianMs;
+    private final long p99Ms;
+    private final double sigma;
+
+    public LatencyProfile(long medianMs, long p99Ms) {
+        this.medianMs = Math.max(0, medianMs);
+        this.p99Ms = Math.max(this.medianMs, p99Ms);
+        this.sigma = this.medianMs > 0 ? Math.log((double) this.p99Ms / this.medianMs) / Z_99 : 0;
+    }
+
+    public static LatencyProfile none() {
+        return new LatencyProfile(0, 0);
+    }
+
+    public long sample(Random random) {
+        if (medianMs == 0) {
+            return 0;
+        }
+        return Math.round(medianMs * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("mediana %d ms, p99 %d ms", medianMs, p99Ms);
+    }
+}
@@ -0,0 +1,83 @@
+package org.iclassq.simulator;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Builder
+public class SimulatorConfig {
+    @Builder.Default
+    private int port = 8099;
+
+    @Builder.Default
+    private String contextPath = "/iclassq";
+
+    @Builder.Default
+    private int grupos = 12;
+
+    @Builder.Default
+    private int subgruposPorGrupo = 6;
+
+    @Builder.Default
+    private int tiposDocumento = 4;
+
+    @Builder.Default
+    private LatencyProfile latency = new LatencyProfile(40, 400);
+
+    @Builder.Default
+    private Map<String, LatencyProfile> endpointLatency = new HashMap<>();
+
+    @Builder.Default
+    private double errorRate = 0.0;
+
+    @Builder.Default
+    private double stallRate = 0.0;
+
+    @Builder.Default
+    private long stallMs = 30_000;
+
+    @Builder.Default
+    private int sessionTtlSeconds = 1800;
+
+    @Builder.Default
+    private String password = null;
+
+    @Builder.Default
+    private int workerThreads = 16;
+
+    @Builder.Default
+    private long seed = 42;
+
+    public LatencyProfile latencyFor(String endpoint) {
+        return endpointLatency.getOrDefault(endpoint, latency);
+    }
+
+    public static SimulatorConfig fromSystemProperties() {
+        Map<String, LatencyProfile> endpointLatency = new HashMap<>();
+        endpointLatency.put("/generarticketatencion.app", new LatencyProfile(
+                Long.getLong("sim.ticket.latency.median", 150),
+                Long.getLong("sim.ticket.latency.p99", 1500)));
+
+        return SimulatorConfig.builder()
+                .port(Integer.getInteger("sim.port", 8099))
+                .contextPath(System.getProperty("sim.context", "/iclassq"))
+                .grupos(Integer.getInteger("sim.grupos", 12))
+                .subgruposPorGrupo(Integer.getInteger("sim.subgrupos", 6))
+                .tiposDocumento(Integer.getInteger("sim.tipos-documento", 4))
+                .latency(new LatencyProfile(
+                        Long.getLong("sim.latency.median", 40),
+                        Long.getLong("sim.latency.p99", 400)))
+                .endpointLatency(endpointLatency)
+                .errorRate(Double.parseDouble(System.getProperty("sim.error-rate", "0")))
+                .stallRate(Double.parseDouble(System.getProperty("sim.stall-rate", "0")))
+                .stallMs(Long.getLong("sim.stall-ms", 30_000))
+                .sessionTtlSeconds(Integer.getInteger("sim.session-ttl", 1800))
+                .password(System.getProperty("sim.password"))
+                .workerThreads(Integer.getInteger("sim.threads", 16))
+                .seed(Long.getLong("sim.seed", 42))
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package org.iclassq.simulator;
+
+import okhttp3.FormBody;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.iclassq.http.HttpTransport;
+import org.iclassq.http.SessionCookieStore;
+import org.iclassq.http.SessionManager;
+import org.iclassq.model.dto.request.TicketRequestDTO;
+import org.iclassq.model.dto.response.TicketResponseDTO;
+import org.iclassq.service.impl.TicketServiceImpl;
+import org.iclassq.service.ticket.ProvisionalTicketIssuer;
+import org.iclassq.service.ticket.TicketLog;
+import org.iclassq.service.ticket.TicketLogCipher;
+import org.iclassq.service.ticket.TicketRequestJournal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+public class TicketDedupCheck {
+    private static final String TICKET_ENDPOINT = "/generarticketatencion.app";
+    private static final String IDEMPOTENCY_HEADER = "Idempotency-Key";
+    private static final String PREFIJO = "A";
+
+    private final BackendSimulator simulator;
+    private final HttpTransport transport;
+    private final Path directory;
+
+    private TicketDedupCheck(BackendSimulator simulator, HttpTransport transport, Path directory) {
+        this.simulator = simulator;
+        this.transport = transport;
+        this.directory = directory;
+    }
+
+    public static void main(String[] args) throws IOException {
+        BackendSimulator simulator = new BackendSimulator(SimulatorConfig.builder()
+                .port(0)
+                .latency(new LatencyProfile(5, 20))
+                .build());
+        Path directory = Files.createTempDirectory("tickets-dedup");
+        simulator.start();
+
+        SessionCookieStore cookieStore = new SessionCookieStore();
+        HttpTransport transport = new HttpTransport(cookieStore);
+        SessionManager sessionManager = new SessionManager(simulator.getBaseUrl(), transport, cookieStore,
+                TimeUnit.MINUTES.toMillis(5));
+        transport.setSessionInterceptor(sessionManager);
+
+        try {
+            check(sessionManager.login("kiosko", "kiosko", 3) != null, "el simulador debe aceptar el login");
+
+            TicketDedupCheck check = new TicketDedupCheck(simulator, transport, directory);
+            check.responseEchoesIdempotencyKey();
+            check.retriedIssuanceReturnsSameTicket();
+            System.out.println("TicketDedupCheck: OK");
+        } finally {
+            sessionManager.shutdown();
+            transport.shutdown();
+            simulator.stop();
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private void responseEchoesIdempotencyKey() throws IOException {
+        String key = UUID.randomUUID().toString();
+        Request request = new Request.Builder()
+                .url(simulator.getBaseUrl() + TICKET_ENDPOINT)
+                .header(IDEMPOTENCY_HEADER, key)
+                .post(new FormBody.Builder()
+                        .add("idSubgrupo", "1")
+                        .add("prefijo", PREFIJO)
+                        .add("clientRequestId", key)
+                        .build())
+                .build();
+
+        try (Response response = transport.newCall(request).execute()) {
+            check(response.isSuccessful(), "la emisión debe responder 200: " + response.code());
+            check(key.equals(response.header(IDEMPOTENCY_HEADER)),
+                    "la respuesta de ticket debe repetir el Idempotency-Key de la solicitud");
+        }
+    }
+
+    private void retriedIssuanceReturnsSameTicket() throws IOException {
+        String clientRequestId = UUID.randomUUID().toString();
+        int issuedBefore = simulator.getIssuedTicketCount();
+
+        TicketResponseDTO first = service("primero").generateTicket(request(clientRequestId));
+        TicketResponseDTO retried = service("reintento").generateTicket(request(clientRequestId));
+
+        check(first.getId().equals(retried.getId()) && first.getCodigo().equals(retried.getCodigo()),
+                "el reintento debe devolver el mismo ticket: " + first.getCodigo() + ", " + retried.getCodigo());
+        check(simulator.getIssuedTicketCount() - issuedBefore == 1,
+                "el backend debe emitir un solo ticket por clientRequestId");
+    }
+
+    private TicketServiceImpl service(String name) throws IOException {
+        Path dir = Files.createDirectories(directory.resolve(name));
+        TicketLog log = new TicketLog(dir.resolve("tickets.jsonl"), new TicketLogCipher(dir.resolve("tickets.key")));
+        ProvisionalTicketIssuer issuer = new ProvisionalTicketIssuer(log, List.of(), 10);
+        issuer.restore();
+
+        return new TicketServiceImpl(simulator.getBaseUrl(), transport, new TicketRequestJournal(), true, issuer);
+    }
+
+    private static TicketRequestDTO request(String clientRequestId) {
+        return new TicketRequestDTO(1, 7, PREFIJO, "Rosa Quispe Mamani", "45879123", 1, 1, clientRequestId);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}